@@ -3,9 +3,22 @@ package ben;
 import ben.command.Command;
 import ben.parser.Parser;
 import ben.storage.Storage;
+import ben.storage.StorageConfig;
+import ben.storage.StorageFactory;
 import ben.task.TaskList;
 import ben.ui.UI;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
 /**
  * Main application class for the Ben chatbot.
  * Handles CLI mode only - GUI mode is handled by separate GUI class.
@@ -14,11 +27,12 @@ import ben.ui.UI;
  * @version 2.0
  */
 public class Ben {
+    private static final int BATCH_BUFFER_SIZE = 64 * 1024;
+
     private TaskList tasks;
     private UI ui;
     private Storage storage;
     private String name = "Ben";
-    private static final String FILE_PATH = "./data/ben.txt";
 
     /**
      * Initializes the Ben chatbot with UI, storage, and task list components.
@@ -26,22 +40,22 @@ public class Ben {
      */
     public Ben() {
         ui = new UI();
-        storage = new Storage(FILE_PATH);
+        storage = StorageFactory.create(StorageConfig.fromSystemProperties());
 
         assert ui != null : "UI should be initialized";
         assert storage != null : "Storage should be initialized";
-        assert FILE_PATH != null && !FILE_PATH.trim().isEmpty() : "File path should be valid";
 
         try {
-            tasks = new TaskList(storage.loadTasks());
+            tasks = new TaskList(storage.loadTasks(), TaskList.Backing.fromSystemProperties());
         } catch (BenException e) {
             ui.showError("Problem loading tasks: " + e.getMessage());
-            tasks = new TaskList();
+            tasks = new TaskList(new ArrayList<>(), TaskList.Backing.fromSystemProperties());
         }
 
         assert tasks != null : "TaskList should always be initialized";
 
         tasks.setStorage(storage);
+        Runtime.getRuntime().addShutdownHook(new Thread(storage::close));
 
         // Verify the wiring is correct
         assert tasks != null && ui != null && storage != null :
@@ -68,21 +82,95 @@ public class Ben {
 
         boolean isExit = false;
         while (!isExit) {
+            isExit = executeCommand(userInterface.readCommand(), userInterface);
+        }
+
+        userInterface.showGoodbye();
+        userInterface.close();
+        storage.close();
+    }
+
+    /**
+     * Runs every command in a script, writing the replies to a buffered copy of standard output.
+     * Changes are not saved command by command but all at once at the end, and also after every
+     * {@code commitInterval} commands if that is positive. Stops early at {@code bye}. A transaction still
+     * open when the script ends is rolled back.
+     *
+     * @param script the commands, one per line
+     * @param commitInterval the number of commands after which changes so far are saved, or 0 to save only at the end
+     * @throws IOException if the script cannot be read
+     */
+    public void runBatch(BufferedReader script, int commitInterval) throws IOException {
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out),
+                BATCH_BUFFER_SIZE), false);
+        UI batchInterface = new UI(InputStream.nullInputStream(), out);
+        batchInterface.showWelcome(name);
+
+        tasks.deferSaves();
+        try {
+            int commandCount = 0;
+            boolean isExit = false;
+            String fullCommand;
+            while (!isExit && (fullCommand = script.readLine()) != null) {
+                isExit = executeCommand(fullCommand, batchInterface);
+                if (commitInterval > 0 && ++commandCount % commitInterval == 0) {
+                    saveBatch(batchInterface);
+                }
+            }
+        } finally {
+            rollbackOpenTransaction(batchInterface);
             try {
-                String fullCommand = userInterface.readCommand();
-                userInterface.showLine();
-                Command c = Parser.parse(fullCommand);
-                c.execute(tasks, userInterface, storage);
-                isExit = c.isExit();
+                tasks.resumeSaves();
             } catch (BenException e) {
-                userInterface.showError(e.getMessage());
-            } finally {
-                userInterface.showLine();
+                batchInterface.showError("Problem saving tasks: " + e.getMessage());
             }
+            batchInterface.showGoodbye();
+            batchInterface.close();
+            storage.close();
+        }
+    }
+
+    /**
+     * Undoes a transaction the script left open, so what was changed before it can still be saved.
+     */
+    private void rollbackOpenTransaction(UI userInterface) {
+        if (!tasks.isInTransaction()) {
+            return;
         }
+        try {
+            int changeCount = tasks.rollbackTransaction();
+            userInterface.showError("The script ended inside a transaction that was not committed, so its "
+                    + changeCount + (changeCount == 1 ? " change was" : " changes were") + " undone.");
+        } catch (BenException e) {
+            userInterface.showError("Problem rolling back the open transaction: " + e.getMessage());
+        }
+    }
 
-        userInterface.showGoodbye();
-        userInterface.close();
+    private void saveBatch(UI userInterface) {
+        try {
+            tasks.saveDeferredChanges();
+        } catch (BenException e) {
+            userInterface.showError("Problem saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses and runs one command, reporting any error to the user.
+     *
+     * @return true if the command ends the session
+     */
+    private boolean executeCommand(String fullCommand, UI userInterface) {
+        try {
+            userInterface.showLine();
+            Command c = Parser.parse(fullCommand);
+            c.execute(tasks, userInterface, storage);
+            return c.isExit();
+        } catch (BenException e) {
+            userInterface.showError(e.getMessage());
+            return false;
+        } finally {
+            userInterface.showLine();
+        }
     }
 
     /**
@@ -92,14 +180,82 @@ public class Ben {
      * @param args command line arguments:
      *             - no args or "cli": runs in CLI mode
      *             - "gui": runs in GUI mode
+     *             - "--storage=<backend>": selects the storage backend, e.g. text, binary, journal, memory or paged
+     *             - "--data=<path>": selects the task file
+     *             - "--batch [file]": runs the commands in the file, or on standard input if no file or "-"
+     *               is given, saving once at the end
+     *             - "--commit-every=<n>": in batch mode, also saves after every n commands
      */
     public static void main(String[] args) {
+        applyStorageOptions(args);
         if (args.length > 0 && args[0].equalsIgnoreCase("gui")) {
             // Launch GUI mode
             Launcher.main(args);
+        } else if (getBatchScript(args) != null) {
+            runBatchScript(getBatchScript(args), getCommitInterval(args));
         } else {
             // Default CLI mode
             new Ben().run();
         }
     }
-}
\ No newline at end of file
+
+    private static void runBatchScript(String path, int commitInterval) {
+        InputStream in = System.in;
+        try {
+            if (!path.equals("-")) {
+                in = new FileInputStream(path);
+            }
+            try (BufferedReader script = new BufferedReader(new InputStreamReader(in), BATCH_BUFFER_SIZE)) {
+                new Ben().runBatch(script, commitInterval);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading batch script: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Gets the script named by the batch option.
+     *
+     * @return the script's path, "-" for standard input, or null if batch mode was not asked for
+     */
+    private static String getBatchScript(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--batch=")) {
+                return args[i].substring("--batch=".length());
+            } else if (args[i].equals("--batch")) {
+                return i + 1 < args.length && !args[i + 1].startsWith("--") ? args[i + 1] : "-";
+            }
+        }
+        return null;
+    }
+
+    private static int getCommitInterval(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--commit-every=")) {
+                try {
+                    return Math.max(0, Integer.parseInt(arg.substring("--commit-every=".length())));
+                } catch (NumberFormatException e) {
+                    System.err.println("Warning: Ignoring invalid commit interval: " + arg);
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Copies storage options given on the command line into the matching system properties,
+     * so both the CLI and the GUI pick them up through {@link StorageConfig#fromSystemProperties()}.
+     *
+     * @param args command line arguments
+     */
+    private static void applyStorageOptions(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--storage=")) {
+                System.setProperty(StorageConfig.BACKEND_PROPERTY, arg.substring("--storage=".length()));
+            } else if (arg.startsWith("--data=")) {
+                System.setProperty(StorageConfig.FILE_PROPERTY, arg.substring("--data=".length()));
+            }
+        }
+    }
+}
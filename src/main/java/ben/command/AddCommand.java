@@ -3,6 +3,7 @@ package ben.command;
 import ben.BenException;
 import ben.storage.Storage;
 import ben.task.Deadline;
+import ben.task.DescriptionPool;
 import ben.task.Event;
 import ben.task.Task;
 import ben.task.TaskList;
@@ -23,34 +24,38 @@ public class AddCommand extends Command {
 
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
-        Task task;
+        Task task = createTask();
+        tasks.addTask(task);
+        ui.showTaskAdded(task, tasks.getSize());
+        showOverlapWarning(tasks, task, ui);
+    }
 
+    @Override
+    public void validate() throws BenException {
+        createTask();
+    }
+
+    private Task createTask() throws BenException {
         switch (taskType.toLowerCase()) {
             case "todo":
-                task = createTodoTask(arguments);
-                break;
+                return createTodoTask(arguments);
 
             case "deadline":
-                task = createDeadlineTask(arguments);
-                break;
+                return createDeadlineTask(arguments);
 
             case "event":
-                task = createEventTask(arguments);
-                break;
+                return createEventTask(arguments);
 
             default:
                 throw new BenException("Unknown ben.task type: " + taskType);
         }
-
-        tasks.addTask(task);
-        ui.showTaskAdded(task, tasks.getSize());
     }
 
     private Task createTodoTask(String description) throws BenException {
         if (description.trim().isEmpty()) {
             throw new BenException("The description of a todo cannot be empty.");
         }
-        return new ToDo(description.trim());
+        return new ToDo(DescriptionPool.intern(description.trim()));
     }
 
     private Task createDeadlineTask(String content) throws BenException {
@@ -73,7 +78,7 @@ public class AddCommand extends Command {
             throw new BenException("The deadline date cannot be empty.");
         }
 
-        return new Deadline(description, by);
+        return new Deadline(DescriptionPool.intern(description), by);
     }
 
     private Task createEventTask(String content) throws BenException {
@@ -102,7 +107,7 @@ public class AddCommand extends Command {
             throw new BenException("The event date-time cannot be empty.");
         }
 
-        return new Event(description, from, to);
+        return new Event(DescriptionPool.intern(description), from, to);
     }
 
     @Override
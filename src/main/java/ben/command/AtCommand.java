@@ -0,0 +1,72 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.Event;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Lists the events running at a given moment.
+ * Accepts {@code at <yyyy-MM-dd HHmm>}.
+ */
+public class AtCommand extends Command {
+    static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy HHmm");
+
+    private String arguments;
+
+    public AtCommand(String arguments) {
+        this.arguments = arguments.trim();
+    }
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        LocalDateTime moment = parseMoment();
+        String when = "at " + moment.format(OUTPUT_FORMAT);
+        showEvents(ui, tasks.getEventsAt(moment), "Events running " + when + ":", "No events running " + when);
+    }
+
+    @Override
+    public void validate() throws BenException {
+        parseMoment();
+    }
+
+    private LocalDateTime parseMoment() throws BenException {
+        if (arguments.isEmpty()) {
+            throw new BenException("Please specify a time! Format: at <yyyy-mm-dd HHmm>");
+        }
+        return parseDateTime(arguments);
+    }
+
+    static LocalDateTime parseDateTime(String dateTimeString) throws BenException {
+        try {
+            return LocalDateTime.parse(dateTimeString.trim().replaceAll("\\s+", " "), INPUT_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new BenException("Invalid date-time format! Please use yyyy-mm-dd HHmm format (e.g., 2019-12-25 1400)");
+        }
+    }
+
+    static void showEvents(UI ui, List<Event> events, String header, String emptyMessage) {
+        if (events.isEmpty()) {
+            ui.showMessage(emptyMessage);
+            return;
+        }
+
+        StringBuilder result = new StringBuilder(header);
+        for (int i = 0; i < events.size(); i++) {
+            result.append("\n ").append(i + 1).append(".").append(events.get(i));
+        }
+        ui.showMessage(result.toString());
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
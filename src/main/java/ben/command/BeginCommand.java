@@ -0,0 +1,24 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+/**
+ * Starts a transaction, so the changes that follow are saved together by {@code commit}
+ * or undone together by {@code rollback}.
+ */
+public class BeginCommand extends Command {
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        tasks.beginTransaction();
+        ui.showMessage("Transaction started. Use commit to save the changes that follow, or rollback to undo them.");
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
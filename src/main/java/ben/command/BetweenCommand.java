@@ -0,0 +1,58 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lists the events that overlap a time window.
+ * Accepts {@code between <yyyy-MM-dd HHmm> <yyyy-MM-dd HHmm>}; the window includes its start but not its end.
+ */
+public class BetweenCommand extends Command {
+    private static final String FORMAT = "Format: between <yyyy-mm-dd HHmm> <yyyy-mm-dd HHmm>";
+
+    private String arguments;
+
+    public BetweenCommand(String arguments) {
+        this.arguments = arguments.trim();
+    }
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        LocalDateTime[] bounds = parseWindow();
+        LocalDateTime from = bounds[0];
+        LocalDateTime to = bounds[1];
+        String window = "between " + from.format(AtCommand.OUTPUT_FORMAT) + " and " + to.format(AtCommand.OUTPUT_FORMAT);
+        AtCommand.showEvents(ui, tasks.getEventsBetween(from, to), "Events " + window + ":", "No events " + window);
+    }
+
+    @Override
+    public void validate() throws BenException {
+        parseWindow();
+    }
+
+    /**
+     * Parses the start and end of the window, in that order.
+     */
+    private LocalDateTime[] parseWindow() throws BenException {
+        String[] parts = arguments.split("\\s+");
+        if (parts.length != 4) {
+            throw new BenException("Please specify when the window starts and ends! " + FORMAT);
+        }
+
+        LocalDateTime from = AtCommand.parseDateTime(parts[0] + " " + parts[1]);
+        LocalDateTime to = AtCommand.parseDateTime(parts[2] + " " + parts[3]);
+        if (!to.isAfter(from)) {
+            throw new BenException("The end of the window must be after its start!");
+        }
+        return new LocalDateTime[] {from, to};
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -2,14 +2,19 @@ package ben.command;
 
 import ben.BenException;
 import ben.storage.Storage;
+import ben.task.Event;
+import ben.task.Task;
 import ben.task.TaskList;
 import ben.ui.UI;
 
+import java.util.List;
+
 /**
  * Abstract base class for all executable commands in the Ben chatbot.
  * Implements the Command pattern to encapsulate user actions.
  */
 public abstract class Command {
+    private static final int LISTED_TASK_LIMIT = 10;
 
     /**
      * Executes the command with the provided application context.
@@ -22,6 +27,16 @@ public abstract class Command {
      */
     public abstract void execute(TaskList tasks, UI ui, Storage storage) throws BenException;
 
+    /**
+     * Checks the command's arguments without running it, so that commands given together with {@code ;}
+     * can all be checked before any of them runs. Only checks that do not need the task list are made;
+     * by default nothing is checked.
+     *
+     * @throws BenException if the arguments are invalid
+     */
+    public void validate() throws BenException {
+    }
+
     /**
      * Determines whether this command should cause the application to terminate.
      *
@@ -29,4 +44,48 @@ public abstract class Command {
      */
     public abstract boolean isExit();
 
+    /**
+     * Warns the user if the given task is an event whose time overlaps other events in the list.
+     *
+     * @param tasks the task list holding the task
+     * @param task the task that was just added or rescheduled
+     * @param ui the user interface to show the warning on
+     */
+    protected static void showOverlapWarning(TaskList tasks, Task task, UI ui) {
+        if (!(task instanceof Event)) {
+            return;
+        }
+        List<Event> overlapping = tasks.getOverlappingEvents((Event) task);
+        if (overlapping.isEmpty()) {
+            return;
+        }
+
+        StringBuilder warning = new StringBuilder("Heads up! This event overlaps with:");
+        for (int i = 0; i < overlapping.size(); i++) {
+            warning.append("\n ").append(i + 1).append(".").append(overlapping.get(i));
+        }
+        ui.showMessage(warning.toString());
+    }
+
+    /**
+     * Reports the tasks a bulk command changed, listing only the first few of a long list.
+     *
+     * @param ui the user interface to show the report on
+     * @param header the line introducing the tasks
+     * @param changedTasks the tasks that were changed
+     * @param footer a closing line, or null for none
+     */
+    protected static void showChangedTasks(UI ui, String header, List<Task> changedTasks, String footer) {
+        StringBuilder result = new StringBuilder(header);
+        for (int i = 0; i < changedTasks.size() && i < LISTED_TASK_LIMIT; i++) {
+            result.append("\n   ").append(changedTasks.get(i));
+        }
+        if (changedTasks.size() > LISTED_TASK_LIMIT) {
+            result.append("\n   ...and ").append(changedTasks.size() - LISTED_TASK_LIMIT).append(" more");
+        }
+        if (footer != null) {
+            result.append("\n ").append(footer);
+        }
+        ui.showMessage(result.toString());
+    }
 }
@@ -0,0 +1,23 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+/**
+ * Ends the open transaction and saves its changes in one write.
+ */
+public class CommitCommand extends Command {
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        int changeCount = tasks.commitTransaction();
+        ui.showMessage("Transaction committed: saved " + changeCount + (changeCount == 1 ? " change." : " changes."));
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
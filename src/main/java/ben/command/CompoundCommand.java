@@ -0,0 +1,53 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+import java.util.List;
+
+/**
+ * Runs several commands given on one line, separated by {@code ;}, as a whole: if any of them fails,
+ * the changes made by the ones before it are undone, and otherwise all changes are saved in one write.
+ * Inside an open transaction, only this line's changes are undone on failure and the transaction stays open.
+ */
+public class CompoundCommand extends Command {
+    private List<Command> commands;
+
+    public CompoundCommand(List<Command> commands) {
+        this.commands = commands;
+    }
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        boolean isOwnTransaction = !tasks.isInTransaction();
+        if (isOwnTransaction) {
+            tasks.beginTransaction();
+        }
+        int savepoint = tasks.markSavepoint();
+        try {
+            for (Command command : commands) {
+                command.execute(tasks, ui, storage);
+            }
+        } catch (BenException | RuntimeException e) {
+            if (isOwnTransaction) {
+                tasks.rollbackTransaction();
+            } else {
+                tasks.rollbackToSavepoint(savepoint);
+            }
+            if (e instanceof BenException) {
+                throw new BenException(e.getMessage() + " No changes from this line were kept.");
+            }
+            throw e;
+        }
+        if (isOwnTransaction) {
+            tasks.commitTransaction();
+        }
+    }
+
+    @Override
+    public boolean isExit() {
+        return commands.stream().anyMatch(Command::isExit);
+    }
+}
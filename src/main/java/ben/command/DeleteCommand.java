@@ -6,6 +6,11 @@ import ben.ui.UI;
 import ben.BenException;
 import ben.storage.Storage;
 
+import java.util.List;
+
+/**
+ * Deletes one task, or every task picked by ranges and filters such as {@code delete 10-500} or {@code delete done}.
+ */
 public class DeleteCommand extends Command {
     private String arguments;
 
@@ -15,9 +20,25 @@ public class DeleteCommand extends Command {
 
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
-        int taskNumber = Parser.parseTaskNumber(arguments, "delete");
-        Task deletedTask = tasks.deleteTask(taskNumber);
-        ui.showTaskDeleted(deletedTask, tasks.getSize());
+        TaskSelection selection = Parser.parseTaskSelection(arguments, "delete");
+        if (selection.isSingleTask()) {
+            Task deletedTask = tasks.deleteTask(selection.getSingleTaskNumber());
+            ui.showTaskDeleted(deletedTask, tasks.getSize());
+            return;
+        }
+
+        List<Task> deletedTasks = tasks.deleteTasks(selection);
+        if (deletedTasks.isEmpty()) {
+            ui.showMessage("No tasks match, so nothing was removed.");
+            return;
+        }
+        showChangedTasks(ui, "Noted. I've removed these " + deletedTasks.size() + " tasks:", deletedTasks,
+                "Now you have " + tasks.getSize() + " tasks in the list.");
+    }
+
+    @Override
+    public void validate() throws BenException {
+        Parser.parseTaskSelection(arguments, "delete");
     }
 
     @Override
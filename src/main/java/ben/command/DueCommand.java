@@ -6,7 +6,20 @@ import ben.ui.UI;
 import ben.BenException;
 import ben.storage.Storage;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Lists the deadlines and events on a day or in a range of days.
+ * Accepts {@code due <date>}, {@code due <date>..<date>}, {@code due overdue} and {@code due next <n>d}.
+ */
 public class DueCommand extends Command {
+    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy");
+    private static final String RANGE_SEPARATOR = "..";
+
     private String arguments;
 
     public DueCommand(String arguments) {
@@ -15,15 +28,78 @@ public class DueCommand extends Command {
 
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
-        if (arguments.trim().isEmpty()) {
-            throw new BenException("Please specify a date! Format: due <yyyy-mm-dd>");
+        String query = arguments.trim();
+        if (query.isEmpty()) {
+            throw new BenException("Please specify a date! Format: due <yyyy-mm-dd>, due <yyyy-mm-dd>..<yyyy-mm-dd>, "
+                    + "due overdue or due next <days>d");
         }
 
-        tasks.showTasksDueOn(arguments.trim());
+        LocalDate today = LocalDate.now();
+        if (query.equalsIgnoreCase("overdue")) {
+            showTasks(ui, tasks.getOverdueTasks(today), "Overdue tasks:", "No overdue deadlines");
+            return;
+        }
+
+        LocalDate from;
+        LocalDate to;
+        if (query.toLowerCase().startsWith("next ")) {
+            from = today;
+            to = today.plusDays(parseDayCount(query.substring("next ".length()).trim()) - 1);
+        } else if (query.contains(RANGE_SEPARATOR)) {
+            int separator = query.indexOf(RANGE_SEPARATOR);
+            from = parseDate(query.substring(0, separator).trim());
+            to = parseDate(query.substring(separator + RANGE_SEPARATOR.length()).trim());
+            if (to.isBefore(from)) {
+                throw new BenException("The end of the range must not be before its start!");
+            }
+        } else {
+            from = parseDate(query);
+            to = from;
+        }
+
+        String period = from.equals(to)
+                ? "on " + from.format(OUTPUT_FORMAT)
+                : "from " + from.format(OUTPUT_FORMAT) + " to " + to.format(OUTPUT_FORMAT);
+        showTasks(ui, tasks.getTasksDueBetween(from, to), "Tasks due " + period + ":",
+                "No deadlines or events found " + period);
+    }
+
+    private static LocalDate parseDate(String dateString) throws BenException {
+        try {
+            return LocalDate.parse(dateString, INPUT_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new BenException("Invalid date format! Please use yyyy-mm-dd format (e.g., 2019-12-25)");
+        }
+    }
+
+    private static long parseDayCount(String count) throws BenException {
+        String digits = count.toLowerCase().endsWith("d") ? count.substring(0, count.length() - 1) : count;
+        try {
+            long days = Long.parseLong(digits.trim());
+            if (days < 1) {
+                throw new NumberFormatException();
+            }
+            return days;
+        } catch (NumberFormatException e) {
+            throw new BenException("Please give a positive number of days! Format: due next <days>d (e.g., due next 7d)");
+        }
+    }
+
+    private static void showTasks(UI ui, List<Task> matchingTasks, String header, String emptyMessage) {
+        if (matchingTasks.isEmpty()) {
+            ui.showMessage(emptyMessage);
+            return;
+        }
+
+        StringBuilder result = new StringBuilder(header).append("\n");
+        for (int i = 0; i < matchingTasks.size(); i++) {
+            result.append(" ").append(i + 1).append(".").append(matchingTasks.get(i)).append("\n");
+        }
+        ui.showMessage(result.toString().trim());
     }
 
     @Override
     public boolean isExit() {
         return false;
     }
-}
\ No newline at end of file
+}
@@ -9,7 +9,13 @@ public class ExitCommand extends Command {
 
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
-        // Nothing to do - the program will exit based on isExit() returning true
+        if (tasks.isInTransaction()) {
+            int changeCount = tasks.rollbackTransaction();
+            ui.showMessage("The open transaction was not committed, so its " + changeCount
+                    + (changeCount == 1 ? " change was" : " changes were") + " undone.");
+        }
+        // Make sure no changes are still waiting to be written before the program exits
+        storage.flush();
     }
 
     @Override
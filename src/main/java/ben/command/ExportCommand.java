@@ -0,0 +1,33 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+/**
+ * Command to export all tasks to a file in the pipe-delimited text format.
+ * Useful for reading or migrating task data kept in the binary storage format.
+ */
+public class ExportCommand extends Command {
+    private String path;
+
+    public ExportCommand(String path) {
+        this.path = path.trim();
+    }
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        if (path.isEmpty()) {
+            throw new BenException("Please specify a file to export to! Format: export <file>");
+        }
+
+        storage.exportTasks(tasks.getAllTasks(), path);
+        ui.showMessage("Exported " + tasks.getSize() + " tasks to " + path);
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
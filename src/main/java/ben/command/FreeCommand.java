@@ -0,0 +1,127 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.task.TimeSlot;
+import ben.ui.UI;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds free time between events for scheduling something new.
+ * Accepts {@code free <yyyy-MM-dd> <minutes>}, optionally followed by {@code /between <HHmm> <HHmm>} to
+ * limit each day to working hours, {@code /days <count>} to search the following days as well, and
+ * {@code /all} to list every gap that fits instead of only the earliest.
+ */
+public class FreeCommand extends Command {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HHmm");
+    private static final String FORMAT =
+            "Format: free <yyyy-mm-dd> <minutes> [/between <HHmm> <HHmm>] [/days <count>] [/all]";
+
+    private String arguments;
+
+    public FreeCommand(String arguments) {
+        this.arguments = arguments.trim();
+    }
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        String[] parts = arguments.split("\\s+");
+        if (parts.length < 2) {
+            throw new BenException("Please specify a date and how many minutes you need! " + FORMAT);
+        }
+
+        LocalDate date = parseDate(parts[0]);
+        long minutes = parsePositive(parts[1], "minutes");
+        LocalTime dayStart = LocalTime.MIDNIGHT;
+        LocalTime dayEnd = null;
+        long days = 1;
+        boolean isAll = false;
+        for (int i = 2; i < parts.length; i++) {
+            if (parts[i].equals("/between") && i + 2 < parts.length) {
+                dayStart = parseTime(parts[++i]);
+                dayEnd = parseTime(parts[++i]);
+                if (!dayEnd.isAfter(dayStart)) {
+                    throw new BenException("The end of the day must be after its start!");
+                }
+            } else if (parts[i].equals("/days") && i + 1 < parts.length) {
+                days = parsePositive(parts[++i], "days");
+            } else if (parts[i].equals("/all")) {
+                isAll = true;
+            } else {
+                throw new BenException("I don't understand '" + parts[i] + "'! " + FORMAT);
+            }
+        }
+
+        List<TimeSlot> slots = new ArrayList<>();
+        for (long day = 0; day < days && (isAll || slots.isEmpty()); day++) {
+            LocalDate current = date.plusDays(day);
+            LocalDateTime from = current.atTime(dayStart);
+            LocalDateTime to = dayEnd == null ? current.plusDays(1).atStartOfDay() : current.atTime(dayEnd);
+            slots.addAll(tasks.getFreeSlots(from, to, minutes, isAll ? Integer.MAX_VALUE : 1));
+        }
+
+        if (slots.isEmpty()) {
+            ui.showMessage("No free slot of " + minutes + " minutes found.");
+        } else if (!isAll) {
+            ui.showMessage("Earliest free slot of " + minutes + " minutes:\n " + slots.get(0));
+        } else {
+            StringBuilder result = new StringBuilder("Free slots of at least " + minutes + " minutes:");
+            for (int i = 0; i < slots.size(); i++) {
+                result.append("\n ").append(i + 1).append(".").append(slots.get(i));
+            }
+            ui.showMessage(result.toString());
+        }
+    }
+
+    @Override
+    public void validate() throws BenException {
+        String[] parts = arguments.split("\\s+");
+        if (parts.length < 2) {
+            throw new BenException("Please specify a date and how many minutes you need! " + FORMAT);
+        }
+        parseDate(parts[0]);
+        parsePositive(parts[1], "minutes");
+    }
+
+    private static LocalDate parseDate(String dateString) throws BenException {
+        try {
+            return LocalDate.parse(dateString, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new BenException("Invalid date format! Please use yyyy-mm-dd format (e.g., 2019-12-25)");
+        }
+    }
+
+    private static LocalTime parseTime(String timeString) throws BenException {
+        try {
+            return LocalTime.parse(timeString, TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new BenException("Invalid time format! Please use HHmm format (e.g., 0900)");
+        }
+    }
+
+    private static long parsePositive(String number, String unit) throws BenException {
+        try {
+            long value = Long.parseLong(number);
+            if (value < 1) {
+                throw new NumberFormatException();
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new BenException("Please give a positive number of " + unit + "! " + FORMAT);
+        }
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
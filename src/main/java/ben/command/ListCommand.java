@@ -2,18 +2,92 @@ package ben.command;
 
 import ben.BenException;
 import ben.storage.Storage;
+import ben.task.Task;
 import ben.task.TaskList;
 import ben.ui.UI;
 
+import java.util.List;
+
+/**
+ * Lists every task, or only the tasks with a given status and/or type.
+ * Accepts {@code list}, {@code list done}, {@code list pending}, {@code list deadlines}
+ * and combinations such as {@code list pending deadlines}.
+ */
 public class ListCommand extends Command {
+    private static final String FORMAT = "Format: list [done|pending] [todos|deadlines|events]";
+
+    private String arguments;
+
+    public ListCommand() {
+        this("");
+    }
+
+    public ListCommand(String arguments) {
+        this.arguments = arguments.trim();
+    }
 
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
-        ui.showTaskList(tasks);
+        if (arguments.isEmpty()) {
+            ui.showTaskList(tasks);
+            return;
+        }
+
+        Boolean isComplete = null;
+        String taskType = null;
+        String typeName = "tasks";
+        for (String word : arguments.toLowerCase().split("\\s+")) {
+            if (isComplete == null && (word.equals("done") || word.equals("completed"))) {
+                isComplete = true;
+            } else if (isComplete == null && word.equals("pending")) {
+                isComplete = false;
+            } else if (taskType == null && getTaskType(word) != null) {
+                taskType = getTaskType(word);
+                typeName = word.endsWith("s") ? word : word + "s";
+            } else {
+                throw new BenException("I don't know how to filter by '" + word + "'! " + FORMAT);
+            }
+        }
+
+        List<Task> matchingTasks;
+        if (taskType == null) {
+            matchingTasks = isComplete ? tasks.getCompletedTasks() : tasks.getPendingTasks();
+        } else if (isComplete == null) {
+            matchingTasks = tasks.getTasksByType(taskType);
+        } else {
+            matchingTasks = tasks.getTasksByTypeAndStatus(taskType, isComplete);
+        }
+
+        String description = (isComplete == null ? "" : isComplete ? "done " : "pending ") + typeName;
+        if (matchingTasks.isEmpty()) {
+            ui.showMessage("No " + description + " in your list.");
+            return;
+        }
+        StringBuilder result = new StringBuilder("Here are the " + description + " in your list:");
+        for (int i = 0; i < matchingTasks.size(); i++) {
+            result.append("\n ").append(i + 1).append(".").append(matchingTasks.get(i));
+        }
+        ui.showMessage(result.toString());
+    }
+
+    private static String getTaskType(String word) {
+        switch (word) {
+            case "todo":
+            case "todos":
+                return "T";
+            case "deadline":
+            case "deadlines":
+                return "D";
+            case "event":
+            case "events":
+                return "E";
+            default:
+                return null;
+        }
     }
 
     @Override
     public boolean isExit() {
         return false;
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,12 @@ import ben.ui.UI;
 import ben.BenException;
 import ben.storage.Storage;
 
+import java.util.List;
+
+/**
+ * Marks one task as done or not done, or every task picked by ranges and filters such as
+ * {@code mark 1,4,9-20} or {@code mark type:D before:2024-01-01}.
+ */
 public class MarkCommand extends Command {
     private String arguments;
     private boolean isMarked; // true for mark, false for unmark
@@ -18,8 +24,22 @@ public class MarkCommand extends Command {
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
         String commandType = isMarked ? "mark" : "unmark";
-        int taskNumber = Parser.parseTaskNumber(arguments, commandType);
+        TaskSelection selection = Parser.parseTaskSelection(arguments, commandType);
+        if (!selection.isSingleTask()) {
+            List<Task> changedTasks = tasks.markTasks(selection, isMarked);
+            if (changedTasks.isEmpty()) {
+                ui.showMessage("No tasks match, so nothing was " + commandType + "ed.");
+            } else if (isMarked) {
+                showChangedTasks(ui, "Nice! I've marked these " + changedTasks.size() + " tasks as done:",
+                        changedTasks, null);
+            } else {
+                showChangedTasks(ui, "OK, I've marked these " + changedTasks.size() + " tasks as not done yet:",
+                        changedTasks, null);
+            }
+            return;
+        }
 
+        int taskNumber = selection.getSingleTaskNumber();
         if (isMarked) {
             tasks.mark(taskNumber);
             Task task = tasks.getTask(taskNumber);
@@ -31,6 +51,11 @@ public class MarkCommand extends Command {
         }
     }
 
+    @Override
+    public void validate() throws BenException {
+        Parser.parseTaskSelection(arguments, isMarked ? "mark" : "unmark");
+    }
+
     @Override
     public boolean isExit() {
         return false;
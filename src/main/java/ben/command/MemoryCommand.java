@@ -0,0 +1,51 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.PageCache;
+import ben.storage.PagedStorage;
+import ben.storage.Storage;
+import ben.task.DescriptionPool;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+/**
+ * Shows how much memory the shared description pool saves, and how well the page cache of the
+ * {@code paged} storage backend is doing, for diagnosing large task lists.
+ */
+public class MemoryCommand extends Command {
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        DescriptionPool.Statistics statistics = DescriptionPool.getStatistics();
+        String result = "Description pool: " + statistics.getDistinctCount() + " distinct descriptions in use ("
+                + formatBytes(statistics.getPooledBytes()) + ")."
+                + "\n Shared " + statistics.getSharedCount() + " of " + statistics.getLookupCount()
+                + " descriptions read, saving about " + formatBytes(statistics.getSharedSavedBytes()) + "."
+                + "\n " + statistics.getLatin1Count() + " descriptions are stored one byte per character, saving "
+                + formatBytes(statistics.getCompactSavedBytes()) + ".";
+        if (storage instanceof PagedStorage && ((PagedStorage) storage).getCacheStatistics() != null) {
+            PageCache.Statistics cache = ((PagedStorage) storage).getCacheStatistics();
+            result += "\n Page cache: " + cache.getCapacity() + " pages ("
+                    + formatBytes((long) cache.getCapacity() * cache.getPageSize()) + "), "
+                    + cache.getHitCount() + " hits, " + cache.getMissCount() + " misses ("
+                    + String.format("%.1f%%", cache.getHitRate() * 100) + " hit rate), "
+                    + cache.getEvictionCount() + " evictions, " + cache.getWriteCount() + " pages written.";
+        }
+        ui.showMessage(result);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " bytes";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+/**
+ * Ends the open transaction, undoing every change made since {@code begin}.
+ */
+public class RollbackCommand extends Command {
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        int changeCount = tasks.rollbackTransaction();
+        ui.showMessage("Transaction rolled back: undid " + changeCount + (changeCount == 1 ? " change." : " changes."));
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+/**
+ * Lists the tasks most relevant to a multi-word query, best match first.
+ * Accepts {@code search <words>} and {@code search <words> /top <count>}.
+ */
+public class SearchCommand extends Command {
+    private static final int DEFAULT_LIMIT = 10;
+    private static final String LIMIT_MARKER = "/top";
+
+    private String arguments;
+
+    public SearchCommand(String arguments) {
+        this.arguments = arguments.trim();
+    }
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        String query = arguments;
+        int limit = DEFAULT_LIMIT;
+        int marker = arguments.indexOf(LIMIT_MARKER);
+        if (marker >= 0) {
+            query = arguments.substring(0, marker).trim();
+            limit = parseLimit(arguments.substring(marker + LIMIT_MARKER.length()).trim());
+        }
+        if (query.isEmpty()) {
+            throw new BenException("Please specify words to search for! Format: search <words> [/top <count>]");
+        }
+
+        tasks.searchTasksMatching(query, limit, ui);
+    }
+
+    private static int parseLimit(String count) throws BenException {
+        try {
+            int limit = Integer.parseInt(count);
+            if (limit < 1) {
+                throw new NumberFormatException();
+            }
+            return limit;
+        } catch (NumberFormatException e) {
+            throw new BenException("Please give a positive number of results! Format: search <words> /top <count>");
+        }
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -29,22 +29,8 @@ public class SnoozeCommand extends Command {
 
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
-        if (arguments.trim().isEmpty()) {
-            throw new BenException("Please specify which task to snooze! Format: snooze <task_number> <new_date> or snooze <task_number> +<days>");
-        }
-
-        String[] parts = arguments.trim().split("\\s+");
-        if (parts.length < 2) {
-            throw new BenException("Please specify both task number and new date/time!");
-        }
-
-        int taskNumber;
-        try {
-            taskNumber = Integer.parseInt(parts[0]);
-        } catch (NumberFormatException e) {
-            throw new BenException("Task number must be a valid number!");
-        }
-
+        String[] parts = splitArguments();
+        int taskNumber = parseTaskNumber(parts);
         if (taskNumber < 1 || taskNumber > tasks.getSize()) {
             throw new BenException("Invalid task number! Please choose a number between 1 and " + tasks.getSize() + ".");
         }
@@ -57,10 +43,35 @@ public class SnoozeCommand extends Command {
 
         Task snoozedTask = createSnoozedTask(originalTask, parts);
 
-        tasks.deleteTask(taskNumber);
-        tasks.addTask(snoozedTask);
+        tasks.snoozeTask(taskNumber, snoozedTask);
 
         ui.showTaskSnoozed(originalTask, snoozedTask);
+        showOverlapWarning(tasks, snoozedTask, ui);
+    }
+
+    @Override
+    public void validate() throws BenException {
+        parseTaskNumber(splitArguments());
+    }
+
+    private String[] splitArguments() throws BenException {
+        if (arguments.trim().isEmpty()) {
+            throw new BenException("Please specify which task to snooze! Format: snooze <task_number> <new_date> or snooze <task_number> +<days>");
+        }
+
+        String[] parts = arguments.trim().split("\\s+");
+        if (parts.length < 2) {
+            throw new BenException("Please specify both task number and new date/time!");
+        }
+        return parts;
+    }
+
+    private static int parseTaskNumber(String[] parts) throws BenException {
+        try {
+            return Integer.parseInt(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new BenException("Task number must be a valid number!");
+        }
     }
 
     private Task createSnoozedTask(Task originalTask, String[] parts) throws BenException {
@@ -0,0 +1,31 @@
+package ben.command;
+
+import ben.BenException;
+import ben.storage.Storage;
+import ben.task.TaskList;
+import ben.ui.UI;
+
+/**
+ * Shows how many tasks there are of each type and how many of them are still pending.
+ * The counts come from the task list's status bitmaps, so this stays cheap on very large lists.
+ */
+public class StatsCommand extends Command {
+    private static final String[][] TYPES = {{"T", "Todos"}, {"D", "Deadlines"}, {"E", "Events"}};
+
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws BenException {
+        StringBuilder result = new StringBuilder("You have ").append(tasks.getSize()).append(" tasks: ")
+                .append(tasks.countTasksByStatus(true)).append(" done, ")
+                .append(tasks.countTasksByStatus(false)).append(" pending.");
+        for (String[] type : TYPES) {
+            result.append("\n ").append(type[1]).append(": ").append(tasks.countTasksByType(type[0]))
+                    .append(" (").append(tasks.countTasksByTypeAndStatus(type[0], false)).append(" pending)");
+        }
+        ui.showMessage(result.toString());
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
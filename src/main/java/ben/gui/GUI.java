@@ -4,10 +4,14 @@ import ben.command.Command;
 import ben.parser.Parser;
 import ben.BenException;
 import ben.storage.Storage;
+import ben.storage.StorageConfig;
+import ben.storage.StorageFactory;
 import ben.task.TaskList;
 import ben.task.Task;
 import ben.ui.UI;
 
+import java.util.ArrayList;
+
 /**
  * GUI interface for Ben chatbot that handles command processing
  * and returns formatted responses for the GUI.
@@ -15,19 +19,19 @@ import ben.ui.UI;
 public class GUI {
     private TaskList tasks;
     private Storage storage;
-    private static final String FILE_PATH = "./data/ben.txt";
 
     /**
      * Initializes the Ben GUI backend with storage and task list components.
      */
     public GUI() {
-        storage = new Storage(FILE_PATH);
+        storage = StorageFactory.create(StorageConfig.fromSystemProperties());
         try {
-            tasks = new TaskList(storage.loadTasks());
+            tasks = new TaskList(storage.loadTasks(), TaskList.Backing.fromSystemProperties());
         } catch (BenException e) {
-            tasks = new TaskList();
+            tasks = new TaskList(new ArrayList<>(), TaskList.Backing.fromSystemProperties());
         }
         tasks.setStorage(storage);
+        Runtime.getRuntime().addShutdownHook(new Thread(storage::close));
     }
 
     /**
@@ -47,9 +51,10 @@ public class GUI {
 
     private String executeCommand(Command command) throws BenException {
         if (command.getClass().getSimpleName().equals("ExitCommand")) {
+            command.execute(tasks, createMockUI(new StringBuilder()), storage);
             return "Bye. Hope to see you again soon!";
         } else if (command.getClass().getSimpleName().equals("ListCommand")) {
-            return formatTaskList();
+            return executeListCommand(command);
         } else if (command.getClass().getSimpleName().equals("AddCommand")) {
             return executeAddCommand(command);
         } else if (command.getClass().getSimpleName().equals("DeleteCommand")) {
@@ -58,10 +63,25 @@ public class GUI {
             return executeMarkCommand(command);
         } else if (command.getClass().getSimpleName().equals("FindCommand")) {
             return executeFindCommand(command);
+        } else if (command.getClass().getSimpleName().equals("SearchCommand")) {
+            return executeFindCommand(command);
+        } else if (command.getClass().getSimpleName().equals("StatsCommand")
+                || command.getClass().getSimpleName().equals("MemoryCommand")
+                || command.getClass().getSimpleName().equals("BeginCommand")
+                || command.getClass().getSimpleName().equals("CommitCommand")
+                || command.getClass().getSimpleName().equals("RollbackCommand")
+                || command.getClass().getSimpleName().equals("CompoundCommand")) {
+            return executeListCommand(command);
+        } else if (command.getClass().getSimpleName().equals("AtCommand")
+                || command.getClass().getSimpleName().equals("BetweenCommand")
+                || command.getClass().getSimpleName().equals("FreeCommand")) {
+            return executeDueCommand(command);
         } else if (command.getClass().getSimpleName().equals("DueCommand")) {
             return executeDueCommand(command);
         } else if (command.getClass().getSimpleName().equals("SnoozeCommand")) {
             return executeSnoozeCommand(command);
+        } else if (command.getClass().getSimpleName().equals("ExportCommand")) {
+            return executeExportCommand(command);
         }
         return "Command executed successfully.";
     }
@@ -114,6 +134,14 @@ public class GUI {
         return result.toString();
     }
 
+    private String executeListCommand(Command command) throws BenException {
+        StringBuilder result = new StringBuilder();
+        UI mockUI = createMockUI(result);
+
+        command.execute(tasks, mockUI, storage);
+        return result.toString();
+    }
+
     private String executeDueCommand(Command command) throws BenException {
         StringBuilder result = new StringBuilder();
         UI mockUI = createMockUI(result);
@@ -129,6 +157,13 @@ public class GUI {
         return result.length() > 0 ? result.toString() : "Task snoozed successfully.";
     }
 
+    private String executeExportCommand(Command command) throws BenException {
+        StringBuilder result = new StringBuilder();
+        UI mockUI = createMockUI(result);
+        command.execute(tasks, mockUI, storage);
+        return result.toString();
+    }
+
     /**
      * Creates a mock UI that captures output into a StringBuilder
      */
@@ -136,17 +171,20 @@ public class GUI {
         return new UI() {
             @Override
             public void showMessage(String message) {
+                if (output.length() > 0) {
+                    output.append("\n");
+                }
                 output.append(message);
             }
 
             @Override
             public void showTaskList(TaskList tasks) {
-                output.append(tasks.toString());
+                output.append(formatTaskList());
             }
 
             @Override
             public void showTaskAdded(Task task, int totalTasks) {
-                output.append("Got it. I've added this task:\n   ")
+                startEntry(output).append("Got it. I've added this task:\n   ")
                         .append(task)
                         .append("\nNow you have ")
                         .append(totalTasks)
@@ -155,7 +193,7 @@ public class GUI {
 
             @Override
             public void showTaskDeleted(Task task, int remainingTasks) {
-                output.append("Noted. I've removed this task:\n   ")
+                startEntry(output).append("Noted. I've removed this task:\n   ")
                         .append(task)
                         .append("\nNow you have ")
                         .append(remainingTasks)
@@ -164,26 +202,34 @@ public class GUI {
 
             @Override
             public void showTaskMarkedDone(Task task) {
-                output.append("Nice! I've marked this task as done:\n   ")
+                startEntry(output).append("Nice! I've marked this task as done:\n   ")
                         .append(task);
             }
 
             @Override
             public void showTaskMarkedNotDone(Task task) {
-                output.append("OK, I've marked this task as not done yet:\n   ")
+                startEntry(output).append("OK, I've marked this task as not done yet:\n   ")
                         .append(task);
             }
 
             @Override
             public void showTaskSnoozed(Task originalTask, Task snoozedTask) {
-                output.append("Got it! I've snoozed this task:\n")
+                startEntry(output).append("Got it! I've snoozed this task:\n")
                         .append("   From: ").append(originalTask).append("\n")
                         .append("   To:   ").append(snoozedTask);
             }
 
+            @Override
+            public void showMatchingTask(int rank, Task task) {
+                if (rank == 1) {
+                    startEntry(output).append("Here are the matching tasks in your list:");
+                }
+                output.append("\n ").append(rank).append(".").append(task);
+            }
+
             @Override
             public void showError(String errorMessage) {
-                output.append("OOPS!!! ").append(errorMessage);
+                startEntry(output).append("OOPS!!! ").append(errorMessage);
             }
 
             // Unused methods for mock UI
@@ -200,6 +246,16 @@ public class GUI {
         };
     }
 
+    /**
+     * Separates the reply about to be added from any already captured, e.g. when one line runs several commands.
+     */
+    private static StringBuilder startEntry(StringBuilder output) {
+        if (output.length() > 0) {
+            output.append("\n");
+        }
+        return output;
+    }
+
     private String formatTaskList() {
         if (tasks.getSize() == 0) {
             return "No tasks in your list.";
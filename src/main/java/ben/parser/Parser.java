@@ -11,16 +11,114 @@ import ben.command.MarkCommand;
 import ben.command.SnoozeCommand;
 
 import ben.command.*;
+import ben.task.TaskSelection;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Parses user input strings into executable Command objects.
  * Handles command syntax validation and creates appropriate command instances.
  */
 public class Parser {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final Map<String, CommandParser> COMMANDS = new HashMap<>();
+    private static final Set<String> ARGUMENT_FREE_COMMANDS = new HashSet<>();
+
+    static {
+        registerArgumentFree("bye", ExitCommand::new);
+        register("list", ListCommand::new);
+        registerArgumentFree("stats", StatsCommand::new);
+        registerArgumentFree("begin", BeginCommand::new);
+        registerArgumentFree("commit", CommitCommand::new);
+        registerArgumentFree("rollback", RollbackCommand::new);
+        registerArgumentFree("memory", MemoryCommand::new);
+        register("mark", arguments -> new MarkCommand(arguments, true));
+        register("unmark", arguments -> new MarkCommand(arguments, false));
+        register("delete", DeleteCommand::new);
+        register("todo", arguments -> {
+            requireArguments(arguments, "The description cannot be empty! Please specify what you want to todo.");
+            return new AddCommand("todo", arguments);
+        });
+        register("deadline", arguments -> {
+            requireArguments(arguments,
+                    "The description cannot be empty! Please specify what you want to deadline.");
+            return new AddCommand("deadline", arguments);
+        });
+        register("event", arguments -> {
+            requireArguments(arguments, "The description cannot be empty! Please specify what you want to event.");
+            return new AddCommand("event", arguments);
+        });
+        register("due", DueCommand::new);
+        register("at", arguments -> {
+            requireArguments(arguments, "Please specify a time! Format: at <yyyy-mm-dd HHmm>");
+            return new AtCommand(arguments);
+        });
+        register("between", arguments -> {
+            requireArguments(arguments,
+                    "Please specify a time window! Format: between <yyyy-mm-dd HHmm> <yyyy-mm-dd HHmm>");
+            return new BetweenCommand(arguments);
+        });
+        register("free", arguments -> {
+            requireArguments(arguments,
+                    "Please specify a date and how many minutes you need! Format: free <yyyy-mm-dd> <minutes>");
+            return new FreeCommand(arguments);
+        });
+        register("find", arguments -> {
+            requireArguments(arguments, "Please specify a keyword to search for! Format: find <keyword>");
+            return new FindCommand(arguments);
+        });
+        register("search", arguments -> {
+            requireArguments(arguments,
+                    "Please specify words to search for! Format: search <words> [/top <count>]");
+            return new SearchCommand(arguments);
+        });
+        register("export", arguments -> {
+            requireArguments(arguments, "Please specify a file to export to! Format: export <file>");
+            return new ExportCommand(arguments);
+        });
+        register("snooze", arguments -> {
+            requireArguments(arguments, "Please specify which task to snooze! "
+                    + "Format: snooze <task_number> <new_date> or snooze <task_number> +<days>");
+            return new SnoozeCommand(arguments);
+        });
+    }
+
+    /**
+     * Creates a command from the arguments typed after its command word.
+     */
+    private interface CommandParser {
+        Command parse(String arguments) throws BenException;
+    }
+
+    private static void register(String commandWord, CommandParser parser) {
+        COMMANDS.put(commandWord, parser);
+    }
+
+    private static void registerArgumentFree(String commandWord, Supplier<Command> factory) {
+        register(commandWord, arguments -> factory.get());
+        ARGUMENT_FREE_COMMANDS.add(commandWord);
+    }
+
+    private static void requireArguments(String arguments, String message) throws BenException {
+        if (arguments.isEmpty()) {
+            throw new BenException(message);
+        }
+    }
 
     /**
      * Parses a complete user input string into an executable Command object.
      * Validates command syntax and creates the appropriate command instance.
+     * Input holding several commands separated by {@code ;} becomes one command running them all; a {@code ;}
+     * that is not followed by a valid command, or is written as {@code \;}, is part of the text instead.
      *
      * @param fullCommand the complete user input string to parse
      * @return a Command object representing the parsed user input
@@ -33,6 +131,19 @@ public class Parser {
 
         assert fullCommand != null : "Command should not be null after null check";
 
+        if (fullCommand.indexOf(';') >= 0) {
+            List<String> parts = splitCommands(fullCommand);
+            if (parts.isEmpty()) {
+                throw new BenException("Enter a ben.command!");
+            } else if (parts.size() > 1) {
+                return parseCompound(parts, fullCommand.replace("\\;", ";"));
+            }
+            fullCommand = parts.get(0);
+        }
+        return parseCommand(fullCommand);
+    }
+
+    private static Command parseCommand(String fullCommand) throws BenException {
         String command = fullCommand.trim();
         String[] parts = command.split("\\s+", 2); // Split into ben.command and arguments
         String commandWord = parts[0].toLowerCase();
@@ -40,58 +151,108 @@ public class Parser {
 
         assert parts.length >= 1 : "Split command should have at least one part";
 
-        switch (commandWord) {
-            case "bye":
-                return new ExitCommand();
-
-            case "list":
-                return new ListCommand();
-
-            case "mark":
-                return new MarkCommand(arguments, true);
-
-            case "unmark":
-                return new MarkCommand(arguments, false);
-
-            case "delete":
-                return new DeleteCommand(arguments);
-
-            case "todo":
-                if (arguments.isEmpty()) {
-                    throw new BenException("The description cannot be empty! Please specify what you want to todo.");
-                }
-                return new AddCommand("todo", arguments);
+        CommandParser parser = COMMANDS.get(commandWord);
+        if (parser == null) {
+            throw new BenException("I'm sorry, say that again?");
+        }
+        return parser.parse(arguments);
+    }
 
-            case "deadline":
-                if (arguments.isEmpty()) {
-                    throw new BenException("The description cannot be empty! Please specify what you want to deadline.");
+    /**
+     * Splits input at every {@code ;} that starts another command, dropping empty parts and turning
+     * {@code \;} into a plain {@code ;}. If any part would not start with a command word, such as the
+     * rest of a description like {@code todo buy milk; eggs}, the input is kept as one command.
+     *
+     * @param fullCommand the user input containing at least one {@code ;}
+     * @return the commands, or the whole input as a single command
+     */
+    private static List<String> splitCommands(String fullCommand) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder whole = new StringBuilder();
+        StringBuilder part = new StringBuilder();
+        boolean isCommandList = true;
+        for (int i = 0; i <= fullCommand.length(); i++) {
+            char c = i < fullCommand.length() ? fullCommand.charAt(i) : ';';
+            if (c == '\\' && i + 1 < fullCommand.length() && fullCommand.charAt(i + 1) == ';') {
+                part.append(';');
+                whole.append(';');
+                i++;
+            } else if (c == ';') {
+                if (!part.toString().trim().isEmpty()) {
+                    isCommandList &= isCommandWord(part.toString());
+                    parts.add(part.toString());
                 }
-                return new AddCommand("deadline", arguments);
-
-            case "event":
-                if (arguments.isEmpty()) {
-                    throw new BenException("The description cannot be empty! Please specify what you want to event.");
+                if (i < fullCommand.length()) {
+                    whole.append(';');
                 }
-                return new AddCommand("event", arguments);
-
-            case "due":
-                return new DueCommand(arguments);
+                part.setLength(0);
+            } else {
+                part.append(c);
+                whole.append(c);
+            }
+        }
+        if (isCommandList) {
+            return parts;
+        }
+        List<String> single = new ArrayList<>();
+        single.add(whole.toString());
+        return single;
+    }
 
-            case "find":
-                if (arguments.isEmpty()) {
-                    throw new BenException("Please specify a keyword to search for! Format: find <keyword>");
-                }
-                return new FindCommand(arguments);
+    private static boolean isCommandWord(String part) {
+        String[] words = part.trim().split("\\s+", 2);
+        return COMMANDS.containsKey(words[0].toLowerCase());
+    }
 
-            case "snooze":
-                if (arguments.isEmpty()) {
-                    throw new BenException("Please specify which task to snooze! Format: snooze <task_number> <new_date> or snooze <task_number> +<days>");
+    /**
+     * Parses {@code ;}-separated commands into one command that runs them as a whole.
+     * Every part is parsed and checked before anything runs, so a typo in a later part changes nothing.
+     * If a part cannot be parsed, the {@code ;} was most likely part of the text, as in
+     * {@code todo buy milk; at least 2 litres}, so the whole input is parsed and checked as one command instead.
+     *
+     * @param parts the commands, as split from the user input
+     * @param wholeCommand the user input with {@code \;} turned into {@code ;}
+     * @return a command running the parts in order, or the whole input as a single command
+     * @throws BenException if a part is invalid and the whole input is not a valid command either,
+     *     or a part is a command that cannot be combined with others
+     */
+    private static Command parseCompound(List<String> parts, String wholeCommand) throws BenException {
+        List<Command> commands = new ArrayList<>();
+        for (String part : parts) {
+            Command command;
+            try {
+                command = parseCheckedCommand(part);
+            } catch (BenException e) {
+                try {
+                    return parseCheckedCommand(wholeCommand);
+                } catch (BenException wholeError) {
+                    throw e;
                 }
-                return new SnoozeCommand(arguments);
+            }
+            commands.add(command);
+        }
+        for (Command command : commands) {
+            if (command instanceof ExitCommand || command instanceof BeginCommand
+                    || command instanceof CommitCommand || command instanceof RollbackCommand) {
+                throw new BenException("bye, begin, commit and rollback cannot be combined with other commands using ;");
+            }
+        }
+        return new CompoundCommand(commands);
+    }
 
-            default:
-                throw new BenException("I'm sorry, say that again?");
+    /**
+     * Parses a command, also checking its arguments and rejecting arguments given to a command that takes none.
+     * Used where input holds {@code ;}, to tell commands apart from text.
+     */
+    private static Command parseCheckedCommand(String fullCommand) throws BenException {
+        String[] words = fullCommand.trim().split("\\s+", 2);
+        String commandWord = words[0].toLowerCase();
+        if (words.length > 1 && ARGUMENT_FREE_COMMANDS.contains(commandWord)) {
+            throw new BenException(commandWord + " does not take anything after it!");
         }
+        Command command = parseCommand(fullCommand);
+        command.validate();
+        return command;
     }
 
     /**
@@ -123,4 +284,83 @@ public class Parser {
             throw new BenException("Task number must be a valid number!");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Parses the tasks a bulk command applies to: task numbers, ranges and lists of them such as
+     * {@code 1,4,9-20}, and filters such as {@code done}, {@code pending}, {@code type:D},
+     * {@code before:2024-01-01} and {@code after:2024-01-01}. All given parts must hold for a task.
+     *
+     * @param arguments the selection typed after the command word
+     * @param commandType the command type requesting the parsing (used in error messages)
+     * @return the parsed selection
+     * @throws BenException if the selection is empty, or a number, range, type or date is invalid
+     */
+    public static TaskSelection parseTaskSelection(String arguments, String commandType) throws BenException {
+        if (arguments.trim().isEmpty()) {
+            throw new BenException("Please specify which task to " + commandType);
+        }
+
+        TaskSelection selection = new TaskSelection();
+        for (String word : arguments.trim().toLowerCase().split("\\s+")) {
+            if (word.equals("done") || word.equals("completed")) {
+                selection.setComplete(true);
+            } else if (word.equals("pending")) {
+                selection.setComplete(false);
+            } else if (word.startsWith("type:")) {
+                selection.setType(parseTaskType(word.substring("type:".length())));
+            } else if (word.startsWith("before:")) {
+                selection.setBefore(parseSelectionDate(word.substring("before:".length())));
+            } else if (word.startsWith("after:")) {
+                selection.setAfter(parseSelectionDate(word.substring("after:".length())));
+            } else {
+                for (String item : word.split(",")) {
+                    parseTaskRange(item, commandType, selection);
+                }
+            }
+        }
+        return selection;
+    }
+
+    private static void parseTaskRange(String item, String commandType, TaskSelection selection)
+            throws BenException {
+        if (item.isEmpty()) {
+            return;
+        }
+        int dash = item.indexOf('-', 1);
+        if (dash < 0) {
+            int taskNumber = parseTaskNumber(item, commandType);
+            selection.addRange(taskNumber, taskNumber);
+            return;
+        }
+        int from = parseTaskNumber(item.substring(0, dash), commandType);
+        int to = parseTaskNumber(item.substring(dash + 1), commandType);
+        if (from > to) {
+            throw new BenException("Invalid range " + item + "! The first task number must not be larger than the last.");
+        }
+        selection.addRange(from, to);
+    }
+
+    private static String parseTaskType(String type) throws BenException {
+        switch (type) {
+            case "t":
+            case "todo":
+                return "T";
+            case "d":
+            case "deadline":
+                return "D";
+            case "e":
+            case "event":
+                return "E";
+            default:
+                throw new BenException("Unknown task type " + type + "! Use type:T, type:D or type:E.");
+        }
+    }
+
+    private static LocalDate parseSelectionDate(String date) throws BenException {
+        try {
+            return LocalDate.parse(date, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new BenException("Invalid date format! Please use yyyy-mm-dd format (e.g., 2019-12-25)");
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package ben.storage;
+
+import ben.BenException;
+import ben.task.Deadline;
+import ben.task.DescriptionPool;
+import ben.task.Event;
+import ben.task.Task;
+import ben.task.ToDo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the versioned binary snapshot format of the task list.
+ * The file is a fixed header, followed by one fixed-width record per task, followed by a heap of
+ * UTF-8 descriptions. Records hold dates as epoch days or epoch minutes, so loading is a single
+ * memory-mapped pass with no text parsing.
+ *
+ * <pre>
+ * header (32 bytes): magic "BENS" | version int | task count int | checkpoint sequence long | heap offset long | reserved int
+ * record (32 bytes): type byte | done byte | reserved short | description offset int | description length int |
+ *                    reserved int | epoch day or start epoch minute long | end epoch minute long
+ * </pre>
+ */
+public class BinarySnapshot {
+    private static final int MAGIC = 0x42454E53; // "BENS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 32;
+
+    private final ArrayList<Task> tasks;
+    private final long checkpointSequence;
+
+    private BinarySnapshot(ArrayList<Task> tasks, long checkpointSequence) {
+        this.tasks = tasks;
+        this.checkpointSequence = checkpointSequence;
+    }
+
+    public ArrayList<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Gets the last journal sequence number that is already reflected in this snapshot.
+     *
+     * @return the checkpoint sequence number, or 0 if the snapshot was not written by a checkpoint
+     */
+    public long getCheckpointSequence() {
+        return checkpointSequence;
+    }
+
+    /**
+     * Loads a snapshot by memory-mapping the given file.
+     *
+     * @param file the binary snapshot file
+     * @return the decoded snapshot
+     * @throws BenException if the file cannot be read or is not a supported snapshot
+     */
+    public static BinarySnapshot read(File file) throws BenException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new BenException("Binary snapshot is truncated: " + file.getPath());
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new BenException("Binary snapshot is too large to map: " + file.getPath());
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new BenException("Not a binary task snapshot: " + file.getPath());
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new BenException("Unsupported binary snapshot version " + version + ": " + file.getPath());
+            }
+
+            int count = buffer.getInt(8);
+            long checkpointSequence = buffer.getLong(12);
+            long heapOffset = buffer.getLong(20);
+            if (count < 0 || heapOffset != HEADER_SIZE + (long) count * RECORD_SIZE || heapOffset > size) {
+                throw new BenException("Binary snapshot is truncated: " + file.getPath());
+            }
+
+            byte[] heap = new byte[(int) (size - heapOffset)];
+            buffer.get((int) heapOffset, heap);
+
+            ArrayList<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Task task = readRecord(buffer, HEADER_SIZE + i * RECORD_SIZE, heap);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+            return new BinarySnapshot(tasks, checkpointSequence);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            throw new BenException("Error loading binary snapshot: " + e.getMessage());
+        }
+    }
+
+    private static Task readRecord(ByteBuffer buffer, int position, byte[] heap) {
+        byte type = buffer.get(position);
+        boolean isDone = buffer.get(position + 1) != 0;
+        int descriptionOffset = buffer.getInt(position + 4);
+        int descriptionLength = buffer.getInt(position + 8);
+        long first = buffer.getLong(position + 16);
+        long second = buffer.getLong(position + 24);
+
+        String description = DescriptionPool.intern(
+                new String(heap, descriptionOffset, descriptionLength, StandardCharsets.UTF_8));
+
+        Task task;
+        try {
+            switch (type) {
+            case 'T':
+                task = new ToDo(description);
+                break;
+            case 'D':
+                task = new Deadline(description, LocalDate.ofEpochDay(first));
+                break;
+            case 'E':
+                task = new Event(description, fromEpochMinute(first), fromEpochMinute(second));
+                break;
+            default:
+                // Skip corrupted entries
+                System.err.println("Warning: Skipping corrupted binary record of type " + type);
+                return null;
+            }
+        } catch (DateTimeException | ArithmeticException e) {
+            // Skip corrupted entries, such as a date outside the range LocalDate can hold
+            System.err.println("Warning: Skipping corrupted binary record of type " + type);
+            return null;
+        }
+
+        if (isDone) {
+            task.markComplete();
+        }
+        return task;
+    }
+
+    /**
+     * Writes the given tasks to a binary snapshot file, replacing its contents.
+     *
+     * @param tasks the tasks to write
+     * @param file the destination file
+     * @param checkpointSequence the last journal sequence number reflected in the tasks
+     * @param isForced whether to force the written bytes to the storage device before returning
+     * @throws BenException if the file cannot be written
+     */
+    public static void write(List<Task> tasks, File file, long checkpointSequence, boolean isForced)
+            throws BenException {
+        int count = tasks.size();
+        long recordsSize = HEADER_SIZE + (long) count * RECORD_SIZE;
+        if (recordsSize > Integer.MAX_VALUE) {
+            throw new BenException("Too many tasks for a binary snapshot: " + count);
+        }
+        ByteBuffer records = ByteBuffer.allocate((int) recordsSize);
+        ByteArrayOutputStream heap = new ByteArrayOutputStream();
+
+        records.position(HEADER_SIZE);
+        for (Task task : tasks) {
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            if (description.length > Integer.MAX_VALUE - records.capacity() - heap.size()) {
+                throw new BenException("Task descriptions are too long for a binary snapshot");
+            }
+            long first = 0;
+            long second = 0;
+            if (task instanceof Deadline) {
+                first = ((Deadline) task).getDeadline().toEpochDay();
+            } else if (task instanceof Event) {
+                first = toEpochMinute(((Event) task).getStartTime());
+                second = toEpochMinute(((Event) task).getEndTime());
+            }
+
+            records.put((byte) task.getType().charAt(0));
+            records.put((byte) (task.isComplete() ? 1 : 0));
+            records.putShort((short) 0);
+            records.putInt(heap.size());
+            records.putInt(description.length);
+            records.putInt(0);
+            records.putLong(first);
+            records.putLong(second);
+            heap.write(description, 0, description.length);
+        }
+
+        records.putInt(0, MAGIC);
+        records.putInt(4, VERSION);
+        records.putInt(8, count);
+        records.putLong(12, checkpointSequence);
+        records.putLong(20, records.capacity());
+        records.flip();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+            ByteBuffer heapBuffer = ByteBuffer.wrap(heap.toByteArray());
+            while (heapBuffer.hasRemaining()) {
+                channel.write(heapBuffer);
+            }
+            if (isForced) {
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new BenException("Error saving binary snapshot: " + e.getMessage());
+        }
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(Math.multiplyExact(epochMinute, 60L), 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,667 @@
+package ben.storage;
+
+import ben.BenException;
+import ben.task.PersistentVector;
+import ben.task.Task;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages persistent storage of tasks to and from files.
+ * Backs the {@code text}, {@code binary} and {@code journal} storage backends.
+ */
+public class FileStorage implements Storage {
+    private String filePath;
+    private StorageConfig config;
+    private Journal journal;
+    private JournalCheckpointer checkpointer;
+    private WriteBehindFlusher flusher;
+    private TextFileLayout layout;
+    private final Object fileLock = new Object();
+    private final AtomicLong snapshotVersions = new AtomicLong();
+    private long writtenSnapshotVersion;
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String BINARY_SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    public FileStorage(String filePath) {
+        this(filePath, new StorageConfig());
+    }
+
+    /**
+     * Constructs a storage for the given file path with the given settings.
+     * When journaling is enabled, mutations are logged to a file next to the task file
+     * and periodically folded back into it by a background checkpointer.
+     *
+     * @param filePath the path of the task file
+     * @param config the storage settings to use
+     */
+    public FileStorage(String filePath, StorageConfig config) {
+        this.filePath = filePath;
+        this.config = config;
+        this.journal = new Journal(filePath + JOURNAL_SUFFIX);
+        if (config.isJournaled()) {
+            this.checkpointer = new JournalCheckpointer(this, journal,
+                    config.getCheckpointRecordThreshold(), config.getCheckpointByteThreshold());
+        }
+        if (config.getWriteBehindMillis() > 0) {
+            this.flusher = new WriteBehindFlusher(this, config.getWriteBehindMillis());
+        }
+    }
+
+    /**
+     * Loads tasks from the configured file path, then replays any journal records not yet folded into it.
+     * Creates necessary directories if they don't exist, starts from an empty list if file doesn't exist.
+     *
+     * @return list of tasks loaded from storage file
+     * @throws BenException if file reading fails or data is corrupted
+     */
+    @Override
+    public List<Task> loadTasks() throws BenException {
+        List<Task> tasks = new ArrayList<>();
+        File file = new File(filePath);
+
+        // Create directory if it doesn't exist
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+
+        // Start from an empty list if file doesn't exist. In binary mode a text file without a
+        // binary snapshot next to it is imported, which is how existing task files are migrated.
+        long checkpointSequence = 0;
+        File binaryFile = getBinaryFile();
+        if (isBinary() && binaryFile.exists()) {
+            BinarySnapshot snapshot = BinarySnapshot.read(binaryFile);
+            tasks = snapshot.getTasks();
+            checkpointSequence = snapshot.getCheckpointSequence();
+        } else if (config.isLazy() && file.exists() && file.length() < Integer.MAX_VALUE) {
+            byte[] data = readAllBytes(file);
+            LazyTaskList lazyTasks = new LazyTaskList(data);
+            tasks = lazyTasks;
+            checkpointSequence = lazyTasks.getCheckpointSequence();
+            if (isPatchable() && lazyTasks.getSkippedCount() == 0) {
+                layout = getLayout(lazyTasks, data);
+            }
+        } else if (config.isParallel() && file.exists() && file.length() < Integer.MAX_VALUE) {
+            ParallelTextLoader loader = new ParallelTextLoader(readAllBytes(file), ForkJoinPool.commonPool());
+            tasks = loader.load();
+            checkpointSequence = loader.getCheckpointSequence();
+        } else if (isPatchable() && file.exists() && file.length() < Integer.MAX_VALUE) {
+            TextFileLayout fileLayout = new TextFileLayout();
+            checkpointSequence = readIndexedTasks(readAllBytes(file), tasks, fileLayout);
+            layout = fileLayout.size() == tasks.size() ? fileLayout : null;
+        } else if (file.exists()) {
+            checkpointSequence = readTextTasks(file, tasks);
+        }
+
+        if (journal.exists()) {
+            // Replayed changes are not in the file yet, so its layout no longer matches the list
+            layout = null;
+            replayJournal(tasks, checkpointSequence);
+        } else {
+            journal.setNextSequence(checkpointSequence + 1);
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Reads tasks from a file in the pipe-delimited text format, regardless of the configured format.
+     *
+     * @param path the text file to import
+     * @return the tasks in the file
+     * @throws BenException if the file cannot be read
+     */
+    public ArrayList<Task> importTasks(String path) throws BenException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        readTextTasks(new File(path), tasks);
+        return tasks;
+    }
+
+    private byte[] readAllBytes(File file) throws BenException {
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new BenException("Error loading tasks from file: " + e.getMessage());
+        }
+    }
+
+    private long readTextTasks(File file, List<Task> tasks) throws BenException {
+        long checkpointSequence = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(TaskTextFormat.CHECKPOINT_HEADER)) {
+                    checkpointSequence = TaskTextFormat.parseCheckpointSequence(line);
+                    continue;
+                }
+                Task task = TaskTextFormat.parse(line.trim());
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        } catch (IOException e) {
+            throw new BenException("Error loading tasks from file: " + e.getMessage());
+        }
+        return checkpointSequence;
+    }
+
+    /**
+     * Reads tasks from text file content while recording where each task's line starts.
+     * Lines with an unusual status field are left out of the layout, since they could not be patched safely.
+     */
+    private long readIndexedTasks(byte[] data, List<Task> tasks, TextFileLayout layout) {
+        Charset charset = Charset.defaultCharset();
+        long checkpointSequence = 0;
+        int lineStart = 0;
+        for (int i = 0; i <= data.length; i++) {
+            if (i < data.length && data[i] != '\n') {
+                continue;
+            }
+            int start = lineStart;
+            int end = i;
+            lineStart = i + 1;
+
+            // Trim surrounding whitespace, including the '\r' of Windows line endings
+            while (start < end && (data[start] & 0xFF) <= ' ') {
+                start++;
+            }
+            while (end > start && (data[end - 1] & 0xFF) <= ' ') {
+                end--;
+            }
+            if (start == end) {
+                continue;
+            }
+
+            if (data[start] == '#') {
+                String line = new String(data, start, end - start, charset);
+                if (line.startsWith(TaskTextFormat.CHECKPOINT_HEADER)) {
+                    checkpointSequence = TaskTextFormat.parseCheckpointSequence(line);
+                }
+                continue;
+            }
+            Task task = TaskTextFormat.parse(data, start, end, charset);
+            if (task != null) {
+                tasks.add(task);
+                if (hasSingleStatusCharacter(data, start, end)) {
+                    layout.addLine(start);
+                }
+            }
+        }
+        layout.setEnd(data.length, data.length == 0 || data[data.length - 1] == '\n');
+        return checkpointSequence;
+    }
+
+    private static boolean hasSingleStatusCharacter(byte[] data, int start, int end) {
+        int statusEnd = start + TextFileLayout.STATUS_OFFSET + 1;
+        return statusEnd + 2 < end && data[statusEnd] == ' ' && data[statusEnd + 1] == '|'
+                && data[statusEnd + 2] == ' ';
+    }
+
+    private TextFileLayout getLayout(LazyTaskList lazyTasks, byte[] data) {
+        // The lazy loader only accepts lines with a one-character status, so every line can be patched.
+        // Skipped lines would stay in the file, so the caller only builds a layout when there are none.
+        TextFileLayout layout = new TextFileLayout();
+        for (int i = 0; i < lazyTasks.size(); i++) {
+            layout.addLine(lazyTasks.getByteOffset(i));
+        }
+        layout.setEnd(data.length, data.length == 0 || data[data.length - 1] == '\n');
+        return layout;
+    }
+
+    /**
+     * Checks whether single mutations may be written in place. This needs the text format without a journal,
+     * and a charset in which the separators and status characters are single bytes.
+     */
+    private boolean isPatchable() {
+        return config.isIncremental() && !isBinary() && checkpointer == null
+                && TaskTextFormat.isAsciiCompatible(Charset.defaultCharset());
+    }
+
+    private boolean isBinary() {
+        return config.getFormat() == StorageConfig.Format.BINARY;
+    }
+
+    private File getBinaryFile() {
+        return new File(filePath + BINARY_SUFFIX);
+    }
+
+    /**
+     * Persists a single change to the task list.
+     * In journaled mode only the mutation is appended to the log; in incremental mode only the affected
+     * part of the task file is rewritten in place; otherwise the whole list is rewritten.
+     * In write-behind mode the change is only marked pending and written later by the flusher.
+     *
+     * @param mutation the change that was just applied to the list
+     * @param tasks the full task list after the change
+     * @throws BenException if the change cannot be persisted
+     */
+    @Override
+    public void recordMutation(Mutation mutation, List<Task> tasks) throws BenException {
+        boolean isSyncedNow = config.getSyncPolicy() == StorageConfig.SyncPolicy.MUTATION;
+        if (checkpointer == null) {
+            if (flusher != null && !isSyncedNow) {
+                flusher.markDirty(tasks);
+            } else if (!writeInPlace(mutation, tasks)) {
+                saveTasks(tasks);
+            }
+            return;
+        }
+
+        long sequence = journal.append(formatMutation(mutation));
+        if (isSyncedNow) {
+            journal.sync();
+        } else if (flusher != null) {
+            flusher.markDirty(tasks);
+        } else {
+            journal.flush();
+        }
+        if (checkpointer.isDue()) {
+            checkpointer.start(copyTasks(tasks), sequence, takeSnapshotVersion());
+        }
+    }
+
+    /**
+     * Persists changes too many to record one by one. In journaled mode the whole list is folded into the
+     * task file at once, tagged with the last journal record so that replay skips the records it holds.
+     * In write-behind mode the list is only marked pending, like a single change; otherwise it is rewritten.
+     *
+     * @param tasks the full task list after the changes
+     * @throws BenException if the changes cannot be persisted
+     */
+    @Override
+    public void recordChanges(List<Task> tasks) throws BenException {
+        if (checkpointer != null) {
+            writeSnapshot(tasks, journal.getLastSequence(), takeSnapshotVersion());
+        } else if (flusher != null && config.getSyncPolicy() != StorageConfig.SyncPolicy.MUTATION) {
+            flusher.markDirty(tasks);
+        } else {
+            saveTasks(tasks);
+        }
+    }
+
+    /**
+     * Writes a single mutation into the task file in place: a status change patches one byte,
+     * an addition appends one line, and a deletion rewrites only the lines after the deleted one.
+     *
+     * @param mutation the change that was just applied to the list
+     * @param tasks the full task list after the change
+     * @return true if the change was written, false if the whole file must be rewritten instead
+     */
+    private boolean writeInPlace(Mutation mutation, List<Task> tasks) {
+        synchronized (fileLock) {
+            return writeInPlace(mutation, tasks, layout);
+        }
+    }
+
+    private boolean writeInPlace(Mutation mutation, List<Task> tasks, TextFileLayout fileLayout) {
+        if (fileLayout == null) {
+            return false;
+        }
+
+        // Until the write succeeds, the file may not match the layout any more
+        layout = null;
+        int index = mutation.getIndex() - 1;
+        try (FileChannel channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.WRITE)) {
+            switch (mutation.getType()) {
+            case MARK:
+            case UNMARK:
+                if (tasks.size() != fileLayout.size()) {
+                    return false;
+                }
+                byte status = (byte) (tasks.get(index).isComplete() ? '1' : '0');
+                writeFully(channel, ByteBuffer.wrap(new byte[] {status}),
+                        fileLayout.getStart(index) + TextFileLayout.STATUS_OFFSET);
+                break;
+            case ADD:
+                if (tasks.size() != fileLayout.size() + 1) {
+                    return false;
+                }
+                long position = fileLayout.getEnd();
+                if (!fileLayout.isTerminated()) {
+                    position = writeFully(channel, encode(System.lineSeparator()), position);
+                }
+                fileLayout.setEnd(writeLines(channel, position, tasks, tasks.size() - 1, fileLayout), true);
+                break;
+            case DELETE:
+            case SNOOZE:
+                int expectedSize = fileLayout.size() - (mutation.getType() == Mutation.Type.DELETE ? 1 : 0);
+                if (tasks.size() != expectedSize) {
+                    return false;
+                }
+                long tailStart = fileLayout.getStart(index);
+                fileLayout.truncate(index);
+                long end = writeLines(channel, tailStart, tasks, index, fileLayout);
+                channel.truncate(end);
+                fileLayout.setEnd(end, true);
+                break;
+            }
+            if (isSynced()) {
+                channel.force(false);
+            }
+        } catch (IOException | IndexOutOfBoundsException e) {
+            System.err.println("Warning: In-place save failed, rewriting the whole file: " + e.getMessage());
+            return false;
+        }
+
+        layout = fileLayout;
+        return true;
+    }
+
+    /**
+     * Blocks until every change recorded so far has been written out, and forced to disk unless
+     * the sync policy is {@code NONE}.
+     *
+     * @throws BenException if the pending changes cannot be written
+     */
+    @Override
+    public void flush() throws BenException {
+        if (flusher != null) {
+            flusher.flush();
+        } else if (checkpointer != null && isSynced()) {
+            journal.sync();
+        }
+    }
+
+    /**
+     * Writes out the changes a write-behind flush has collected.
+     * The live list is copied under its own lock so the caller's thread can keep mutating it.
+     *
+     * @param liveTasks the task list the pending changes were made to
+     * @throws BenException if the changes cannot be written
+     */
+    void writePending(List<Task> liveTasks) throws BenException {
+        if (checkpointer != null) {
+            if (isSynced()) {
+                journal.sync();
+            } else {
+                journal.flush();
+            }
+            return;
+        }
+
+        List<Task> copy;
+        long version;
+        synchronized (liveTasks) {
+            copy = copyTasks(liveTasks);
+            version = takeSnapshotVersion();
+        }
+        saveTasks(copy, version);
+    }
+
+    private List<Task> copyTasks(List<Task> tasks) {
+        if (tasks instanceof LazyTaskList) {
+            // Copying through get() would decode every task
+            return ((LazyTaskList) tasks).copy();
+        }
+        if (tasks instanceof PersistentVector) {
+            // Its versions never change, so the current one can be kept instead of copied
+            return ((PersistentVector<Task>) tasks).snapshot();
+        }
+        return new ArrayList<>(tasks);
+    }
+
+    /**
+     * Releases any open file handles held by this storage, writing pending changes and
+     * waiting for a running checkpoint to finish.
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            try {
+                flusher.close();
+            } catch (BenException e) {
+                System.err.println("Warning: Failed to save pending changes: " + e.getMessage());
+            }
+        }
+        if (checkpointer != null) {
+            checkpointer.close();
+        }
+        journal.close();
+    }
+
+    /**
+     * Numbers a snapshot of the task list. Taken while the list cannot change, it orders snapshots
+     * by when their tasks were copied rather than by when they reach the file.
+     *
+     * @return a version greater than every one taken before
+     */
+    long takeSnapshotVersion() {
+        return snapshotVersions.incrementAndGet();
+    }
+
+    /**
+     * Atomically replaces the task file with a snapshot that already contains journal records
+     * up to and including the given sequence number. Snapshots are written one at a time, and one whose
+     * tasks were copied before those already in the file is dropped, so a slow checkpoint or background
+     * flush never replaces newer tasks.
+     *
+     * @param tasks the tasks to write
+     * @param sequence the last journal sequence number reflected in the tasks
+     * @param version the version from {@link #takeSnapshotVersion()} taken when the tasks were copied
+     * @return true if the snapshot was written, false if a newer one already had been
+     * @throws BenException if the snapshot cannot be written or moved into place
+     */
+    boolean writeSnapshot(List<Task> tasks, long sequence, long version) throws BenException {
+        synchronized (fileLock) {
+            if (version < writtenSnapshotVersion) {
+                return false;
+            }
+            File file = isBinary() ? getBinaryFile() : new File(filePath);
+            File tempFile = createTempFile(file);
+
+            // Write the complete snapshot aside first, so a crash never leaves a half-written task file
+            TextFileLayout fileLayout = isPatchable() ? new TextFileLayout() : null;
+            layout = null;
+            try {
+                if (isBinary()) {
+                    BinarySnapshot.write(tasks, tempFile, sequence, isSynced());
+                } else {
+                    writeTextSnapshot(tasks, tempFile, sequence, fileLayout);
+                }
+                Files.move(tempFile.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new BenException("Error replacing task file: " + e.getMessage());
+            } finally {
+                tempFile.delete();
+            }
+            writtenSnapshotVersion = version;
+            layout = fileLayout;
+            return true;
+        }
+    }
+
+    /**
+     * Creates an empty file with a name of its own next to the task file, to write a snapshot into.
+     */
+    private File createTempFile(File file) throws BenException {
+        try {
+            return File.createTempFile(file.getName() + ".", TEMP_SUFFIX, file.getAbsoluteFile().getParentFile());
+        } catch (IOException e) {
+            throw new BenException("Error saving tasks to file: " + e.getMessage());
+        }
+    }
+
+    private void writeTextSnapshot(List<Task> tasks, File file, long sequence, TextFileLayout fileLayout)
+            throws BenException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            if (sequence > 0) {
+                position = writeFully(channel, encode(TaskTextFormat.CHECKPOINT_HEADER + sequence
+                        + System.lineSeparator()), position);
+            }
+            long end = writeLines(channel, position, tasks, 0, fileLayout);
+            if (fileLayout != null) {
+                fileLayout.setEnd(end, true);
+            }
+            if (isSynced()) {
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new BenException("Error saving tasks to file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the tasks from the given position on as text lines, starting at the given byte offset.
+     * Every task is formatted into one reusable buffer that is encoded and written in large blocks,
+     * so saving does not build a separate string per task.
+     *
+     * @param fileLayout receives the start of every line written, or null if not needed
+     * @return the byte offset just past the last line written
+     */
+    private long writeLines(FileChannel channel, long position, List<Task> tasks, int from,
+            TextFileLayout fileLayout) throws IOException {
+        LazyTaskList lazyTasks = tasks instanceof LazyTaskList ? (LazyTaskList) tasks : null;
+        Charset charset = Charset.defaultCharset();
+        String lineSeparator = System.lineSeparator();
+        StringBuilder buffer = new StringBuilder(WRITE_BUFFER_SIZE + 256);
+        long lineStart = position;
+
+        for (int i = from; i < tasks.size(); i++) {
+            int bufferStart = buffer.length();
+            if (lazyTasks != null && !lazyTasks.isDecoded(i)) {
+                // Tasks that were never decoded are written back exactly as they were read
+                buffer.append(lazyTasks.getRawLine(i));
+            } else {
+                TaskTextFormat.format(tasks.get(i), buffer);
+            }
+            buffer.append(lineSeparator);
+
+            if (fileLayout != null) {
+                fileLayout.addLine(lineStart);
+                lineStart += TextFileLayout.byteLength(buffer, bufferStart, buffer.length(), charset);
+            }
+            if (buffer.length() >= WRITE_BUFFER_SIZE || i == tasks.size() - 1) {
+                position = writeFully(channel, encode(buffer.toString()), position);
+                buffer.setLength(0);
+            }
+        }
+        return position;
+    }
+
+    private static ByteBuffer encode(String text) {
+        return ByteBuffer.wrap(text.getBytes(Charset.defaultCharset()));
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+        return position;
+    }
+
+    private boolean isSynced() {
+        return config.getSyncPolicy() != StorageConfig.SyncPolicy.NONE;
+    }
+
+    private void replayJournal(List<Task> tasks, long checkpointSequence) throws BenException {
+        long lastSequence = checkpointSequence;
+        for (String record : journal.readRecords()) {
+            try {
+                String[] parts = record.split(" \\| ", 2);
+                long sequence = Long.parseLong(parts[0]);
+                if (sequence <= checkpointSequence) {
+                    // Already folded into the task file by a checkpoint
+                    continue;
+                }
+                applyRecord(parts[1], tasks);
+                lastSequence = Math.max(lastSequence, sequence);
+            } catch (Exception e) {
+                // A torn or corrupted record only loses that one change
+                System.err.println("Warning: Skipping corrupted journal entry: " + record + " - Error: " + e.getMessage());
+            }
+        }
+        journal.setNextSequence(lastSequence + 1);
+    }
+
+    private void applyRecord(String record, List<Task> tasks) throws BenException {
+        String[] parts = record.split(" \\| ", 2);
+        Mutation.Type type = Mutation.Type.fromCode(parts[0]);
+        if (type == null || parts.length < 2) {
+            throw new BenException("Unknown journal record");
+        }
+
+        switch (type) {
+        case ADD:
+            addParsedTask(parts[1], tasks);
+            break;
+        case DELETE:
+            tasks.remove(Integer.parseInt(parts[1]) - 1);
+            break;
+        case MARK:
+            tasks.get(Integer.parseInt(parts[1]) - 1).markComplete();
+            break;
+        case UNMARK:
+            tasks.get(Integer.parseInt(parts[1]) - 1).markIncomplete();
+            break;
+        case SNOOZE:
+            String[] snoozeParts = parts[1].split(" \\| ", 2);
+            tasks.remove(Integer.parseInt(snoozeParts[0]) - 1);
+            addParsedTask(snoozeParts[1], tasks);
+            break;
+        }
+    }
+
+    private void addParsedTask(String line, List<Task> tasks) throws BenException {
+        Task task = TaskTextFormat.parse(line);
+        if (task == null) {
+            throw new BenException("Unreadable task");
+        }
+        tasks.add(task);
+    }
+
+    private String formatMutation(Mutation mutation) {
+        String code = mutation.getType().getCode();
+        switch (mutation.getType()) {
+        case ADD:
+            return code + " | " + TaskTextFormat.format(mutation.getTask());
+        case SNOOZE:
+            return code + " | " + mutation.getIndex() + " | " + TaskTextFormat.format(mutation.getTask());
+        default:
+            return code + " | " + mutation.getIndex();
+        }
+    }
+
+    /**
+     * Saves all tasks to the configured file path in the configured format.
+     * Creates necessary directories and atomically replaces the existing file content,
+     * so the previous file stays intact if the save is interrupted.
+     *
+     * @param tasks the list of tasks to save to storage
+     * @throws BenException if file writing fails or directory creation fails
+     */
+    @Override
+    public void saveTasks(List<Task> tasks) throws BenException {
+        saveTasks(tasks, takeSnapshotVersion());
+    }
+
+    private void saveTasks(List<Task> tasks, long version) throws BenException {
+        File file = new File(filePath);
+
+        // Create directory if it doesn't exist
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+
+        // A full rewrite already contains every journaled change
+        if (writeSnapshot(tasks, 0, version) && journal.exists()) {
+            journal.reset();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ben.storage;
+
+import ben.task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps tasks in memory only, so nothing survives a restart.
+ * Useful for tests and benchmarks that should measure the task list without any file I/O.
+ */
+public class InMemoryStorage implements Storage {
+    private List<Task> savedTasks;
+    private int mutationCount;
+
+    /**
+     * Creates an empty in-memory storage.
+     */
+    public InMemoryStorage() {
+        this.savedTasks = new ArrayList<>();
+    }
+
+    /**
+     * Creates an in-memory storage that starts with the given tasks.
+     *
+     * @param tasks the tasks to start with
+     */
+    public InMemoryStorage(List<Task> tasks) {
+        this.savedTasks = new ArrayList<>(tasks);
+    }
+
+    @Override
+    public synchronized List<Task> loadTasks() {
+        return new ArrayList<>(savedTasks);
+    }
+
+    @Override
+    public synchronized void saveTasks(List<Task> tasks) {
+        savedTasks = new ArrayList<>(tasks);
+    }
+
+    /**
+     * Keeps a reference to the live list instead of copying it, so recording a change costs O(1).
+     * The list is only copied when it is loaded again.
+     */
+    @Override
+    public synchronized void recordMutation(Mutation mutation, List<Task> tasks) {
+        savedTasks = tasks;
+        mutationCount++;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Gets the number of mutations recorded since this storage was created.
+     *
+     * @return the mutation count
+     */
+    public synchronized int getMutationCount() {
+        return mutationCount;
+    }
+}
@@ -0,0 +1,246 @@
+package ben.storage;
+
+import ben.BenException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Append-only log of task list mutations stored next to the task file.
+ * Each record is a single line prefixed with a sequence number, so appending costs the same
+ * regardless of how many tasks exist.
+ * The log can be sealed into a separate segment while a checkpoint folds it into the task file.
+ */
+public class Journal {
+    private static final String SEALED_SUFFIX = ".old";
+
+    private final File file;
+    private final File sealedFile;
+    private BufferedWriter writer;
+    private FileChannel channel;
+    private long nextSequence;
+    private int recordCount;
+    private long byteSize;
+
+    public Journal(String filePath) {
+        this.file = new File(filePath);
+        this.sealedFile = new File(filePath + SEALED_SUFFIX);
+        this.nextSequence = 1;
+    }
+
+    /**
+     * Appends one record to the end of the journal. The record is buffered until {@link #flush()}.
+     *
+     * @param record the encoded record, without sequence number or trailing line separator
+     * @return the sequence number assigned to the record
+     * @throws BenException if the journal cannot be opened or written
+     */
+    public synchronized long append(String record) throws BenException {
+        long sequence = nextSequence;
+        String line = sequence + " | " + record;
+        try {
+            if (writer == null) {
+                FileOutputStream out = new FileOutputStream(file, true);
+                writer = new BufferedWriter(new OutputStreamWriter(out));
+                channel = out.getChannel();
+            }
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new BenException("Error writing to journal: " + e.getMessage());
+        }
+
+        nextSequence++;
+        recordCount++;
+        byteSize += line.length() + System.lineSeparator().length();
+        return sequence;
+    }
+
+    /**
+     * Hands every buffered record to the operating system.
+     *
+     * @throws BenException if the buffered records cannot be written
+     */
+    public synchronized void flush() throws BenException {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new BenException("Error writing to journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hands every buffered record to the operating system and forces it to the storage device.
+     *
+     * @throws BenException if the buffered records cannot be written or forced
+     */
+    public synchronized void sync() throws BenException {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+            channel.force(false);
+        } catch (IOException e) {
+            throw new BenException("Error syncing journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every record in the sealed segment and the active journal, oldest first.
+     * Also refreshes the record count and byte size of the active journal.
+     *
+     * @return the journal records, or an empty list if no journal exists
+     * @throws BenException if the journal cannot be read
+     */
+    public synchronized ArrayList<String> readRecords() throws BenException {
+        ArrayList<String> records = new ArrayList<>();
+        readInto(sealedFile, records);
+        int sealedCount = records.size();
+        readInto(file, records);
+
+        recordCount = records.size() - sealedCount;
+        byteSize = file.length();
+        return records;
+    }
+
+    private void readInto(File source, ArrayList<String> records) throws BenException {
+        if (!source.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(source))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    records.add(line.trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new BenException("Error reading journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves the active journal aside into the sealed segment so new records start a fresh file.
+     * If an earlier sealed segment was never folded away, the active records are appended to it instead.
+     *
+     * @throws BenException if the journal files cannot be moved
+     */
+    public synchronized void seal() throws BenException {
+        close();
+        try {
+            if (file.exists()) {
+                if (sealedFile.exists()) {
+                    Files.write(sealedFile.toPath(), Files.readAllBytes(file.toPath()), StandardOpenOption.APPEND);
+                    Files.delete(file.toPath());
+                } else {
+                    Files.move(file.toPath(), sealedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+        } catch (IOException e) {
+            throw new BenException("Error sealing journal: " + e.getMessage());
+        }
+        recordCount = 0;
+        byteSize = 0;
+    }
+
+    /**
+     * Deletes the sealed segment once its records are safely part of the task file.
+     */
+    public synchronized void deleteSealed() {
+        try {
+            Files.deleteIfExists(sealedFile.toPath());
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to delete sealed journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Discards both journal files, e.g. after a full rewrite of the task file made them redundant.
+     */
+    public synchronized void reset() {
+        close();
+        deleteSealed();
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to delete journal: " + e.getMessage());
+        }
+        recordCount = 0;
+        byteSize = 0;
+    }
+
+    /**
+     * Closes the underlying writer if one is open. The journal reopens itself on the next append.
+     */
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to close journal: " + e.getMessage());
+        }
+        writer = null;
+        channel = null;
+    }
+
+    /**
+     * Checks whether there is anything on disk for this journal.
+     *
+     * @return true if either the active or the sealed journal file exists
+     */
+    public boolean exists() {
+        return file.exists() || sealedFile.exists();
+    }
+
+    public synchronized void setNextSequence(long nextSequence) {
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Gets the sequence number of the last record appended, or of the last record replayed if none were.
+     *
+     * @return the last sequence number handed out
+     */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Gets the number of records in the active (unsealed) journal.
+     *
+     * @return the active record count
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Gets the approximate size in bytes of the active (unsealed) journal.
+     *
+     * @return the active journal size
+     */
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    public String getPath() {
+        return file.getPath();
+    }
+}
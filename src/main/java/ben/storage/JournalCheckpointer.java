@@ -0,0 +1,106 @@
+package ben.storage;
+
+import ben.BenException;
+import ben.task.Task;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Folds the journal into a fresh task file on a background thread.
+ * A checkpoint seals the active journal, writes a snapshot of the task list tagged with the last
+ * sequence number it contains, swaps it in atomically and then deletes the sealed journal.
+ * Records are replayed by sequence number, so a crash at any step never applies a change twice.
+ */
+public class JournalCheckpointer {
+    private final FileStorage storage;
+    private final Journal journal;
+    private final int recordThreshold;
+    private final long byteThreshold;
+    private final ExecutorService executor;
+    private final AtomicBoolean isRunning = new AtomicBoolean(false);
+
+    /**
+     * Creates a checkpointer for the given storage and journal.
+     *
+     * @param storage the storage that writes snapshots of the task file
+     * @param journal the journal to fold into the snapshots
+     * @param recordThreshold the number of journal records that triggers a checkpoint, or 0 to ignore
+     * @param byteThreshold the journal size in bytes that triggers a checkpoint, or 0 to ignore
+     */
+    public JournalCheckpointer(FileStorage storage, Journal journal, int recordThreshold, long byteThreshold) {
+        this.storage = storage;
+        this.journal = journal;
+        this.recordThreshold = recordThreshold;
+        this.byteThreshold = byteThreshold;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ben-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks whether the journal has grown past a threshold and no checkpoint is already running.
+     *
+     * @return true if a new checkpoint should be started
+     */
+    public boolean isDue() {
+        if (isRunning.get()) {
+            return false;
+        }
+        boolean isOverRecords = recordThreshold > 0 && journal.getRecordCount() >= recordThreshold;
+        boolean isOverBytes = byteThreshold > 0 && journal.getByteSize() >= byteThreshold;
+        return isOverRecords || isOverBytes;
+    }
+
+    /**
+     * Seals the journal on the calling thread and folds it into the task file in the background.
+     * The caller hands over a copy of the list so later mutations do not affect the snapshot's shape.
+     *
+     * @param snapshot a copy of the task list as of the given sequence number
+     * @param sequence the sequence number of the last journal record reflected in the snapshot
+     * @param version the snapshot's version, so it never replaces a snapshot of newer tasks
+     * @throws BenException if the journal cannot be sealed
+     */
+    public void start(List<Task> snapshot, long sequence, long version) throws BenException {
+        if (!isRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            journal.seal();
+        } catch (BenException e) {
+            isRunning.set(false);
+            throw e;
+        }
+
+        executor.submit(() -> {
+            try {
+                // A newer snapshot written meanwhile holds the sealed records too, so they can go either way
+                storage.writeSnapshot(snapshot, sequence, version);
+                journal.deleteSealed();
+            } catch (BenException e) {
+                // The sealed journal is kept and will be folded by the next checkpoint
+                System.err.println("Warning: Checkpoint failed: " + e.getMessage());
+            } finally {
+                isRunning.set(false);
+            }
+        });
+    }
+
+    /**
+     * Waits for a running checkpoint to finish and stops the background thread.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
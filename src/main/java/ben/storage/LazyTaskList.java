@@ -0,0 +1,239 @@
+package ben.storage;
+
+import ben.task.Task;
+import ben.task.ToDo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Task list backed by the raw bytes of a text task file, decoding each task the first time it is read.
+ * Loading only finds line boundaries and checks that each line would parse, reading its dates digit by digit,
+ * so start-up cost no longer includes building every task and its dates.
+ * Decoded tasks are cached and from then on are the source of truth for that position.
+ *
+ * <p>{@link #get(int)} may be called from several threads at once, as long as none of them changes the list
+ * meanwhile. Other methods are not thread-safe.
+ */
+public class LazyTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final VarHandle DECODED = MethodHandles.arrayElementVarHandle(Task[].class);
+
+    private final byte[] data;
+    private final Charset charset;
+    private int[] starts;
+    private int[] lengths;
+    private Task[] decoded;
+    private int size;
+    private long checkpointSequence;
+    private int skippedCount;
+
+    /**
+     * Scans the given file content for records without decoding them.
+     *
+     * @param data the complete content of a text task file
+     */
+    public LazyTaskList(byte[] data) {
+        this.data = data;
+        this.charset = Charset.defaultCharset();
+        int capacity = Math.max(16, data.length / 32);
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.decoded = new Task[capacity];
+        scan();
+    }
+
+    private LazyTaskList(LazyTaskList source) {
+        this.data = source.data;
+        this.charset = source.charset;
+        this.starts = Arrays.copyOf(source.starts, source.size);
+        this.lengths = Arrays.copyOf(source.lengths, source.size);
+        this.decoded = Arrays.copyOf(source.decoded, source.size);
+        this.size = source.size;
+        this.checkpointSequence = source.checkpointSequence;
+        this.skippedCount = source.skippedCount;
+    }
+
+    private void scan() {
+        int lineStart = 0;
+        for (int i = 0; i <= data.length; i++) {
+            if (i == data.length || data[i] == '\n') {
+                addRawRecord(lineStart, i);
+                lineStart = i + 1;
+            }
+        }
+    }
+
+    private void addRawRecord(int start, int end) {
+        // Trim surrounding whitespace, including the '\r' of Windows line endings
+        while (start < end && (data[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (data[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return;
+        }
+
+        if (data[start] == '#') {
+            String line = new String(data, start, end - start, charset);
+            if (line.startsWith(TaskTextFormat.CHECKPOINT_HEADER)) {
+                checkpointSequence = TaskTextFormat.parseCheckpointSequence(line);
+            }
+            return;
+        }
+
+        if (!TaskTextFormat.isReadable(data, start, end, charset)) {
+            // Handle corrupted data - skip this line, as an eager load would
+            skippedCount++;
+            return;
+        }
+
+        ensureCapacity(size + 1);
+        starts[size] = start;
+        lengths[size] = end - start;
+        decoded[size] = null;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= starts.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, starts.length + (starts.length >> 1));
+        starts = Arrays.copyOf(starts, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        decoded = Arrays.copyOf(decoded, newCapacity);
+    }
+
+    /**
+     * Gets the checkpoint sequence number found in the file's header line, if any.
+     *
+     * @return the checkpoint sequence number, or 0 if the file has no checkpoint header
+     */
+    public long getCheckpointSequence() {
+        return checkpointSequence;
+    }
+
+    /**
+     * Gets the number of non-blank lines that were skipped while scanning because they are not valid tasks.
+     *
+     * @return the number of skipped lines
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Checks whether the task at the given position has already been decoded.
+     *
+     * @param index the 0-based position
+     * @return true if the task is held as an object rather than raw bytes
+     */
+    public boolean isDecoded(int index) {
+        return decoded[index] != null;
+    }
+
+    /**
+     * Gets the raw text-format line of a task that has not been decoded yet.
+     * Saving undecoded tasks this way avoids decoding the whole list just to write it back.
+     *
+     * @param index the 0-based position
+     * @return the raw line, exactly as read from the file
+     */
+    public String getRawLine(int index) {
+        return new String(data, starts[index], lengths[index], charset);
+    }
+
+    /**
+     * Gets the byte offset in the file content at which a task's line starts.
+     * Only meaningful for tasks that were loaded from the file and have not moved since.
+     *
+     * @param index the 0-based position
+     * @return the byte offset of the line's first non-whitespace byte
+     */
+    public int getByteOffset(int index) {
+        return starts[index];
+    }
+
+    /**
+     * Creates an independent copy of this list that shares the underlying file bytes and decoded tasks.
+     *
+     * @return a copy of this list
+     */
+    public LazyTaskList copy() {
+        return new LazyTaskList(this);
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        Task[] tasks = decoded;
+        Task task = (Task) DECODED.getAcquire(tasks, index);
+        if (task == null) {
+            // Readers racing to decode the same line all return whichever task was stored first,
+            // so a change made to it is never lost with a duplicate
+            Task fresh = decode(index);
+            Task stored = (Task) DECODED.compareAndExchange(tasks, index, null, fresh);
+            task = stored == null ? fresh : stored;
+        }
+        return task;
+    }
+
+    private Task decode(int index) {
+        Task task = TaskTextFormat.parse(data, starts[index], starts[index] + lengths[index], charset);
+        if (task == null) {
+            String line = getRawLine(index);
+            // Scanning only keeps lines that parse, so this should not happen;
+            // keep the raw line anyway so numbering stays stable
+            System.err.println("Warning: Keeping corrupted task entry as a todo: " + line);
+            task = new ToDo(line);
+        }
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        decoded[index] = task;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        int moved = size - index;
+        System.arraycopy(starts, index, starts, index + 1, moved);
+        System.arraycopy(lengths, index, lengths, index + 1, moved);
+        System.arraycopy(decoded, index, decoded, index + 1, moved);
+        decoded[index] = task;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        int moved = size - index - 1;
+        System.arraycopy(starts, index + 1, starts, index, moved);
+        System.arraycopy(lengths, index + 1, lengths, index, moved);
+        System.arraycopy(decoded, index + 1, decoded, index, moved);
+        size--;
+        decoded[size] = null;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
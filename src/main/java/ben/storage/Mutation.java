@@ -0,0 +1,111 @@
+package ben.storage;
+
+import ben.task.Task;
+
+/**
+ * Describes a single change made to the task list.
+ * Mutations are what journaled storage appends to its log instead of rewriting every task.
+ */
+public class Mutation {
+
+    /**
+     * The kinds of change a task list can undergo.
+     */
+    public enum Type {
+        ADD("A"),
+        DELETE("D"),
+        MARK("M"),
+        UNMARK("U"),
+        SNOOZE("S");
+
+        private final String code;
+
+        Type(String code) {
+            this.code = code;
+        }
+
+        /**
+         * Gets the single-character code used for this type in the journal.
+         *
+         * @return the journal code of this mutation type
+         */
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Looks up the mutation type for a journal code.
+         *
+         * @param code the single-character journal code
+         * @return the matching type, or null if the code is unknown
+         */
+        public static Type fromCode(String code) {
+            for (Type type : values()) {
+                if (type.code.equals(code)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Type type;
+    private final int index;
+    private final Task task;
+
+    private Mutation(Type type, int index, Task task) {
+        this.type = type;
+        this.index = index;
+        this.task = task;
+    }
+
+    public static Mutation add(Task task) {
+        return new Mutation(Type.ADD, 0, task);
+    }
+
+    public static Mutation delete(int index) {
+        return new Mutation(Type.DELETE, index, null);
+    }
+
+    public static Mutation mark(int index) {
+        return new Mutation(Type.MARK, index, null);
+    }
+
+    public static Mutation unmark(int index) {
+        return new Mutation(Type.UNMARK, index, null);
+    }
+
+    /**
+     * Creates a mutation that removes the task at the given index and appends its snoozed replacement.
+     *
+     * @param index the 1-based position of the task being snoozed
+     * @param snoozedTask the rescheduled task appended to the end of the list
+     * @return the snooze mutation
+     */
+    public static Mutation snooze(int index, Task snoozedTask) {
+        return new Mutation(Type.SNOOZE, index, snoozedTask);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the 1-based task position this mutation refers to.
+     * Always 0 for additions, which append to the end of the list.
+     *
+     * @return the 1-based index of the affected task
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the task carried by this mutation, if any.
+     *
+     * @return the added or snoozed task, or null for index-only mutations
+     */
+    public Task getTask() {
+        return task;
+    }
+}
@@ -0,0 +1,242 @@
+package ben.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of fixed-size file pages, evicting with the CLOCK algorithm: every cached page has a
+ * reference bit that is set when it is used, and a hand sweeping the frames clears set bits and evicts
+ * the first page whose bit is already clear. Pages used again before the hand comes round survive, which
+ * approximates least-recently-used eviction without reordering anything on a hit.
+ * Changed pages are written back when evicted or flushed. Not thread-safe; callers serialize access.
+ */
+public class PageCache {
+    private final FileChannel channel;
+    private final int pageSize;
+    private final byte[][] frames;
+    private final int[] framePages;
+    private final boolean[] isReferenced;
+    private final boolean[] isDirty;
+    private final Map<Integer, Integer> pageFrames = new HashMap<>();
+    private int hand;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long writeCount;
+
+    /**
+     * Constructs a cache over the pages of a file.
+     *
+     * @param channel the file holding the pages
+     * @param pageSize the size of a page in bytes
+     * @param capacity the largest number of pages to keep in memory
+     */
+    public PageCache(FileChannel channel, int pageSize, int capacity) {
+        this.channel = channel;
+        this.pageSize = pageSize;
+        this.frames = new byte[Math.max(1, capacity)][];
+        this.framePages = new int[frames.length];
+        this.isReferenced = new boolean[frames.length];
+        this.isDirty = new boolean[frames.length];
+        Arrays.fill(framePages, -1);
+    }
+
+    /**
+     * Gets the content of a page, reading it from the file if it is not cached.
+     * The returned array is only valid until the next call to this cache.
+     *
+     * @param page the page number
+     * @return the page's bytes, which may be changed if {@link #markDirty(int)} is called afterwards
+     */
+    public byte[] get(int page) {
+        Integer frame = pageFrames.get(page);
+        if (frame != null) {
+            hitCount++;
+            isReferenced[frame] = true;
+            return frames[frame];
+        }
+        missCount++;
+        int newFrame = claimFrame(page);
+        read(page, frames[newFrame]);
+        return frames[newFrame];
+    }
+
+    /**
+     * Gets a zeroed frame for a page that is new, without reading the file. The page starts out dirty.
+     *
+     * @param page the page number
+     * @return the page's bytes
+     */
+    public byte[] create(int page) {
+        Integer frame = pageFrames.get(page);
+        int target = frame != null ? frame : claimFrame(page);
+        Arrays.fill(frames[target], (byte) 0);
+        isDirty[target] = true;
+        return frames[target];
+    }
+
+    /**
+     * Records that a cached page was changed, so it is written back before it leaves the cache.
+     *
+     * @param page the page number
+     */
+    public void markDirty(int page) {
+        Integer frame = pageFrames.get(page);
+        assert frame != null : "Only cached pages can be changed";
+        isDirty[frame] = true;
+    }
+
+    /**
+     * Writes every changed page back to the file.
+     */
+    public void flush() {
+        for (int frame = 0; frame < frames.length; frame++) {
+            if (isDirty[frame]) {
+                write(framePages[frame], frames[frame]);
+                isDirty[frame] = false;
+            }
+        }
+    }
+
+    /**
+     * Drops every cached page without writing it back.
+     */
+    public void clear() {
+        pageFrames.clear();
+        Arrays.fill(framePages, -1);
+        Arrays.fill(isReferenced, false);
+        Arrays.fill(isDirty, false);
+    }
+
+    private int claimFrame(int page) {
+        while (true) {
+            int frame = hand;
+            hand = (hand + 1) % frames.length;
+            if (framePages[frame] >= 0 && isReferenced[frame]) {
+                // Used since the hand last passed: give it another round
+                isReferenced[frame] = false;
+                continue;
+            }
+            if (framePages[frame] >= 0) {
+                evictionCount++;
+                if (isDirty[frame]) {
+                    write(framePages[frame], frames[frame]);
+                }
+                pageFrames.remove(framePages[frame]);
+            }
+            if (frames[frame] == null) {
+                frames[frame] = new byte[pageSize];
+            }
+            framePages[frame] = page;
+            isReferenced[frame] = true;
+            isDirty[frame] = false;
+            pageFrames.put(page, frame);
+            return frame;
+        }
+    }
+
+    private void read(int page, byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        long position = (long) page * pageSize;
+        try {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    // Past the end of the file: the rest of the page is empty
+                    Arrays.fill(frame, buffer.position(), frame.length, (byte) 0);
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(int page, byte[] frame) {
+        writeCount++;
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        long position = (long) page * pageSize;
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Takes a snapshot of how well the cache is doing.
+     *
+     * @return the current statistics
+     */
+    public Statistics getStatistics() {
+        return new Statistics(frames.length, pageSize, hitCount, missCount, evictionCount, writeCount);
+    }
+
+    /**
+     * Usage figures for a page cache, for choosing its size.
+     */
+    public static class Statistics {
+        private final int capacity;
+        private final int pageSize;
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long writeCount;
+
+        Statistics(int capacity, int pageSize, long hitCount, long missCount, long evictionCount, long writeCount) {
+            this.capacity = capacity;
+            this.pageSize = pageSize;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.writeCount = writeCount;
+        }
+
+        /** Gets the largest number of pages the cache holds. */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /** Gets the size of a page in bytes. */
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        /** Gets the number of page reads answered from memory. */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /** Gets the number of page reads that went to the file. */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /** Gets the number of pages dropped to make room for others. */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /** Gets the number of pages written back to the file. */
+        public long getWriteCount() {
+            return writeCount;
+        }
+
+        /**
+         * Gets the share of page reads answered from memory.
+         *
+         * @return the hit rate between 0 and 1, or 0 if nothing was read yet
+         */
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+    }
+}
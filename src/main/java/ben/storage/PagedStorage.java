@@ -0,0 +1,165 @@
+package ben.storage;
+
+import ben.BenException;
+import ben.task.Task;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Keeps tasks in a page file next to the task file, with only a bounded number of pages in memory.
+ * The task list handed out by {@link #loadTasks()} reads and writes the page file itself, so memory use
+ * stays the same however many tasks there are. Backs the {@code paged} storage backend.
+ *
+ * <p>An existing text task file is imported the first time the page file is created, and is left as it
+ * was afterwards. The import, like a save of a list other than the paged one, writes a complete page file
+ * aside and then moves it into place, so an interrupted write never leaves a partial page file behind; a
+ * page file whose header does not mark it finished is imported again. Changed pages are written back after
+ * every change and forced to disk unless the sync policy is {@link StorageConfig.SyncPolicy#NONE}; a change
+ * that spans two pages is not written atomically.
+ */
+public class PagedStorage implements Storage {
+    private static final String PAGE_SUFFIX = ".pages";
+
+    private final String filePath;
+    private final StorageConfig config;
+    private PagedTaskList pages;
+
+    /**
+     * Constructs a storage keeping its pages next to the given task file.
+     *
+     * @param filePath the path of the task file
+     * @param config the storage settings to use, including the page cache size
+     */
+    public PagedStorage(String filePath, StorageConfig config) {
+        this.filePath = filePath;
+        this.config = config;
+    }
+
+    /**
+     * Opens the page file, importing the text task file into it if the page file does not exist yet
+     * or was never finished.
+     *
+     * @return the paged task list, which reads from the page file as tasks are accessed
+     * @throws BenException if the page file cannot be opened or the text file cannot be imported
+     */
+    @Override
+    public synchronized List<Task> loadTasks() throws BenException {
+        close();
+        File textFile = new File(filePath);
+        File pageFile = new File(filePath + PAGE_SUFFIX);
+        File parentDir = pageFile.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+
+        try {
+            if (textFile.exists() && (!pageFile.exists() || !isFinished(pageFile))) {
+                importTextFile(textFile, pageFile);
+            }
+            pages = PagedTaskList.open(pageFile.toPath(), config.getPageCachePages());
+        } catch (IOException | UncheckedIOException e) {
+            throw new BenException("Error loading tasks from page file: " + e.getMessage());
+        }
+        return pages;
+    }
+
+    private boolean isFinished(File pageFile) throws IOException {
+        try (PagedTaskList existing = PagedTaskList.open(pageFile.toPath(), 1)) {
+            return existing.isFinished();
+        }
+    }
+
+    /**
+     * Streams the text file into a new page file line by line, so it is never held in memory as a whole,
+     * and moves the page file into place once every line is in.
+     */
+    private void importTextFile(File textFile, File pageFile) throws IOException {
+        PagedTaskList imported = PagedTaskList.createReplacement(pageFile.toPath(), 1);
+        try (BufferedReader reader = new BufferedReader(new FileReader(textFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(TaskTextFormat.CHECKPOINT_HEADER)) {
+                    continue;
+                }
+                Task task = TaskTextFormat.parse(line.trim());
+                if (task != null) {
+                    imported.add(task);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            imported.discard();
+            throw e;
+        }
+        imported.moveTo(pageFile.toPath());
+    }
+
+    /**
+     * Replaces the page file with one holding the given tasks, unless they are the paged list itself.
+     */
+    @Override
+    public synchronized void saveTasks(List<Task> tasks) throws BenException {
+        if (pages == null) {
+            loadTasks();
+        }
+        try {
+            if (tasks != pages) {
+                pages.replaceRecords(tasks);
+            }
+            pages.flush(isSynced());
+        } catch (IOException | UncheckedIOException e) {
+            throw new BenException("Error saving tasks to page file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes back the pages the change touched. The paged list has already applied the change itself;
+     * any other list is saved in full.
+     */
+    @Override
+    public synchronized void recordMutation(Mutation mutation, List<Task> tasks) throws BenException {
+        saveTasks(tasks);
+    }
+
+    @Override
+    public synchronized void flush() throws BenException {
+        if (pages == null) {
+            return;
+        }
+        try {
+            pages.flush(isSynced());
+        } catch (IOException | UncheckedIOException e) {
+            throw new BenException("Error saving tasks to page file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (pages == null) {
+            return;
+        }
+        try {
+            pages.close();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Warning: Failed to close page file: " + e.getMessage());
+        }
+        pages = null;
+    }
+
+    /**
+     * Gets the page cache's usage figures, for choosing its size.
+     *
+     * @return the current statistics, or null if no tasks have been loaded
+     */
+    public synchronized PageCache.Statistics getCacheStatistics() {
+        return pages == null ? null : pages.getCacheStatistics();
+    }
+
+    private boolean isSynced() {
+        return config.getSyncPolicy() != StorageConfig.SyncPolicy.NONE;
+    }
+}
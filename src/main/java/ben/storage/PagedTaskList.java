@@ -0,0 +1,715 @@
+package ben.storage;
+
+import ben.task.Deadline;
+import ben.task.Event;
+import ben.task.Task;
+import ben.task.TaskRecords;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Task list whose records live in fixed-size pages of a file, with only the pages in a bounded
+ * {@link PageCache} held in memory. {@link #get(int)} faults the task's page in and builds a short-lived
+ * view of the record; marking a view writes through to the page.
+ *
+ * <p>Page 0 holds the file header, which also records whether the file was completely written.
+ * Every other page starts with its record count and the bytes it uses,
+ * followed by records of the form: sequence number, type, done flag, description length, UTF-8
+ * description, then the epoch day of a deadline or the epoch minutes of an event's start and end.
+ * Sequence numbers are handed out in list order and never reused, so pages are kept in list order in
+ * memory by sorting them on their first record's sequence number when the file is opened.
+ * Tasks can only be appended; pages emptied by deletions are reused for later appends. Anything else is
+ * done by {@link #replaceRecords(List)}, which writes a complete new file aside and moves it into place.
+ *
+ * <p>Safe for use from several threads. Pages are guarded by a private lock rather than the list itself,
+ * so callers can hold the list's monitor while marking a view without risking a deadlock.
+ */
+public class PagedTaskList extends AbstractList<Task> implements RandomAccess, TaskRecords, Closeable {
+    /** Size of a page in bytes, chosen to match the usual file system block. */
+    public static final int PAGE_SIZE = 4096;
+
+    private static final int MAGIC = 0x42454E50;
+    private static final int VERSION = 2;
+    /** Files of this version have no finished flag and are taken to be complete. */
+    private static final int UNFLAGGED_VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 20;
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** Filling a new file only ever touches its last page and the one after it. */
+    private static final int BUILD_CACHE_PAGES = 2;
+    private static final int PAGE_HEADER_BYTES = 4;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+
+    private final Object pageLock = new Object();
+    private final Path path;
+    private final int cachePages;
+    private FileChannel channel;
+    private PageCache cache;
+    private boolean isFinished;
+
+    // The data pages in list order, with their record counts and first sequence numbers
+    private int[] pages = new int[16];
+    private int[] counts = new int[16];
+    private int[] firstIds = new int[16];
+    private int pageCount;
+    private int[] pageStarts = new int[17];
+    private boolean isPageStartsValid = true;
+
+    private int[] freePages = new int[16];
+    private int freeCount;
+    private int filePageCount;
+    private int size;
+    private int nextId;
+
+    // Where the last lookup ended, so reading a page's records in order does not rescan the page each time
+    private int cursorPageIndex = -1;
+    private int cursorRecord;
+    private int cursorOffset;
+    private int cursorModCount;
+
+    private PagedTaskList(Path path, int cachePages, boolean isFinished) {
+        this.path = path;
+        this.cachePages = cachePages;
+        this.isFinished = isFinished;
+    }
+
+    /**
+     * Opens the page file at the given path, creating it if it does not exist.
+     *
+     * @param path the page file
+     * @param cachePages the largest number of pages to hold in memory
+     * @return the tasks stored in the file
+     * @throws IOException if the file cannot be read or is not a page file
+     */
+    public static PagedTaskList open(Path path, int cachePages) throws IOException {
+        PagedTaskList list = new PagedTaskList(path, cachePages, true);
+        list.openChannel();
+        return list;
+    }
+
+    /**
+     * Starts an empty page file next to the given one, marked as unfinished until {@link #moveTo(Path)}
+     * puts it in the given one's place.
+     *
+     * @param target the page file the new file is to replace
+     * @param firstId the sequence number to give the first task added
+     * @return the empty list, to add tasks to
+     * @throws IOException if the file cannot be created
+     */
+    public static PagedTaskList createReplacement(Path target, int firstId) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path tempPath = Files.createTempFile(directory, target.getFileName() + ".", TEMP_SUFFIX);
+        PagedTaskList list = new PagedTaskList(tempPath, BUILD_CACHE_PAGES, false);
+        try {
+            list.openChannel();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        list.nextId = Math.max(1, firstId);
+        return list;
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        cache = new PageCache(channel, PAGE_SIZE, cachePages);
+        try {
+            readDirectory();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds the page directory from the file header and the header of every page.
+     */
+    private void readDirectory() throws IOException {
+        long length = channel.size();
+        if (length == 0) {
+            filePageCount = 1;
+            nextId = 1;
+            writeFileHeader();
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(16);
+        readFully(header, 0);
+        int version = header.getInt(4);
+        if (header.getInt(0) != MAGIC || (version != VERSION && version != UNFLAGGED_VERSION)
+                || header.getInt(8) != PAGE_SIZE) {
+            throw new IOException("Not a task page file");
+        }
+        nextId = Math.max(1, header.getInt(12));
+        if (version == VERSION) {
+            ByteBuffer flag = ByteBuffer.allocate(4);
+            readFully(flag, 16);
+            isFinished = flag.getInt(0) != 0;
+        }
+        filePageCount = (int) ((length + PAGE_SIZE - 1) / PAGE_SIZE);
+
+        long[] usedPages = new long[filePageCount];
+        int usedCount = 0;
+        int[] pageCounts = new int[filePageCount];
+        ByteBuffer pageHeader = ByteBuffer.allocate(PAGE_HEADER_BYTES + 4);
+        for (int page = 1; page < filePageCount; page++) {
+            pageHeader.clear();
+            readFully(pageHeader, (long) page * PAGE_SIZE);
+            int count = pageHeader.getShort(0);
+            if (count <= 0) {
+                pushFreePage(page);
+                continue;
+            }
+            pageCounts[page] = count;
+            usedPages[usedCount++] = (long) pageHeader.getInt(PAGE_HEADER_BYTES) << 32 | page;
+        }
+
+        Arrays.sort(usedPages, 0, usedCount);
+        for (int i = 0; i < usedCount; i++) {
+            int page = (int) usedPages[i];
+            appendPage(page, pageCounts[page], (int) (usedPages[i] >>> 32));
+            size += pageCounts[page];
+        }
+        if (pageCount > 0) {
+            // The header is only rewritten on flush, so trust the last record over it
+            byte[] last = cache.get(pages[pageCount - 1]);
+            int offset = skipRecords(last, PAGE_HEADER_BYTES, counts[pageCount - 1] - 1);
+            nextId = Math.max(nextId, readInt(last, offset) + 1);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Task page file is truncated");
+            }
+        }
+    }
+
+    private void writeFileHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(PAGE_SIZE).putInt(nextId).putInt(isFinished ? 1 : 0).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (pageLock) {
+            return size;
+        }
+    }
+
+    @Override
+    public Task get(int index) {
+        synchronized (pageLock) {
+            Objects.checkIndex(index, size);
+            int pageIndex = findPageIndex(index);
+            byte[] page = cache.get(pages[pageIndex]);
+            return decode(page, locateRecord(page, pageIndex, index - getPageStart(pageIndex)));
+        }
+    }
+
+    /**
+     * Writes the task as a new record after the last one. Records must stay in sequence order,
+     * so tasks can only be appended.
+     *
+     * @throws IllegalArgumentException if the task is too large to fit in a page
+     */
+    @Override
+    public void add(int index, Task task) {
+        synchronized (pageLock) {
+            if (index != size) {
+                throw new UnsupportedOperationException("Tasks can only be appended to a paged task list");
+            }
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            int length = RECORD_HEADER_BYTES + description.length + getFieldBytes(task);
+            if (PAGE_HEADER_BYTES + length > PAGE_SIZE) {
+                throw new IllegalArgumentException("Task is too large to store: " + description.length
+                        + " description bytes");
+            }
+
+            int id = nextId++;
+            int pageNumber = pageCount > 0 ? pages[pageCount - 1] : -1;
+            byte[] page = pageCount > 0 ? cache.get(pageNumber) : null;
+            int offset;
+            if (page != null && getUsed(page) + length <= PAGE_SIZE) {
+                offset = getUsed(page);
+                counts[pageCount - 1]++;
+            } else {
+                pageNumber = freeCount > 0 ? freePages[--freeCount] : filePageCount++;
+                page = cache.create(pageNumber);
+                offset = PAGE_HEADER_BYTES;
+                appendPage(pageNumber, 1, id);
+            }
+            encode(task, id, description, page, offset);
+            setHeader(page, getCount(page) + 1, offset + length);
+            cache.markDirty(pageNumber);
+            if (isPageStartsValid) {
+                pageStarts[pageCount] = size + 1;
+            }
+            size++;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Task remove(int index) {
+        synchronized (pageLock) {
+            Objects.checkIndex(index, size);
+            int pageIndex = findPageIndex(index);
+            int pageNumber = pages[pageIndex];
+            byte[] page = cache.get(pageNumber);
+            int record = index - getPageStart(pageIndex);
+            int offset = locateRecord(page, pageIndex, record);
+            Task removed = decode(page, offset);
+
+            int length = getRecordLength(page, offset);
+            int used = getUsed(page);
+            System.arraycopy(page, offset + length, page, offset, used - offset - length);
+            Arrays.fill(page, used - length, used, (byte) 0);
+            setHeader(page, getCount(page) - 1, used - length);
+            cache.markDirty(pageNumber);
+
+            if (--counts[pageIndex] == 0) {
+                removePage(pageIndex);
+                pushFreePage(pageNumber);
+            } else if (record == 0) {
+                firstIds[pageIndex] = readInt(page, PAGE_HEADER_BYTES);
+            }
+            size--;
+            modCount++;
+            isPageStartsValid = false;
+            return removed;
+        }
+    }
+
+    /**
+     * Removes every task and shrinks the file back to its header. Sequence numbers are not reused.
+     */
+    @Override
+    public void clear() {
+        synchronized (pageLock) {
+            cache.clear();
+            try {
+                channel.truncate(PAGE_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pageCount = 0;
+            freeCount = 0;
+            filePageCount = 1;
+            size = 0;
+            modCount++;
+            isPageStartsValid = false;
+        }
+    }
+
+    /**
+     * Replaces every task by writing them to a new page file and moving it over this one, so a failure
+     * partway through leaves the old file as it was. The new file is forced to disk before it is moved,
+     * since a crash could otherwise leave the move done but not the data.
+     *
+     * @param tasks the tasks to keep, in list order; views of this list's records may be among them
+     * @throws IOException if the new file cannot be written or moved into place
+     */
+    @Override
+    public void replaceRecords(List<Task> tasks) throws IOException {
+        synchronized (pageLock) {
+            PagedTaskList replacement = createReplacement(path, nextId);
+            try {
+                replacement.addAll(tasks);
+            } catch (RuntimeException e) {
+                replacement.discard();
+                throw e;
+            }
+
+            flush(false);
+            channel.close();
+            try {
+                replacement.moveTo(path);
+            } finally {
+                // Reopen whichever file is now in place, the new one or, if the move failed, the old one
+                resetDirectory();
+                openChannel();
+                modCount++;
+            }
+        }
+    }
+
+    /**
+     * Marks this file as finished, forces it to disk and moves it over the target, closing this list.
+     * If that fails, this file is deleted and the target is left as it was.
+     *
+     * @param target the page file to replace
+     * @throws IOException if this file cannot be written or moved
+     */
+    public void moveTo(Path target) throws IOException {
+        synchronized (pageLock) {
+            try {
+                isFinished = true;
+                flush(true);
+                channel.close();
+                Files.move(path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                channel.close();
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Closes and deletes a file from {@link #createReplacement(Path, int)} that is no longer wanted.
+     */
+    public void discard() {
+        synchronized (pageLock) {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.err.println("Warning: Failed to delete unfinished page file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Checks whether the file was completely written. A file left unfinished was interrupted while being
+     * filled and may be missing tasks.
+     *
+     * @return true if the file is complete
+     */
+    public boolean isFinished() {
+        synchronized (pageLock) {
+            return isFinished;
+        }
+    }
+
+    @Override
+    public boolean isComplete(int id, boolean ifMissing) {
+        synchronized (pageLock) {
+            int pageIndex = findPageIndexById(id);
+            if (pageIndex < 0) {
+                return ifMissing;
+            }
+            byte[] page = cache.get(pages[pageIndex]);
+            int offset = findRecord(page, pageIndex, id);
+            return offset < 0 ? ifMissing : page[offset + 5] != 0;
+        }
+    }
+
+    @Override
+    public void setComplete(int id, boolean isComplete) {
+        synchronized (pageLock) {
+            int pageIndex = findPageIndexById(id);
+            if (pageIndex < 0) {
+                return;
+            }
+            byte[] page = cache.get(pages[pageIndex]);
+            int offset = findRecord(page, pageIndex, id);
+            if (offset >= 0) {
+                page[offset + 5] = (byte) (isComplete ? 1 : 0);
+                cache.markDirty(pages[pageIndex]);
+            }
+        }
+    }
+
+    /**
+     * Writes every changed page and the file header to the file.
+     *
+     * @param isForced whether to also force the writes to the storage device
+     * @throws IOException if the file cannot be written
+     */
+    public void flush(boolean isForced) throws IOException {
+        synchronized (pageLock) {
+            try {
+                cache.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writeFileHeader();
+            if (isForced) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Writes every changed page and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (pageLock) {
+            if (channel.isOpen()) {
+                flush(false);
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the page cache's usage figures.
+     *
+     * @return the current statistics
+     */
+    public PageCache.Statistics getCacheStatistics() {
+        synchronized (pageLock) {
+            return cache.getStatistics();
+        }
+    }
+
+    /**
+     * Gets the number of pages in the file, including the header page and empty pages awaiting reuse.
+     *
+     * @return the file's size in pages
+     */
+    public int getFilePageCount() {
+        synchronized (pageLock) {
+            return filePageCount;
+        }
+    }
+
+    private void resetDirectory() {
+        pageCount = 0;
+        freeCount = 0;
+        filePageCount = 0;
+        size = 0;
+        isPageStartsValid = false;
+        cursorPageIndex = -1;
+    }
+
+    private void appendPage(int pageNumber, int count, int firstId) {
+        if (pageCount == pages.length) {
+            int capacity = pageCount * 2;
+            pages = Arrays.copyOf(pages, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            firstIds = Arrays.copyOf(firstIds, capacity);
+        }
+        pages[pageCount] = pageNumber;
+        counts[pageCount] = count;
+        firstIds[pageCount] = firstId;
+        pageCount++;
+        isPageStartsValid = false;
+    }
+
+    private void removePage(int pageIndex) {
+        int moved = pageCount - pageIndex - 1;
+        System.arraycopy(pages, pageIndex + 1, pages, pageIndex, moved);
+        System.arraycopy(counts, pageIndex + 1, counts, pageIndex, moved);
+        System.arraycopy(firstIds, pageIndex + 1, firstIds, pageIndex, moved);
+        pageCount--;
+    }
+
+    private void pushFreePage(int pageNumber) {
+        if (freeCount == freePages.length) {
+            freePages = Arrays.copyOf(freePages, freeCount * 2);
+        }
+        freePages[freeCount++] = pageNumber;
+    }
+
+    private int getPageStart(int pageIndex) {
+        if (!isPageStartsValid) {
+            if (pageStarts.length < pageCount + 1) {
+                pageStarts = new int[pages.length + 1];
+            }
+            for (int i = 0; i < pageCount; i++) {
+                pageStarts[i + 1] = pageStarts[i] + counts[i];
+            }
+            isPageStartsValid = true;
+        }
+        return pageStarts[pageIndex];
+    }
+
+    /**
+     * Finds the page holding the task at the given list position.
+     */
+    private int findPageIndex(int index) {
+        getPageStart(0);
+        int low = 0;
+        int high = pageCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (pageStarts[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the only page that could hold the record with the given sequence number, or -1 if none could.
+     */
+    private int findPageIndexById(int id) {
+        int low = 0;
+        int high = pageCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firstIds[mid] <= id) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the offset of the record with the given sequence number in the page, or -1 if it was deleted.
+     */
+    private int findRecord(byte[] page, int pageIndex, int id) {
+        int offset = PAGE_HEADER_BYTES;
+        for (int record = 0; record < counts[pageIndex]; record++) {
+            int recordId = readInt(page, offset);
+            if (recordId == id) {
+                return offset;
+            } else if (recordId > id) {
+                break;
+            }
+            offset += getRecordLength(page, offset);
+        }
+        return -1;
+    }
+
+    private int locateRecord(byte[] page, int pageIndex, int record) {
+        int offset;
+        if (cursorPageIndex == pageIndex && cursorModCount == modCount && cursorRecord <= record) {
+            offset = skipRecords(page, cursorOffset, record - cursorRecord);
+        } else {
+            offset = skipRecords(page, PAGE_HEADER_BYTES, record);
+        }
+        cursorPageIndex = pageIndex;
+        cursorRecord = record;
+        cursorOffset = offset;
+        cursorModCount = modCount;
+        return offset;
+    }
+
+    private static int skipRecords(byte[] page, int offset, int records) {
+        for (int i = 0; i < records; i++) {
+            offset += getRecordLength(page, offset);
+        }
+        return offset;
+    }
+
+    private static int getFieldBytes(Task task) {
+        if (task instanceof Deadline) {
+            return 4;
+        } else if (task instanceof Event) {
+            return 16;
+        }
+        return 0;
+    }
+
+    private static int getRecordLength(byte[] page, int offset) {
+        int fieldBytes = page[offset + 4] == DEADLINE ? 4 : page[offset + 4] == EVENT ? 16 : 0;
+        return RECORD_HEADER_BYTES + readShort(page, offset + 6) + fieldBytes;
+    }
+
+    private static void encode(Task task, int id, byte[] description, byte[] page, int offset) {
+        writeInt(page, offset, id);
+        page[offset + 5] = (byte) (task.isComplete() ? 1 : 0);
+        writeShort(page, offset + 6, description.length);
+        System.arraycopy(description, 0, page, offset + RECORD_HEADER_BYTES, description.length);
+        int fields = offset + RECORD_HEADER_BYTES + description.length;
+        if (task instanceof Deadline) {
+            page[offset + 4] = DEADLINE;
+            writeInt(page, fields, (int) ((Deadline) task).getDeadline().toEpochDay());
+        } else if (task instanceof Event) {
+            page[offset + 4] = EVENT;
+            writeLong(page, fields, toEpochMinute(((Event) task).getStartTime()));
+            writeLong(page, fields + 8, toEpochMinute(((Event) task).getEndTime()));
+        } else {
+            page[offset + 4] = TODO;
+        }
+    }
+
+    private Task decode(byte[] page, int offset) {
+        int id = readInt(page, offset);
+        boolean isDone = page[offset + 5] != 0;
+        int length = readShort(page, offset + 6);
+        String description = new String(page, offset + RECORD_HEADER_BYTES, length, StandardCharsets.UTF_8);
+        int fields = offset + RECORD_HEADER_BYTES + length;
+        switch (page[offset + 4]) {
+        case DEADLINE:
+            return viewDeadline(id, description, LocalDate.ofEpochDay(readInt(page, fields)), isDone);
+        case EVENT:
+            return viewEvent(id, description, fromEpochMinute(readLong(page, fields)),
+                    fromEpochMinute(readLong(page, fields + 8)), isDone);
+        default:
+            return viewToDo(id, description, isDone);
+        }
+    }
+
+    private static int getCount(byte[] page) {
+        return readShort(page, 0);
+    }
+
+    private static int getUsed(byte[] page) {
+        int used = readShort(page, 2);
+        return used == 0 ? PAGE_HEADER_BYTES : used;
+    }
+
+    private static void setHeader(byte[] page, int count, int used) {
+        writeShort(page, 0, count);
+        writeShort(page, 2, used);
+    }
+
+    private static int readShort(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 8 | data[offset + 1] & 0xFF;
+    }
+
+    private static void writeShort(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 8);
+        data[offset + 1] = (byte) value;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return readShort(data, offset) << 16 | readShort(data, offset + 2);
+    }
+
+    private static void writeInt(byte[] data, int offset, int value) {
+        writeShort(data, offset, value >>> 16);
+        writeShort(data, offset + 2, value);
+    }
+
+    private static long readLong(byte[] data, int offset) {
+        return (long) readInt(data, offset) << 32 | readInt(data, offset + 4) & 0xFFFFFFFFL;
+    }
+
+    private static void writeLong(byte[] data, int offset, long value) {
+        writeInt(data, offset, (int) (value >>> 32));
+        writeInt(data, offset + 4, (int) value);
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,141 @@
+package ben.storage;
+
+import ben.task.Task;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses the content of a text task file on all cores of a {@link ForkJoinPool}.
+ * The content is cut into byte ranges that always end on a line break, each range is parsed
+ * with the same rules as a sequential load, and the results are joined back in file order.
+ */
+public class ParallelTextLoader {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final byte[] data;
+    private final Charset charset;
+    private final ForkJoinPool pool;
+    private long checkpointSequence;
+
+    /**
+     * Creates a loader for the given file content.
+     *
+     * @param data the complete content of a text task file
+     * @param pool the pool to parse chunks on
+     */
+    public ParallelTextLoader(byte[] data, ForkJoinPool pool) {
+        this.data = data;
+        this.charset = Charset.defaultCharset();
+        this.pool = pool;
+    }
+
+    /**
+     * Parses every task in the file content, in file order. Corrupted lines are skipped.
+     *
+     * @return the parsed tasks
+     */
+    public List<Task> load() {
+        List<ChunkParser> chunks = splitIntoChunks();
+        for (ChunkParser chunk : chunks) {
+            pool.execute(chunk);
+        }
+
+        int total = 0;
+        for (ChunkParser chunk : chunks) {
+            total += chunk.join().size();
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(total);
+        for (ChunkParser chunk : chunks) {
+            tasks.addAll(chunk.join());
+            checkpointSequence = Math.max(checkpointSequence, chunk.checkpointSequence);
+        }
+        return tasks;
+    }
+
+    /**
+     * Gets the checkpoint sequence number found in the file's header line, if any.
+     * Only meaningful after {@link #load()}.
+     *
+     * @return the checkpoint sequence number, or 0 if the file has no checkpoint header
+     */
+    public long getCheckpointSequence() {
+        return checkpointSequence;
+    }
+
+    private List<ChunkParser> splitIntoChunks() {
+        int chunkCount = Math.max(1, pool.getParallelism() * CHUNKS_PER_THREAD);
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, data.length / chunkCount + 1);
+
+        List<ChunkParser> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < data.length) {
+            int end = Math.min(data.length, start + chunkSize);
+            // Move the boundary forward so no line is split between two chunks
+            while (end < data.length && data[end - 1] != '\n') {
+                end++;
+            }
+            chunks.add(new ChunkParser(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Parses the lines in one newline-aligned byte range of the file. Never serialized.
+     */
+    @SuppressWarnings("serial")
+    private class ChunkParser extends RecursiveTask<List<Task>> {
+        private final int start;
+        private final int end;
+        private long checkpointSequence;
+
+        ChunkParser(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<Task> compute() {
+            List<Task> tasks = new ArrayList<>();
+            int lineStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || data[i] == '\n') {
+                    parseLine(lineStart, i, tasks);
+                    lineStart = i + 1;
+                }
+            }
+            return tasks;
+        }
+
+        private void parseLine(int lineStart, int lineEnd, List<Task> tasks) {
+            // Trim surrounding whitespace, including the '\r' of Windows line endings
+            while (lineStart < lineEnd && (data[lineStart] & 0xFF) <= ' ') {
+                lineStart++;
+            }
+            while (lineEnd > lineStart && (data[lineEnd - 1] & 0xFF) <= ' ') {
+                lineEnd--;
+            }
+            if (lineStart == lineEnd) {
+                return;
+            }
+
+            if (data[lineStart] == '#') {
+                String line = new String(data, lineStart, lineEnd - lineStart, charset);
+                if (line.startsWith(TaskTextFormat.CHECKPOINT_HEADER)) {
+                    checkpointSequence = TaskTextFormat.parseCheckpointSequence(line);
+                }
+                return;
+            }
+            Task task = TaskTextFormat.parse(data, lineStart, lineEnd, charset);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+    }
+}
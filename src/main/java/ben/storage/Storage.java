@@ -1,158 +1,83 @@
 package ben.storage;
 
 import ben.BenException;
-import ben.task.Deadline;
-import ben.task.Event;
 import ben.task.Task;
-import ben.task.ToDo;
-import java.time.LocalDateTime;
 
-import java.io.*;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
 
 /**
- * Manages persistent storage of tasks to and from files.
+ * Persists the task list. Implementations decide where and how tasks are kept;
+ * the rest of the application only talks to this interface.
+ * Use {@link StorageFactory} to create the backend selected by a {@link StorageConfig}.
  */
-public class Storage {
-    private String filePath;
-    private static final DateTimeFormatter DATE_STORAGE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-    public Storage(String filePath) {
-        this.filePath = filePath;
-    }
+public interface Storage {
 
     /**
-     * Loads tasks from the configured file path.
-     * Creates necessary directories if they don't exist, returns empty list if file doesn't exist.
+     * Loads every persisted task.
      *
-     * @return list of tasks loaded from storage file
-     * @throws BenException if file reading fails or data is corrupted
+     * @return the tasks, in list order
+     * @throws BenException if the stored tasks cannot be read
      */
-    public ArrayList<Task> loadTasks() throws BenException {
-        ArrayList<Task> tasks = new ArrayList<>();
-        File file = new File(filePath);
+    List<Task> loadTasks() throws BenException;
 
-        // Create directory if it doesn't exist
-        File parentDir = file.getParentFile();
-        if (parentDir != null && !parentDir.exists()) {
-            parentDir.mkdirs();
-        }
-
-        // Return empty list if file doesn't exist
-        if (!file.exists()) {
-            return tasks;
-        }
+    /**
+     * Replaces everything persisted with the given tasks.
+     *
+     * @param tasks the complete task list
+     * @throws BenException if the tasks cannot be written
+     */
+    void saveTasks(List<Task> tasks) throws BenException;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Task task = parseTask(line.trim());
-                if (task != null) {
-                    tasks.add(task);
-                }
-            }
-        } catch (IOException e) {
-            throw new BenException("Error loading tasks from file: " + e.getMessage());
-        }
+    /**
+     * Persists a single change that was just applied to the task list.
+     *
+     * @param mutation the change that was just applied to the list
+     * @param tasks the full task list after the change
+     * @throws BenException if the change cannot be persisted
+     */
+    void recordMutation(Mutation mutation, List<Task> tasks) throws BenException;
 
-        return tasks;
+    /**
+     * Persists changes that were just applied to the task list but are too many to record one by one,
+     * such as a bulk change or a batch of deferred saves. By default the whole list is saved.
+     *
+     * @param tasks the full task list after the changes
+     * @throws BenException if the changes cannot be persisted
+     */
+    default void recordChanges(List<Task> tasks) throws BenException {
+        saveTasks(tasks);
     }
 
     /**
-     * Saves all tasks to the configured file path in the specified format.
-     * Creates necessary directories and overwrites existing file content.
+     * Blocks until every change recorded so far is persisted.
      *
-     * @param tasks the list of tasks to save to storage
-     * @throws BenException if file writing fails or directory creation fails
+     * @throws BenException if the pending changes cannot be written
      */
-    public void saveTasks(ArrayList<Task> tasks) throws BenException {
-        File file = new File(filePath);
+    void flush() throws BenException;
 
-        // Create directory if it doesn't exist
-        File parentDir = file.getParentFile();
-        if (parentDir != null && !parentDir.exists()) {
-            parentDir.mkdirs();
-        }
+    /**
+     * Writes pending changes and releases any resources held by this storage.
+     */
+    void close();
 
-        try (PrintWriter writer = new PrintWriter(file)) {
+    /**
+     * Writes tasks to a file in the pipe-delimited text format, regardless of the backend.
+     *
+     * @param tasks the tasks to export
+     * @param path the text file to write
+     * @throws BenException if the file cannot be written
+     */
+    default void exportTasks(List<Task> tasks, String path) throws BenException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(path)))) {
             for (Task task : tasks) {
-                writer.println(formatTask(task));
+                writer.println(TaskTextFormat.format(task));
             }
         } catch (IOException e) {
-            throw new BenException("Error saving tasks to file: " + e.getMessage());
-        }
-    }
-
-    //Used Claude to identify the bug when parsing task String that affected SnoozeCommand
-    private Task parseTask(String line) throws BenException {
-        if (line.isEmpty()) {
-            return null;
-        }
-
-        String[] parts = line.split(" \\| ");
-        if (parts.length < 3) {
-            // Handle corrupted data - skip this line
-            return null;
-        }
-
-        String type = parts[0];
-        boolean isDone = parts[1].equals("1");
-        String description = parts[2];
-
-        Task task = null;
-
-        try {
-            switch (type) {
-            case "T":
-                task = new ToDo(description);
-                break;
-            case "D":
-                if (parts.length >= 4) {
-                    // Parse the date from storage format
-                    LocalDate byDate = LocalDate.parse(parts[3], DATE_STORAGE_FORMAT);
-                    task = new Deadline(description, byDate);
-                }
-                break;
-            case "E":
-                if (parts.length >= 5) {
-                    // Parse LocalDateTime directly from storage format
-                    // The storage saves LocalDateTime.toString() which produces ISO format
-                    LocalDateTime startDateTime = LocalDateTime.parse(parts[3]);
-                    LocalDateTime endDateTime = LocalDateTime.parse(parts[4]);
-                    task = new Event(description, startDateTime, endDateTime);
-                }
-                break;
-            }
-        } catch (Exception e) {
-            // Skip corrupted entries
-            System.err.println("Warning: Skipping corrupted task entry: " + line + " - Error: " + e.getMessage());
-            return null;
-        }
-
-        if (task != null && isDone) {
-            task.markComplete();
-        }
-
-        return task;
-    }
-
-    private String formatTask(Task task) {
-        String status = task.isComplete() ? "1" : "0";
-        String type = task.getType();
-        String description = task.getDescription();
-
-        if (task instanceof Deadline) {
-            Deadline deadline = (Deadline) task;
-            // Save date in ben.storage format (yyyy-MM-dd)
-            String dateString = deadline.getDeadline().format(DATE_STORAGE_FORMAT);
-            return type + " | " + status + " | " + description + " | " + dateString;
-        } else if (task instanceof Event) {
-            Event event = (Event) task;
-            return type + " | " + status + " | " + description + " | " + event.getStartTime() + " | " + event.getEndTime();
-        } else {
-            return type + " | " + status + " | " + description;
+            throw new BenException("Error exporting tasks to file: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,271 @@
+package ben.storage;
+
+/**
+ * Holds the tunable settings that decide which {@link Storage} backend is used and how it persists tasks.
+ * Settings can be read from JVM system properties, e.g. {@code -Dben.storage.journal=true}.
+ */
+public class StorageConfig {
+
+    /**
+     * The on-disk format of the task snapshot.
+     */
+    public enum Format {
+        /** Human-readable pipe-delimited lines, e.g. {@code T | 0 | read book}. */
+        TEXT,
+        /** Fixed-width binary records loaded through a memory-mapped file. */
+        BINARY
+    }
+
+    /**
+     * How often written data is forced from the operating system's cache to the storage device.
+     */
+    public enum SyncPolicy {
+        /** Never force; leave it to the operating system. Fastest, but a power loss can drop recent changes. */
+        NONE,
+        /** Force once per write batch: each full save, write-behind flush, checkpoint or explicit flush. */
+        BATCH,
+        /** Force every single mutation before the command returns, bypassing write-behind batching. */
+        MUTATION
+    }
+
+    public static final String BACKEND_PROPERTY = "ben.storage.backend";
+    public static final String FILE_PROPERTY = "ben.storage.file";
+    public static final String FORMAT_PROPERTY = "ben.storage.format";
+    public static final String JOURNAL_PROPERTY = "ben.storage.journal";
+    public static final String CHECKPOINT_RECORDS_PROPERTY = "ben.storage.checkpointRecords";
+    public static final String CHECKPOINT_BYTES_PROPERTY = "ben.storage.checkpointBytes";
+    public static final String WRITE_BEHIND_PROPERTY = "ben.storage.writeBehindMillis";
+    public static final String SYNC_PROPERTY = "ben.storage.sync";
+    public static final String LAZY_PROPERTY = "ben.storage.lazy";
+    public static final String PARALLEL_PROPERTY = "ben.storage.parallel";
+    public static final String INCREMENTAL_PROPERTY = "ben.storage.incremental";
+    public static final String PAGE_CACHE_PROPERTY = "ben.storage.pageCachePages";
+
+    static final String DEFAULT_BACKEND = "text";
+    private static final String DEFAULT_FILE_PATH = "./data/ben.txt";
+    private static final int DEFAULT_CHECKPOINT_RECORDS = 10_000;
+    private static final long DEFAULT_CHECKPOINT_BYTES = 4L * 1024 * 1024;
+    private static final int DEFAULT_PAGE_CACHE_PAGES = 256;
+
+    private String backend;
+    private String filePath;
+    private Format format;
+    private boolean isJournaled;
+    private int checkpointRecordThreshold;
+    private long checkpointByteThreshold;
+    private long writeBehindMillis;
+    private SyncPolicy syncPolicy;
+    private boolean isLazy;
+    private boolean isParallel;
+    private boolean isIncremental;
+    private int pageCachePages;
+
+    /**
+     * Creates a configuration with the default settings: plain text storage in ./data/ben.txt, no journal.
+     */
+    public StorageConfig() {
+        this.backend = DEFAULT_BACKEND;
+        this.filePath = DEFAULT_FILE_PATH;
+        this.format = Format.TEXT;
+        this.isJournaled = false;
+        this.checkpointRecordThreshold = DEFAULT_CHECKPOINT_RECORDS;
+        this.checkpointByteThreshold = DEFAULT_CHECKPOINT_BYTES;
+        this.writeBehindMillis = 0;
+        this.syncPolicy = SyncPolicy.NONE;
+        this.isLazy = false;
+        this.isParallel = false;
+        this.isIncremental = false;
+        this.pageCachePages = DEFAULT_PAGE_CACHE_PAGES;
+    }
+
+    /**
+     * Builds a configuration from JVM system properties, falling back to defaults for missing keys
+     * and, with a warning, for unknown format and sync policy names.
+     *
+     * @return the configuration described by the current system properties
+     */
+    public static StorageConfig fromSystemProperties() {
+        StorageConfig config = new StorageConfig();
+        config.setBackend(System.getProperty(BACKEND_PROPERTY, DEFAULT_BACKEND));
+        config.setFilePath(System.getProperty(FILE_PROPERTY, DEFAULT_FILE_PATH));
+        config.setFormat(getEnumProperty(FORMAT_PROPERTY, Format.class, Format.TEXT));
+        config.setJournaled(Boolean.getBoolean(JOURNAL_PROPERTY));
+        config.setCheckpointRecordThreshold(Integer.getInteger(CHECKPOINT_RECORDS_PROPERTY,
+                DEFAULT_CHECKPOINT_RECORDS));
+        config.setCheckpointByteThreshold(Long.getLong(CHECKPOINT_BYTES_PROPERTY, DEFAULT_CHECKPOINT_BYTES));
+        config.setWriteBehindMillis(Long.getLong(WRITE_BEHIND_PROPERTY, 0));
+        config.setSyncPolicy(getEnumProperty(SYNC_PROPERTY, SyncPolicy.class, SyncPolicy.NONE));
+        config.setLazy(Boolean.getBoolean(LAZY_PROPERTY));
+        config.setParallel(Boolean.getBoolean(PARALLEL_PROPERTY));
+        config.setIncremental(Boolean.getBoolean(INCREMENTAL_PROPERTY));
+        config.setPageCachePages(Integer.getInteger(PAGE_CACHE_PROPERTY, DEFAULT_PAGE_CACHE_PAGES));
+        return config;
+    }
+
+    /**
+     * Reads a system property naming one of an enum's constants, ignoring case.
+     *
+     * @param property the system property to read
+     * @param type the enum the name belongs to
+     * @param defaultValue the constant to use if the property is missing or names no constant
+     * @return the named constant, or the default
+     */
+    static <E extends Enum<E>> E getEnumProperty(String property, Class<E> type, E defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: Ignoring unknown " + property + " value: " + value
+                    + " - using " + defaultValue.name().toLowerCase());
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets the name of the storage backend, as registered with {@link StorageFactory}.
+     *
+     * @return the backend name, e.g. {@code text} or {@code memory}
+     */
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend.trim().toLowerCase();
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public void setFormat(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Checks whether mutations are appended to a journal instead of rewriting the task file.
+     *
+     * @return true if journaled storage is enabled
+     */
+    public boolean isJournaled() {
+        return isJournaled;
+    }
+
+    public void setJournaled(boolean isJournaled) {
+        this.isJournaled = isJournaled;
+    }
+
+    /**
+     * Gets the number of journal records after which a background checkpoint is started.
+     *
+     * @return the record threshold, or 0 if record count never triggers a checkpoint
+     */
+    public int getCheckpointRecordThreshold() {
+        return checkpointRecordThreshold;
+    }
+
+    public void setCheckpointRecordThreshold(int checkpointRecordThreshold) {
+        this.checkpointRecordThreshold = Math.max(0, checkpointRecordThreshold);
+    }
+
+    /**
+     * Gets the journal size in bytes after which a background checkpoint is started.
+     *
+     * @return the byte threshold, or 0 if journal size never triggers a checkpoint
+     */
+    public long getCheckpointByteThreshold() {
+        return checkpointByteThreshold;
+    }
+
+    public void setCheckpointByteThreshold(long checkpointByteThreshold) {
+        this.checkpointByteThreshold = Math.max(0, checkpointByteThreshold);
+    }
+
+    /**
+     * Gets the interval at which the write-behind flusher persists pending changes.
+     *
+     * @return the flush interval in milliseconds, or 0 if changes are written synchronously
+     */
+    public long getWriteBehindMillis() {
+        return writeBehindMillis;
+    }
+
+    public void setWriteBehindMillis(long writeBehindMillis) {
+        this.writeBehindMillis = Math.max(0, writeBehindMillis);
+    }
+
+    public SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    public void setSyncPolicy(SyncPolicy syncPolicy) {
+        this.syncPolicy = syncPolicy;
+    }
+
+    /**
+     * Checks whether text task files are decoded lazily, one task at a time on first access.
+     *
+     * @return true if lazy loading is enabled
+     */
+    public boolean isLazy() {
+        return isLazy;
+    }
+
+    public void setLazy(boolean isLazy) {
+        this.isLazy = isLazy;
+    }
+
+    /**
+     * Checks whether text task files are parsed in chunks on all cores.
+     * Ignored when lazy loading is enabled, since lazy loading does not parse up front.
+     *
+     * @return true if parallel loading is enabled
+     */
+    public boolean isParallel() {
+        return isParallel;
+    }
+
+    public void setParallel(boolean isParallel) {
+        this.isParallel = isParallel;
+    }
+
+    /**
+     * Checks whether single changes are written into the text task file in place instead of rewriting it.
+     * In-place writes are not atomic, so an interrupted write can leave one damaged line behind.
+     * Ignored for the binary format and when journaling is enabled.
+     *
+     * @return true if incremental saving is enabled
+     */
+    public boolean isIncremental() {
+        return isIncremental;
+    }
+
+    public void setIncremental(boolean isIncremental) {
+        this.isIncremental = isIncremental;
+    }
+
+    /**
+     * Gets the number of task file pages the {@code paged} backend keeps in memory.
+     * Each page takes {@value PagedTaskList#PAGE_SIZE} bytes.
+     *
+     * @return the page cache size in pages
+     */
+    public int getPageCachePages() {
+        return pageCachePages;
+    }
+
+    public void setPageCachePages(int pageCachePages) {
+        this.pageCachePages = Math.max(1, pageCachePages);
+    }
+}
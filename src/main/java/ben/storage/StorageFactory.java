@@ -0,0 +1,60 @@
+package ben.storage;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Creates the {@link Storage} backend named in a {@link StorageConfig}.
+ * The built-in backends are {@code text}, {@code binary}, {@code journal}, {@code memory} and {@code paged};
+ * further backends can be added with {@link #register(String, Function)}.
+ */
+public class StorageFactory {
+    private static final Map<String, Function<StorageConfig, Storage>> BACKENDS = new TreeMap<>();
+
+    static {
+        register("text", config -> new FileStorage(config.getFilePath(), config));
+        register("binary", config -> {
+            config.setFormat(StorageConfig.Format.BINARY);
+            return new FileStorage(config.getFilePath(), config);
+        });
+        register("journal", config -> {
+            config.setJournaled(true);
+            return new FileStorage(config.getFilePath(), config);
+        });
+        register("memory", config -> new InMemoryStorage());
+        register("paged", config -> new PagedStorage(config.getFilePath(), config));
+    }
+
+    private StorageFactory() {
+    }
+
+    /**
+     * Makes a backend available under the given name, replacing any backend already registered under it.
+     *
+     * @param name the backend name used in {@link StorageConfig#getBackend()}
+     * @param factory creates the backend from the configuration
+     */
+    public static synchronized void register(String name, Function<StorageConfig, Storage> factory) {
+        BACKENDS.put(name.trim().toLowerCase(), factory);
+    }
+
+    /**
+     * Creates the backend selected by the given configuration.
+     * An unknown backend name falls back to the default text backend with a warning, rather than stopping Ben.
+     *
+     * @param config the storage settings, including the backend name
+     * @return a new storage backend
+     */
+    public static synchronized Storage create(StorageConfig config) {
+        Function<StorageConfig, Storage> factory = BACKENDS.get(config.getBackend());
+        if (factory == null) {
+            System.err.println("Warning: Ignoring unknown " + StorageConfig.BACKEND_PROPERTY + " value: "
+                    + config.getBackend() + " - using " + StorageConfig.DEFAULT_BACKEND
+                    + " (available: " + String.join(", ", BACKENDS.keySet()) + ")");
+            config.setBackend(StorageConfig.DEFAULT_BACKEND);
+            factory = BACKENDS.get(StorageConfig.DEFAULT_BACKEND);
+        }
+        return factory.apply(config);
+    }
+}
@@ -0,0 +1,467 @@
+package ben.storage;
+
+import ben.task.Deadline;
+import ben.task.DescriptionPool;
+import ben.task.Event;
+import ben.task.Task;
+import ben.task.ToDo;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converts tasks to and from the pipe-delimited text format shared by every storage backend,
+ * e.g. {@code D | 0 | return book | 2019-12-25}.
+ */
+public class TaskTextFormat {
+    static final String CHECKPOINT_HEADER = "# checkpoint ";
+    private static final DateTimeFormatter DATE_STORAGE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final int SEPARATOR_LENGTH = 3;
+
+    private TaskTextFormat() {
+    }
+
+    /**
+     * Parses a single line of the text format.
+     * Fields are found by scanning for {@code " | "} in place and dates are read digit by digit,
+     * so the only objects created are the task itself, its description and its dates.
+     *
+     * @param line one line of the text format, without surrounding whitespace
+     * @return the parsed task, or null if the line is empty or corrupted
+     */
+    public static Task parse(CharSequence line) {
+        return parseFields(line, null, 0, null);
+    }
+
+    /**
+     * Parses a single line of the text format directly from file bytes, without decoding the whole line.
+     *
+     * @param data the file content
+     * @param start the index of the line's first byte, after leading whitespace
+     * @param end the index just past the line's last byte, before trailing whitespace
+     * @param charset the charset the file is encoded in
+     * @return the parsed task, or null if the line is empty or corrupted
+     */
+    public static Task parse(byte[] data, int start, int end, Charset charset) {
+        if (!isAsciiCompatible(charset)) {
+            // Multi-byte encodings may contain '|' or ' ' bytes inside other characters
+            return parse(new String(data, start, end - start, charset));
+        }
+        return parseFields(new AsciiSequence(data, start, end, charset), data, start, charset);
+    }
+
+    /**
+     * Checks whether a line read directly from file bytes would parse, without building the task.
+     * Accepts exactly the lines {@link #parse(byte[], int, int, Charset)} turns into tasks, but well-formed dates
+     * are only checked digit by digit rather than created.
+     *
+     * @param data the file content
+     * @param start the index of the line's first byte, after leading whitespace
+     * @param end the index just past the line's last byte, before trailing whitespace
+     * @param charset the charset the file is encoded in
+     * @return true if parsing the line would return a task
+     */
+    static boolean isReadable(byte[] data, int start, int end, Charset charset) {
+        CharSequence line = isAsciiCompatible(charset)
+                ? new AsciiSequence(data, start, end, charset)
+                : new String(data, start, end - start, charset);
+        int contentEnd = getContentEnd(line);
+        if (contentEnd == 0) {
+            return false;
+        }
+
+        int typeEnd = indexOfSeparator(line, 0, contentEnd);
+        int statusEnd = indexOfSeparator(line, typeEnd + SEPARATOR_LENGTH, contentEnd);
+        if (typeEnd != 1 || statusEnd < 0) {
+            return false;
+        }
+        int descriptionEnd = fieldEnd(line, statusEnd + SEPARATOR_LENGTH, contentEnd);
+
+        try {
+            switch (line.charAt(0)) {
+            case 'T':
+                return true;
+            case 'D':
+                if (descriptionEnd == contentEnd) {
+                    return false;
+                }
+                int byStart = descriptionEnd + SEPARATOR_LENGTH;
+                checkDate(line, byStart, fieldEnd(line, byStart, contentEnd));
+                return true;
+            case 'E':
+                if (descriptionEnd == contentEnd) {
+                    return false;
+                }
+                int fromStart = descriptionEnd + SEPARATOR_LENGTH;
+                int fromEnd = fieldEnd(line, fromStart, contentEnd);
+                if (fromEnd == contentEnd) {
+                    return false;
+                }
+                int toStart = fromEnd + SEPARATOR_LENGTH;
+                checkDateTime(line, fromStart, fromEnd);
+                checkDateTime(line, toStart, fieldEnd(line, toStart, contentEnd));
+                return true;
+            default:
+                return false;
+            }
+        } catch (Exception e) {
+            // Skip corrupted entries, with the same warning parsing gives
+            System.err.println("Warning: Skipping corrupted task entry: " + line + " - Error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Splits the line on {@code " | "} exactly like {@code line.split(" \\| ")} used to, including
+     * dropping trailing empty fields, and builds the task from the first five fields.
+     */
+    //Used Claude to identify the bug when parsing task String that affected SnoozeCommand
+    private static Task parseFields(CharSequence line, byte[] data, int offset, Charset charset) {
+        int end = getContentEnd(line);
+        if (end == 0) {
+            return null;
+        }
+
+        int typeEnd = indexOfSeparator(line, 0, end);
+        int statusStart = typeEnd + SEPARATOR_LENGTH;
+        int statusEnd = indexOfSeparator(line, statusStart, end);
+        if (typeEnd < 0 || statusEnd < 0) {
+            // Handle corrupted data - skip this line
+            return null;
+        }
+        int descriptionStart = statusEnd + SEPARATOR_LENGTH;
+        int descriptionEnd = fieldEnd(line, descriptionStart, end);
+
+        char type = typeEnd == 1 ? line.charAt(0) : 0;
+        boolean isDone = statusEnd - statusStart == 1 && line.charAt(statusStart) == '1';
+        if (type != 'T' && type != 'D' && type != 'E') {
+            return null;
+        }
+
+        Task task = null;
+
+        try {
+            switch (type) {
+            case 'T':
+                task = new ToDo(readDescription(line, descriptionStart, descriptionEnd, data, offset, charset));
+                break;
+            case 'D':
+                if (descriptionEnd < end) {
+                    int byStart = descriptionEnd + SEPARATOR_LENGTH;
+                    LocalDate byDate = parseDate(line, byStart, fieldEnd(line, byStart, end));
+                    task = new Deadline(readDescription(line, descriptionStart, descriptionEnd, data, offset, charset),
+                            byDate);
+                }
+                break;
+            case 'E':
+                if (descriptionEnd < end) {
+                    int fromStart = descriptionEnd + SEPARATOR_LENGTH;
+                    int fromEnd = fieldEnd(line, fromStart, end);
+                    if (fromEnd < end) {
+                        int toStart = fromEnd + SEPARATOR_LENGTH;
+                        LocalDateTime startDateTime = parseDateTime(line, fromStart, fromEnd);
+                        LocalDateTime endDateTime = parseDateTime(line, toStart, fieldEnd(line, toStart, end));
+                        task = new Event(readDescription(line, descriptionStart, descriptionEnd, data, offset, charset),
+                                startDateTime, endDateTime);
+                    }
+                }
+                break;
+            }
+        } catch (Exception e) {
+            // Skip corrupted entries
+            System.err.println("Warning: Skipping corrupted task entry: " + line + " - Error: " + e.getMessage());
+            return null;
+        }
+
+        if (task != null && isDone) {
+            task.markComplete();
+        }
+
+        return task;
+    }
+
+    /**
+     * Gets the end of the last non-empty field, since trailing empty fields are ignored.
+     */
+    private static int getContentEnd(CharSequence line) {
+        int length = line.length();
+        int contentEnd = 0;
+        int fieldStart = 0;
+        while (true) {
+            int separator = indexOfSeparator(line, fieldStart, length);
+            int fieldEnd = separator < 0 ? length : separator;
+            if (fieldEnd > fieldStart) {
+                contentEnd = fieldEnd;
+            }
+            if (separator < 0) {
+                return contentEnd;
+            }
+            fieldStart = separator + SEPARATOR_LENGTH;
+        }
+    }
+
+    private static int indexOfSeparator(CharSequence line, int from, int end) {
+        for (int i = from; i + SEPARATOR_LENGTH <= end; i++) {
+            if (line.charAt(i) == ' ' && line.charAt(i + 1) == '|' && line.charAt(i + 2) == ' ') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int fieldEnd(CharSequence line, int from, int end) {
+        int separator = indexOfSeparator(line, from, end);
+        return separator < 0 ? end : separator;
+    }
+
+    /**
+     * Reads a description field, sharing the string with tasks that have the same description.
+     */
+    private static String readDescription(CharSequence line, int start, int end, byte[] data, int offset,
+            Charset charset) {
+        if (data != null) {
+            return DescriptionPool.intern(new String(data, offset + start, end - start, charset));
+        }
+        return DescriptionPool.intern(line.subSequence(start, end).toString());
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-dd} deadline date. Out-of-range days are clamped to the end of the month,
+     * as the {@link DateTimeFormatter} this replaces did; unusual shapes still go through that formatter.
+     */
+    private static LocalDate parseDate(CharSequence text, int start, int end) {
+        if (end - start == 10 && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-') {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= 31) {
+                int monthLength = Month.of(month).length(Year.isLeap(year));
+                return LocalDate.of(year, month, Math.min(day, monthLength));
+            }
+        }
+        return LocalDate.parse(text.subSequence(start, end).toString(), DATE_STORAGE_FORMAT);
+    }
+
+    /**
+     * Checks a deadline date the way {@link #parseDate} reads it, creating a date only for unusual shapes.
+     *
+     * @throws java.time.DateTimeException if the date cannot be read
+     */
+    private static void checkDate(CharSequence text, int start, int end) {
+        if (end - start == 10 && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-') {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= 31) {
+                return;
+            }
+        }
+        parseDate(text, start, end);
+    }
+
+    /**
+     * Checks an event time the way {@link #parseDateTime} reads it, creating a time only for unusual shapes.
+     *
+     * @throws java.time.DateTimeException if the time cannot be read
+     */
+    private static void checkDateTime(CharSequence text, int start, int end) {
+        int length = end - start;
+        if ((length == 16 || length == 19) && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-'
+                && text.charAt(start + 10) == 'T' && text.charAt(start + 13) == ':'
+                && (length == 16 || text.charAt(start + 16) == ':')) {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            int hour = digits(text, start + 11, 2);
+            int minute = digits(text, start + 14, 2);
+            int second = length == 19 ? digits(text, start + 17, 2) : 0;
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= Month.of(month).length(Year.isLeap(year))
+                    && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59 && second >= 0 && second <= 59) {
+                return;
+            }
+        }
+        parseDateTime(text, start, end);
+    }
+
+    /**
+     * Parses an ISO {@code yyyy-MM-ddTHH:mm[:ss]} event time. Invalid values are rejected like
+     * {@link LocalDateTime#parse(CharSequence)}; fractional seconds still go through that method.
+     */
+    private static LocalDateTime parseDateTime(CharSequence text, int start, int end) {
+        int length = end - start;
+        if ((length == 16 || length == 19) && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-'
+                && text.charAt(start + 10) == 'T' && text.charAt(start + 13) == ':'
+                && (length == 16 || text.charAt(start + 16) == ':')) {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            int hour = digits(text, start + 11, 2);
+            int minute = digits(text, start + 14, 2);
+            int second = length == 19 ? digits(text, start + 17, 2) : 0;
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
+        return LocalDateTime.parse(text.subSequence(start, end));
+    }
+
+    /**
+     * Reads a fixed number of ASCII digits as a non-negative number.
+     *
+     * @return the number, or -1 if any character is not a digit
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    static boolean isAsciiCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.ISO_8859_1)
+                || charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Formats a task as a single line of the text format.
+     *
+     * @param task the task to format
+     * @return the line, without a trailing line separator
+     */
+    public static String format(Task task) {
+        StringBuilder line = new StringBuilder(64);
+        format(task, line);
+        return line.toString();
+    }
+
+    /**
+     * Appends a task as a single line of the text format to a reusable buffer,
+     * writing dates digit by digit instead of through a formatter.
+     *
+     * @param task the task to format
+     * @param out the buffer to append to; no line separator is appended
+     */
+    public static void format(Task task, StringBuilder out) {
+        out.append(task.getType()).append(" | ").append(task.isComplete() ? '1' : '0')
+                .append(" | ").append(task.getDescription());
+
+        if (task instanceof Deadline) {
+            // Save date in ben.storage format (yyyy-MM-dd)
+            out.append(" | ");
+            appendDate(((Deadline) task).getDeadline(), out);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            out.append(" | ");
+            appendDateTime(event.getStartTime(), out);
+            out.append(" | ");
+            appendDateTime(event.getEndTime(), out);
+        }
+    }
+
+    private static void appendDate(LocalDate date, StringBuilder out) {
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            out.append(date.format(DATE_STORAGE_FORMAT));
+            return;
+        }
+        appendDigits(year, 4, out);
+        out.append('-');
+        appendDigits(date.getMonthValue(), 2, out);
+        out.append('-');
+        appendDigits(date.getDayOfMonth(), 2, out);
+    }
+
+    /**
+     * Appends the same text as {@link LocalDateTime#toString()}, which is what the format has always stored.
+     */
+    private static void appendDateTime(LocalDateTime dateTime, StringBuilder out) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999 || dateTime.getNano() != 0) {
+            out.append(dateTime);
+            return;
+        }
+        appendDigits(year, 4, out);
+        out.append('-');
+        appendDigits(dateTime.getMonthValue(), 2, out);
+        out.append('-');
+        appendDigits(dateTime.getDayOfMonth(), 2, out);
+        out.append('T');
+        appendDigits(dateTime.getHour(), 2, out);
+        out.append(':');
+        appendDigits(dateTime.getMinute(), 2, out);
+        if (dateTime.getSecond() > 0) {
+            out.append(':');
+            appendDigits(dateTime.getSecond(), 2, out);
+        }
+    }
+
+    private static void appendDigits(int value, int width, StringBuilder out) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Reads the sequence number from a {@code # checkpoint <sequence>} header line.
+     *
+     * @param header the header line
+     * @return the sequence number, or 0 if the header is corrupted
+     */
+    static long parseCheckpointSequence(String header) {
+        try {
+            return Long.parseLong(header.substring(CHECKPOINT_HEADER.length()).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Ignoring corrupted checkpoint header: " + header);
+            return 0;
+        }
+    }
+
+    /**
+     * Presents a range of ASCII-compatible bytes as characters without decoding them.
+     * Non-ASCII bytes only ever appear inside descriptions, which are decoded separately.
+     */
+    private static class AsciiSequence implements CharSequence {
+        private final byte[] data;
+        private final int start;
+        private final int end;
+        private final Charset charset;
+
+        AsciiSequence(byte[] data, int start, int end, Charset charset) {
+            this.data = data;
+            this.start = start;
+            this.end = end;
+            this.charset = charset;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (data[start + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new AsciiSequence(data, start + from, start + to, charset);
+        }
+
+        @Override
+        public String toString() {
+            return new String(data, start, end - start, charset);
+        }
+    }
+}
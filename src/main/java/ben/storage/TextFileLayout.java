@@ -0,0 +1,124 @@
+package ben.storage;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Remembers where each task's line starts in a text task file, so a single record can be patched
+ * in place instead of rewriting the whole file.
+ * Every recorded line starts with a one-character type and a one-character status, e.g. {@code T | 0 | },
+ * so the status of task {@code i} is always at {@code getStart(i) + 4}.
+ */
+public class TextFileLayout {
+    /** Offset of the status character from the start of a line. */
+    static final int STATUS_OFFSET = 4;
+
+    private long[] starts;
+    private int size;
+    private long end;
+    private boolean isTerminated;
+
+    /**
+     * Creates the layout of an empty file.
+     */
+    public TextFileLayout() {
+        this.starts = new long[16];
+        this.isTerminated = true;
+    }
+
+    /**
+     * Records the next task's line.
+     *
+     * @param start the byte offset at which the line starts
+     */
+    public void addLine(long start) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size + (size >> 1));
+        }
+        starts[size++] = start;
+    }
+
+    /**
+     * Gets the byte offset at which a task's line starts.
+     *
+     * @param index the 0-based task position
+     * @return the byte offset
+     */
+    public long getStart(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return starts[index];
+    }
+
+    /**
+     * Forgets every line from the given position on, e.g. before the tail of the file is rewritten.
+     *
+     * @param size the number of lines to keep
+     */
+    public void truncate(int size) {
+        this.size = Math.min(this.size, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the length of the file, which is where the next task's line is appended.
+     *
+     * @return the file length in bytes
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Checks whether the file ends with a line break, so an appended line starts on a line of its own.
+     *
+     * @return true if the file is empty or its last byte is a line break
+     */
+    public boolean isTerminated() {
+        return isTerminated;
+    }
+
+    public void setEnd(long end, boolean isTerminated) {
+        this.end = end;
+        this.isTerminated = isTerminated;
+    }
+
+    /**
+     * Counts the bytes a range of characters takes up when encoded, without encoding it.
+     * Matches {@link String#getBytes(Charset)}, which replaces unencodable characters with one byte.
+     *
+     * @param text the characters to measure
+     * @param from the index of the first character
+     * @param to the index just past the last character
+     * @param charset an ASCII-compatible charset
+     * @return the encoded length in bytes
+     */
+    static int byteLength(CharSequence text, int from, int to, Charset charset) {
+        if (!charset.equals(StandardCharsets.UTF_8)) {
+            return to - from;
+        }
+
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,91 @@
+package ben.storage;
+
+import ben.BenException;
+import ben.task.Task;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persists task list changes asynchronously on a single background thread.
+ * Mutations only mark the list dirty; every interval the flusher writes all pending changes at once,
+ * so a burst of mutations costs one write instead of one per mutation.
+ */
+public class WriteBehindFlusher {
+    private final FileStorage storage;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean isDirty = new AtomicBoolean(false);
+    private volatile List<Task> liveTasks;
+
+    /**
+     * Creates a flusher that writes pending changes through the given storage every interval.
+     *
+     * @param storage the storage that performs the actual writes
+     * @param intervalMillis the delay between flushes in milliseconds
+     */
+    public WriteBehindFlusher(FileStorage storage, long intervalMillis) {
+        this.storage = storage;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ben-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records that the given list has changes that are not yet on disk.
+     *
+     * @param tasks the live task list to write on the next flush
+     */
+    public void markDirty(List<Task> tasks) {
+        this.liveTasks = tasks;
+        isDirty.set(true);
+    }
+
+    /**
+     * Writes all pending changes on the calling thread and returns once they are on disk.
+     * Acts as a durability barrier: every mutation recorded before the call is persisted after it.
+     *
+     * @throws BenException if the pending changes cannot be written
+     */
+    public synchronized void flush() throws BenException {
+        if (!isDirty.getAndSet(false)) {
+            return;
+        }
+
+        try {
+            storage.writePending(liveTasks);
+        } catch (BenException e) {
+            isDirty.set(true);
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (BenException e) {
+            // The list stays dirty, so the next interval retries the write
+            System.err.println("Warning: Background save failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the background thread and writes any remaining changes.
+     *
+     * @throws BenException if the remaining changes cannot be written
+     */
+    public void close() throws BenException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
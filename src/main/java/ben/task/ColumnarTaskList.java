@@ -0,0 +1,225 @@
+package ben.task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Task list that keeps every field in primitive arrays instead of one object graph per task: a byte per
+ * type, a bit per done flag, an epoch day per deadline, epoch minutes per event start and end, and each
+ * description as UTF-8 in one shared byte arena. {@link #get(int)} builds a short-lived view of a task on
+ * demand; marking a view writes through to the arrays.
+ *
+ * <p>Tasks are stored in slots that are handed out in list order and never reused, so a view stays
+ * valid while other tasks are added and deleted, and slot numbers double as sequence numbers.
+ * A separate array maps list positions to slots. The space of deleted tasks is reclaimed when the list
+ * is next loaded.
+ */
+public class ColumnarTaskList extends AbstractList<Task> implements RandomAccess, TaskRecords {
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+
+    private int[] order;
+    private int size;
+
+    private byte[] types;
+    private long[] done;
+    private int[] days;
+    private long[] starts;
+    private long[] ends;
+    private int[] descriptionStarts;
+    private byte[] arena;
+    private int slotCount;
+    private int arenaSize;
+
+    /**
+     * Constructs an empty list.
+     */
+    public ColumnarTaskList() {
+        this(16);
+    }
+
+    /**
+     * Constructs a list holding the given tasks in order. The tasks themselves are not kept.
+     *
+     * @param tasks the tasks to copy
+     */
+    public ColumnarTaskList(Collection<? extends Task> tasks) {
+        this(Math.max(16, tasks.size()));
+        for (Task task : tasks) {
+            add(task);
+        }
+        arena = Arrays.copyOf(arena, arenaSize);
+    }
+
+    private ColumnarTaskList(int capacity) {
+        order = new int[capacity];
+        types = new byte[capacity];
+        done = new long[(capacity + 63) >>> 6];
+        days = new int[capacity];
+        starts = new long[capacity];
+        ends = new long[capacity];
+        descriptionStarts = new int[capacity + 1];
+        arena = new byte[capacity * 16];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        return view(order[index]);
+    }
+
+    /**
+     * Stores the task's fields in a new slot at the end of the list. Slots must stay in list order,
+     * so tasks can only be appended.
+     */
+    @Override
+    public void add(int index, Task task) {
+        if (index != size) {
+            throw new UnsupportedOperationException("Tasks can only be appended to a columnar task list");
+        }
+        int slot = newSlot(task);
+        if (size == order.length) {
+            order = Arrays.copyOf(order, grow(size));
+        }
+        order[size++] = slot;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Objects.checkIndex(index, size);
+        Task removed = view(order[index]);
+        System.arraycopy(order, index + 1, order, index, size - index - 1);
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the given positions in one pass over the list.
+     *
+     * @param numbers the 1-based positions to remove, ascending and without repeats
+     */
+    public void removeAt(int[] numbers) {
+        int kept = 0;
+        int next = 0;
+        for (int position = 0; position < size; position++) {
+            if (next < numbers.length && numbers[next] == position + 1) {
+                next++;
+            } else {
+                order[kept++] = order[position];
+            }
+        }
+        size = kept;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public void replaceRecords(List<Task> tasks) {
+        clear();
+        addAll(tasks);
+    }
+
+    private int newSlot(Task task) {
+        if (slotCount == types.length) {
+            int capacity = grow(slotCount);
+            types = Arrays.copyOf(types, capacity);
+            done = Arrays.copyOf(done, (capacity + 63) >>> 6);
+            days = Arrays.copyOf(days, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            descriptionStarts = Arrays.copyOf(descriptionStarts, capacity + 1);
+        }
+
+        int slot = slotCount++;
+        if (task instanceof Deadline) {
+            types[slot] = DEADLINE;
+            days[slot] = (int) ((Deadline) task).getDeadline().toEpochDay();
+        } else if (task instanceof Event) {
+            types[slot] = EVENT;
+            starts[slot] = toEpochMinute(((Event) task).getStartTime());
+            ends[slot] = toEpochMinute(((Event) task).getEndTime());
+        } else {
+            types[slot] = TODO;
+        }
+        setDone(slot, task.isComplete());
+
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (arenaSize + description.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(grow(arena.length), arenaSize + description.length));
+        }
+        System.arraycopy(description, 0, arena, arenaSize, description.length);
+        arenaSize += description.length;
+        descriptionStarts[slot + 1] = arenaSize;
+        return slot;
+    }
+
+    private static int grow(int capacity) {
+        return Math.max(16, capacity + (capacity >> 1));
+    }
+
+    private Task view(int slot) {
+        int start = descriptionStarts[slot];
+        String description = new String(arena, start, descriptionStarts[slot + 1] - start, StandardCharsets.UTF_8);
+        int id = slot + 1;
+        switch (types[slot]) {
+        case DEADLINE:
+            return viewDeadline(id, description, LocalDate.ofEpochDay(days[slot]), isDone(slot));
+        case EVENT:
+            return viewEvent(id, description, fromEpochMinute(starts[slot]), fromEpochMinute(ends[slot]),
+                    isDone(slot));
+        default:
+            return viewToDo(id, description, isDone(slot));
+        }
+    }
+
+    @Override
+    public boolean isComplete(int id, boolean ifMissing) {
+        return isDone(id - 1);
+    }
+
+    @Override
+    public void setComplete(int id, boolean isComplete) {
+        setDone(id - 1, isComplete);
+    }
+
+    private boolean isDone(int slot) {
+        return (done[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void setDone(int slot, boolean isDone) {
+        if (isDone) {
+            done[slot >>> 6] |= 1L << slot;
+        } else {
+            done[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
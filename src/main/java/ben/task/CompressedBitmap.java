@@ -0,0 +1,386 @@
+package ben.task;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative integers in the style of a Roaring bitmap.
+ * Values are split by their upper 16 bits into chunks of 65,536. A chunk holding few values keeps them
+ * as a sorted array; once it holds more than {@value #ARRAY_LIMIT} it switches to a plain bitmap of
+ * 8 KB, which is then the smaller of the two. The number of values is tracked as they are added and
+ * removed, so counting is constant time.
+ */
+public class CompressedBitmap {
+    /** Largest number of values a chunk keeps as a sorted array. */
+    static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private char[] keys = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int chunkCount;
+    private int cardinality;
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value the value to add, not negative
+     * @return true if the value was not in the set before
+     */
+    public boolean add(int value) {
+        assert value >= 0 : "Bitmap values should not be negative";
+
+        char key = (char) (value >>> 16);
+        int position = findChunk(key);
+        if (position < 0) {
+            position = -position - 1;
+            insertChunk(position, key, new ArrayChunk());
+        }
+        Chunk chunk = chunks[position];
+        int before = chunk.cardinality();
+        chunks[position] = chunk.add((char) value);
+        if (chunks[position].cardinality() == before) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Removes a value from the set.
+     *
+     * @param value the value to remove
+     * @return true if the value was in the set
+     */
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int position = findChunk((char) (value >>> 16));
+        if (position < 0) {
+            return false;
+        }
+        Chunk chunk = chunks[position];
+        int before = chunk.cardinality();
+        chunk = chunk.remove((char) value);
+        if (chunk.cardinality() == before) {
+            return false;
+        }
+        cardinality--;
+        if (chunk.cardinality() == 0) {
+            removeChunk(position);
+        } else {
+            chunks[position] = chunk;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a value is in the set.
+     *
+     * @param value the value to look for
+     * @return true if the value is in the set
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int position = findChunk((char) (value >>> 16));
+        return position >= 0 && chunks[position].contains((char) value);
+    }
+
+    /**
+     * Gets the number of values in the set.
+     *
+     * @return the number of values
+     */
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Counts the values in both this set and the other without building the intersection.
+     *
+     * @param other the set to intersect with
+     * @return the number of common values
+     */
+    public int andCardinality(CompressedBitmap other) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += chunks[i++].andCardinality(other.chunks[j++]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Builds the set of values in both this set and the other.
+     *
+     * @param other the set to intersect with
+     * @return a new set holding the common values
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Chunk common = chunks[i++].and(other.chunks[j++]);
+                if (common.cardinality() > 0) {
+                    result.insertChunk(result.chunkCount, keys[i - 1], common);
+                    result.cardinality += common.cardinality();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Passes every value in the set to the action, in increasing order.
+     *
+     * @param action the action to run for each value
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    private int findChunk(char key) {
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private void insertChunk(int position, char key, Chunk chunk) {
+        if (chunkCount == keys.length) {
+            keys = Arrays.copyOf(keys, chunkCount * 2);
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, chunkCount - position);
+        System.arraycopy(chunks, position, chunks, position + 1, chunkCount - position);
+        keys[position] = key;
+        chunks[position] = chunk;
+        chunkCount++;
+    }
+
+    private void removeChunk(int position) {
+        System.arraycopy(keys, position + 1, keys, position, chunkCount - position - 1);
+        System.arraycopy(chunks, position + 1, chunks, position, chunkCount - position - 1);
+        chunks[--chunkCount] = null;
+    }
+
+    /**
+     * The values of one 65,536-wide chunk, identified by their lower 16 bits.
+     * Adding and removing may return a different chunk when the representation changes.
+     */
+    private abstract static class Chunk {
+        abstract int cardinality();
+
+        abstract Chunk add(char value);
+
+        abstract Chunk remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int andCardinality(Chunk other);
+
+        abstract Chunk and(Chunk other);
+
+        abstract void forEach(int high, IntConsumer action);
+    }
+
+    /**
+     * A sparse chunk kept as a sorted array of values.
+     */
+    private static class ArrayChunk extends Chunk {
+        private char[] values;
+        private int size;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        Chunk add(char value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            position = -position - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_LIMIT));
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(char value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position >= 0) {
+                System.arraycopy(values, position + 1, values, position, size - position - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            char[] common = new char[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    common[count++] = values[i];
+                }
+            }
+            return new ArrayChunk(common, count);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        private BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * A dense chunk kept as one bit per possible value.
+     */
+    private static class BitmapChunk extends Chunk {
+        private final long[] words = new long[BITMAP_WORDS];
+        private int size;
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        Chunk add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                size++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                size--;
+                if (size == ARRAY_LIMIT) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            if (!(other instanceof BitmapChunk)) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapChunk) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            if (!(other instanceof BitmapChunk)) {
+                return other.and(this);
+            }
+            BitmapChunk common = new BitmapChunk();
+            long[] otherWords = ((BitmapChunk) other).words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                common.words[i] = words[i] & otherWords[i];
+                common.size += Long.bitCount(common.words[i]);
+            }
+            return common.size > ARRAY_LIMIT ? common : common.toArray();
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private ArrayChunk toArray() {
+            char[] values = new char[size];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayChunk(values, count);
+        }
+    }
+}
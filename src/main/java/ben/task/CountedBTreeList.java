@@ -0,0 +1,379 @@
+package ben.task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * List backed by a counted B-tree: leaves hold runs of up to {@value #MAX_LEAF} elements and every inner
+ * node records how many elements each child holds. Finding, inserting or removing by position descends
+ * one path using those counts, so all three cost O(log N) instead of shifting every later element as
+ * {@link java.util.ArrayList} does. Iterating walks the leaves in order.
+ *
+ * @param <E> the type of elements in the list
+ */
+public class CountedBTreeList<E> extends AbstractList<E> {
+    private static final int MAX_LEAF = 128;
+    private static final int MAX_CHILDREN = 64;
+
+    private Node root = new Leaf();
+
+    /**
+     * Constructs an empty list.
+     */
+    public CountedBTreeList() {
+    }
+
+    /**
+     * Constructs a list holding the given elements in order.
+     *
+     * @param elements the elements to copy
+     */
+    public CountedBTreeList(Collection<? extends E> elements) {
+        addAll(elements);
+    }
+
+    @Override
+    public int size() {
+        return root.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size());
+        Node node = root;
+        while (node instanceof Inner) {
+            Node[] children = ((Inner) node).children;
+            int child = 0;
+            while (index >= children[child].size) {
+                index -= children[child++].size;
+            }
+            node = children[child];
+        }
+        return (E) ((Leaf) node).elements[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size());
+        Node node = root;
+        while (node instanceof Inner) {
+            Node[] children = ((Inner) node).children;
+            int child = 0;
+            while (index >= children[child].size) {
+                index -= children[child++].size;
+            }
+            node = children[child];
+        }
+        Object[] elements = ((Leaf) node).elements;
+        E previous = (E) elements[index];
+        elements[index] = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node sibling = root.insert(index, element);
+        if (sibling != null) {
+            // The root split, so the tree grows one level
+            Inner newRoot = new Inner();
+            newRoot.append(root);
+            newRoot.append(sibling);
+            root = newRoot;
+        }
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        Objects.checkIndex(index, size());
+        E removed = (E) root.remove(index);
+        if (root.size == 0) {
+            root = new Leaf();
+        } else if (root instanceof Inner && ((Inner) root).childCount == 1) {
+            root = ((Inner) root).children[0];
+        }
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        root = new Leaf();
+        modCount++;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new LeafIterator(0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return new LeafIterator(index);
+    }
+
+    /**
+     * Iterator that remembers the leaf it is in, so stepping through a leaf does not descend the tree.
+     */
+    private class LeafIterator implements ListIterator<E> {
+        private int nextIndex;
+        private int lastIndex = -1;
+        private Leaf leaf;
+        private int leafStart;
+        private int expectedModCount = modCount;
+
+        LeafIterator(int index) {
+            nextIndex = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size();
+        }
+
+        @Override
+        public E next() {
+            if (nextIndex >= size()) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = nextIndex++;
+            return elementAt(lastIndex);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        public E previous() {
+            if (nextIndex <= 0) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = --nextIndex;
+            return elementAt(lastIndex);
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            CountedBTreeList.this.remove(lastIndex);
+            nextIndex = lastIndex;
+            afterModification();
+        }
+
+        @Override
+        public void set(E element) {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            CountedBTreeList.this.set(lastIndex, element);
+        }
+
+        @Override
+        public void add(E element) {
+            checkForComodification();
+            CountedBTreeList.this.add(nextIndex++, element);
+            afterModification();
+        }
+
+        @SuppressWarnings("unchecked")
+        private E elementAt(int index) {
+            checkForComodification();
+            if (leaf == null || index < leafStart || index >= leafStart + leaf.size) {
+                findLeaf(index);
+            }
+            return (E) leaf.elements[index - leafStart];
+        }
+
+        private void findLeaf(int index) {
+            Node node = root;
+            leafStart = 0;
+            while (node instanceof Inner) {
+                Node[] children = ((Inner) node).children;
+                int child = 0;
+                while (index - leafStart >= children[child].size) {
+                    leafStart += children[child++].size;
+                }
+                node = children[child];
+            }
+            leaf = (Leaf) node;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        private void afterModification() {
+            lastIndex = -1;
+            leaf = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * A node of the tree, which knows how many elements lie below it.
+     */
+    private abstract static class Node {
+        int size;
+
+        /**
+         * Inserts an element at a position within this node.
+         *
+         * @return the new right half if this node had to split, otherwise null
+         */
+        abstract Node insert(int index, Object element);
+
+        abstract Object remove(int index);
+    }
+
+    private static class Leaf extends Node {
+        private Object[] elements = new Object[8];
+
+        @Override
+        Node insert(int index, Object element) {
+            if (size == elements.length && size < MAX_LEAF) {
+                elements = Arrays.copyOf(elements, Math.min(size * 2, MAX_LEAF));
+            }
+            if (size < MAX_LEAF) {
+                System.arraycopy(elements, index, elements, index + 1, size - index);
+                elements[index] = element;
+                size++;
+                return null;
+            }
+
+            // Full: move the upper half to a new leaf, then insert into whichever half covers the index.
+            // Appending starts an empty leaf instead, so a list built by appending keeps its leaves full.
+            Leaf right = new Leaf();
+            if (index == size) {
+                right.insert(0, element);
+                return right;
+            }
+            int half = size / 2;
+            right.elements = new Object[MAX_LEAF];
+            System.arraycopy(elements, half, right.elements, 0, size - half);
+            Arrays.fill(elements, half, size, null);
+            right.size = size - half;
+            size = half;
+            if (index <= half) {
+                insert(index, element);
+            } else {
+                right.insert(index - half, element);
+            }
+            return right;
+        }
+
+        @Override
+        Object remove(int index) {
+            Object removed = elements[index];
+            System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+            elements[--size] = null;
+            return removed;
+        }
+    }
+
+    private static class Inner extends Node {
+        private Node[] children = new Node[MAX_CHILDREN];
+        private int childCount;
+
+        void append(Node child) {
+            children[childCount++] = child;
+            size += child.size;
+        }
+
+        @Override
+        Node insert(int index, Object element) {
+            // Positions equal to a child's size append to it, so appending to the list always reaches a leaf
+            int child = 0;
+            while (child < childCount - 1 && index > children[child].size) {
+                index -= children[child++].size;
+            }
+            Node sibling = children[child].insert(index, element);
+            size++;
+            if (sibling == null) {
+                return null;
+            }
+
+            System.arraycopy(children, child + 1, children, child + 2, childCount - child - 1);
+            children[child + 1] = sibling;
+            childCount++;
+            if (childCount < MAX_CHILDREN) {
+                return null;
+            }
+
+            Inner right = new Inner();
+            int half = childCount / 2;
+            for (int i = half; i < childCount; i++) {
+                right.append(children[i]);
+                children[i] = null;
+            }
+            childCount = half;
+            size -= right.size;
+            return right;
+        }
+
+        @Override
+        Object remove(int index) {
+            int child = 0;
+            while (index >= children[child].size) {
+                index -= children[child++].size;
+            }
+            Object removed = children[child].remove(index);
+            size--;
+            if (children[child].size == 0) {
+                System.arraycopy(children, child + 1, children, child, childCount - child - 1);
+                children[--childCount] = null;
+            } else if (child + 1 < childCount && children[child].size + children[child + 1].size <= MAX_LEAF
+                    && children[child] instanceof Leaf) {
+                mergeLeaves(child);
+            }
+            return removed;
+        }
+
+        /**
+         * Folds the next leaf into this one, so deletes do not leave a trail of nearly empty leaves.
+         */
+        private void mergeLeaves(int child) {
+            Leaf left = (Leaf) children[child];
+            Leaf right = (Leaf) children[child + 1];
+            if (left.elements.length < left.size + right.size) {
+                left.elements = Arrays.copyOf(left.elements, MAX_LEAF);
+            }
+            System.arraycopy(right.elements, 0, left.elements, left.size, right.size);
+            left.size += right.size;
+            System.arraycopy(children, child + 2, children, child + 1, childCount - child - 2);
+            children[--childCount] = null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package ben.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Sorted index of deadlines and events by day, so date queries do not scan the whole task list.
+ * Deadlines are keyed by their due day and events by the day they start. Events that start before a
+ * queried range but run into it are found by also looking back as far as the longest event lasts.
+ * Within a day, tasks keep the order they were added in, which is their order in the task list.
+ */
+public class DateIndex {
+    private final NavigableMap<Long, List<Task>> deadlinesByDay = new TreeMap<>();
+    private final NavigableMap<Long, List<Task>> eventsByStartDay = new TreeMap<>();
+    private long maxEventDays;
+
+    /**
+     * Adds a task to the index. Tasks without a date are ignored.
+     *
+     * @param task the task to add
+     */
+    public void add(Task task) {
+        if (task instanceof Deadline) {
+            long day = ((Deadline) task).getDeadline().toEpochDay();
+            deadlinesByDay.computeIfAbsent(day, key -> new ArrayList<>(1)).add(task);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            long startDay = event.getStartTime().toLocalDate().toEpochDay();
+            long endDay = event.getEndTime().toLocalDate().toEpochDay();
+            eventsByStartDay.computeIfAbsent(startDay, key -> new ArrayList<>(1)).add(task);
+            maxEventDays = Math.max(maxEventDays, endDay - startDay);
+        }
+    }
+
+    /**
+     * Removes a task from the index. Tasks are matched by equality, which for tasks is identity unless they
+     * are views of a columnar list, so copies are left alone.
+     *
+     * @param task the task to remove
+     */
+    public void remove(Task task) {
+        if (task instanceof Deadline) {
+            removeFrom(deadlinesByDay, ((Deadline) task).getDeadline().toEpochDay(), task);
+        } else if (task instanceof Event) {
+            removeFrom(eventsByStartDay, ((Event) task).getStartTime().toLocalDate().toEpochDay(), task);
+        }
+    }
+
+    /**
+     * Replaces a task with a new version of it that has the same dates, keeping its place within its day.
+     *
+     * @param oldVersion the task in the index
+     * @param newVersion the task to put in its place
+     */
+    public void replace(Task oldVersion, Task newVersion) {
+        List<Task> tasks = null;
+        if (oldVersion instanceof Deadline) {
+            tasks = deadlinesByDay.get(((Deadline) oldVersion).getDeadline().toEpochDay());
+        } else if (oldVersion instanceof Event) {
+            tasks = eventsByStartDay.get(((Event) oldVersion).getStartTime().toLocalDate().toEpochDay());
+        }
+        if (tasks == null) {
+            return;
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).equals(oldVersion)) {
+                tasks.set(i, newVersion);
+                return;
+            }
+        }
+    }
+
+    private static void removeFrom(NavigableMap<Long, List<Task>> index, long day, Task task) {
+        List<Task> tasks = index.get(day);
+        if (tasks == null) {
+            return;
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).equals(task)) {
+                tasks.remove(i);
+                break;
+            }
+        }
+        if (tasks.isEmpty()) {
+            index.remove(day);
+        }
+    }
+
+    /**
+     * Gets the deadlines due and the events taking place on any day in the given range, earliest first.
+     *
+     * @param from the first day of the range
+     * @param to the last day of the range, inclusive
+     * @return the matching tasks, ordered by due day or start day
+     */
+    public List<Task> getTasksBetween(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        List<Task> tasks = new ArrayList<>();
+        if (fromDay > toDay) {
+            return tasks;
+        }
+
+        NavigableMap<Long, List<Task>> deadlines = deadlinesByDay.subMap(fromDay, true, toDay, true);
+        NavigableMap<Long, List<Task>> events = eventsByStartDay.subMap(fromDay - maxEventDays, true, toDay, true);
+        List<Task> overlappingEvents = new ArrayList<>();
+        for (List<Task> dayEvents : events.values()) {
+            for (Task task : dayEvents) {
+                if (((Event) task).getEndTime().toLocalDate().toEpochDay() >= fromDay) {
+                    overlappingEvents.add(task);
+                }
+            }
+        }
+
+        // Merge the two day-ordered sequences, putting a day's deadlines before events starting that day
+        int eventIndex = 0;
+        for (Map.Entry<Long, List<Task>> entry : deadlines.entrySet()) {
+            while (eventIndex < overlappingEvents.size()
+                    && getStartDay(overlappingEvents.get(eventIndex)) < entry.getKey()) {
+                tasks.add(overlappingEvents.get(eventIndex++));
+            }
+            tasks.addAll(entry.getValue());
+        }
+        tasks.addAll(overlappingEvents.subList(eventIndex, overlappingEvents.size()));
+        return tasks;
+    }
+
+    /**
+     * Gets the incomplete deadlines that were due before the given day, earliest first.
+     *
+     * @param today the current day
+     * @return the overdue deadlines
+     */
+    public List<Task> getOverdueTasks(LocalDate today) {
+        List<Task> tasks = new ArrayList<>();
+        for (List<Task> dayTasks : deadlinesByDay.headMap(today.toEpochDay(), false).values()) {
+            for (Task task : dayTasks) {
+                if (!task.isComplete()) {
+                    tasks.add(task);
+                }
+            }
+        }
+        return tasks;
+    }
+
+    private static long getStartDay(Task event) {
+        return ((Event) event).getStartTime().toLocalDate().toEpochDay();
+    }
+}
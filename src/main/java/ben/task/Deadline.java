@@ -64,6 +64,11 @@ public class Deadline extends Task {
         return deadline.format(OUTPUT_FORMAT);
     }
 
+    @Override
+    protected Task copy() {
+        return new Deadline(getDescription(), deadline);
+    }
+
     @Override
     public String getType() {
         return "D";
@@ -0,0 +1,239 @@
+package ben.task;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared table of task descriptions, so tasks with the same description hold one string between them.
+ * Recurring tasks and repeated loads produce many identical descriptions, and each copy would otherwise
+ * keep its own string and character array alive.
+ *
+ * <p>The table holds descriptions only weakly: once no task uses a description any more, it is dropped
+ * from the table at the next lookup. Lookups from several threads may run at once.
+ * Descriptions are kept as Java strings, which already store text made only of Latin-1 characters with
+ * one byte per character; the statistics report how much that saves over two bytes per character.
+ */
+public class DescriptionPool {
+    /** Size of a string object without its character array, with compressed references. */
+    private static final int STRING_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final ConcurrentHashMap<Object, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<String> CLEARED = new ReferenceQueue<>();
+    private static final AtomicLong LOOKUPS = new AtomicLong();
+    private static final AtomicLong SHARED = new AtomicLong();
+    private static final AtomicLong SAVED_BYTES = new AtomicLong();
+
+    private DescriptionPool() {
+    }
+
+    /**
+     * Gets the pooled string equal to the given description, adding the description if there is none.
+     *
+     * @param description the description to look up
+     * @return an equal string that other tasks may share
+     */
+    public static String intern(String description) {
+        expungeClearedEntries();
+        LOOKUPS.incrementAndGet();
+
+        Entry entry = ENTRIES.get(new Lookup(description));
+        String pooled = entry == null ? null : entry.get();
+        if (pooled != null) {
+            return share(pooled, description);
+        }
+
+        Entry created = new Entry(description);
+        while (true) {
+            Entry existing = ENTRIES.putIfAbsent(created, created);
+            if (existing == null) {
+                return description;
+            }
+            pooled = existing.get();
+            if (pooled != null) {
+                // Another thread added it first
+                return share(pooled, description);
+            }
+            // Cleared but not yet expunged
+            ENTRIES.remove(existing, existing);
+        }
+    }
+
+    private static String share(String pooled, String description) {
+        if (pooled != description) {
+            SHARED.incrementAndGet();
+            SAVED_BYTES.addAndGet(getRetainedBytes(description));
+        }
+        return pooled;
+    }
+
+    private static void expungeClearedEntries() {
+        Object cleared;
+        while ((cleared = CLEARED.poll()) != null) {
+            ENTRIES.remove(cleared, cleared);
+        }
+    }
+
+    /**
+     * Gets the number of bytes a string keeps alive: the string itself and its character array, stored
+     * with one byte per character when every character is Latin-1 and two otherwise.
+     */
+    private static long getRetainedBytes(String text) {
+        return STRING_BYTES + align(ARRAY_HEADER_BYTES + (long) text.length() * (isLatin1(text) ? 1 : 2));
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static boolean isLatin1(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes a snapshot of how the pool is being used.
+     *
+     * @return the current statistics
+     */
+    public static Statistics getStatistics() {
+        expungeClearedEntries();
+        int distinct = 0;
+        int latin1 = 0;
+        long pooledBytes = 0;
+        long compactSavedBytes = 0;
+        for (Entry entry : ENTRIES.values()) {
+            String description = entry.get();
+            if (description == null) {
+                continue;
+            }
+            distinct++;
+            pooledBytes += getRetainedBytes(description);
+            if (isLatin1(description)) {
+                latin1++;
+                compactSavedBytes += align(ARRAY_HEADER_BYTES + 2L * description.length())
+                        - align(ARRAY_HEADER_BYTES + description.length());
+            }
+        }
+        return new Statistics(distinct, latin1, pooledBytes, LOOKUPS.get(), SHARED.get(), SAVED_BYTES.get(),
+                compactSavedBytes);
+    }
+
+    /**
+     * Usage figures for the description pool.
+     */
+    public static class Statistics {
+        private final int distinctCount;
+        private final int latin1Count;
+        private final long pooledBytes;
+        private final long lookupCount;
+        private final long sharedCount;
+        private final long sharedSavedBytes;
+        private final long compactSavedBytes;
+
+        Statistics(int distinctCount, int latin1Count, long pooledBytes, long lookupCount, long sharedCount,
+                long sharedSavedBytes, long compactSavedBytes) {
+            this.distinctCount = distinctCount;
+            this.latin1Count = latin1Count;
+            this.pooledBytes = pooledBytes;
+            this.lookupCount = lookupCount;
+            this.sharedCount = sharedCount;
+            this.sharedSavedBytes = sharedSavedBytes;
+            this.compactSavedBytes = compactSavedBytes;
+        }
+
+        /** Gets the number of distinct descriptions still in use. */
+        public int getDistinctCount() {
+            return distinctCount;
+        }
+
+        /** Gets how many of those are stored with one byte per character. */
+        public int getLatin1Count() {
+            return latin1Count;
+        }
+
+        /** Gets the bytes the distinct descriptions take. */
+        public long getPooledBytes() {
+            return pooledBytes;
+        }
+
+        /** Gets the number of descriptions looked up since start-up. */
+        public long getLookupCount() {
+            return lookupCount;
+        }
+
+        /** Gets how many lookups found an equal description already pooled. */
+        public long getSharedCount() {
+            return sharedCount;
+        }
+
+        /** Gets the bytes of the duplicate strings that lookups replaced with pooled ones. */
+        public long getSharedSavedBytes() {
+            return sharedSavedBytes;
+        }
+
+        /** Gets the bytes one byte per character saves over two for the descriptions in use. */
+        public long getCompactSavedBytes() {
+            return compactSavedBytes;
+        }
+    }
+
+    /**
+     * A weakly held description, equal to any entry or lookup with the same text while it is alive.
+     */
+    private static class Entry extends WeakReference<String> {
+        private final int hash;
+
+        Entry(String description) {
+            super(description, CLEARED);
+            this.hash = description.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+            String description = get();
+            if (description == null) {
+                return false;
+            }
+            if (other instanceof Entry) {
+                return description.equals(((Entry) other).get());
+            }
+            return other instanceof Lookup && description.equals(((Lookup) other).description);
+        }
+    }
+
+    /**
+     * A description being looked up, which does not need a weak reference of its own.
+     */
+    private static class Lookup {
+        private final String description;
+
+        Lookup(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public int hashCode() {
+            return description.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry && description.equals(((Entry) other).get());
+        }
+    }
+}
@@ -52,6 +52,11 @@ public class Event extends Task {
         return endTime.format(OUTPUT_FORMAT);
     }
 
+    @Override
+    protected Task copy() {
+        return new Event(getDescription(), startTime, endTime);
+    }
+
     @Override
     public String getType() {
         return "E";
@@ -59,7 +64,7 @@ public class Event extends Task {
 
     @Override
     public String toString() {
-        String status = super.isComplete() ? "[X]" : "[ ]";
+        String status = isComplete() ? "[X]" : "[ ]";
         return "[" + getType() + "]" + status + " " + super.getDescription() +
                 " (startTime: " + getFromString() + " endTime: " + getToString() + ")";
     }
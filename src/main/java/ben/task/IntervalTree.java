@@ -0,0 +1,242 @@
+package ben.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Balanced search tree of events ordered by start time, where every node also records the latest end time
+ * in its subtree. A query skips every subtree that ends too early or starts too late, so finding the
+ * events that overlap a time window costs O(log N + k) for k results.
+ * Events are treated as half-open intervals: an event ending at 1500 does not overlap one starting at 1500.
+ */
+public class IntervalTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Adds an event to the tree.
+     *
+     * @param event the event to add
+     */
+    public void add(Event event) {
+        root = insert(root, event);
+        size++;
+    }
+
+    /**
+     * Builds a tree holding the given events. Sorting them first and splitting the sorted run in halves
+     * gives a balanced tree without the rotations of adding them one at a time.
+     *
+     * @param events the events to hold
+     * @return the new tree
+     */
+    public static IntervalTree of(List<Event> events) {
+        Event[] sorted = events.toArray(new Event[0]);
+        Arrays.sort(sorted, IntervalTree::compare);
+        IntervalTree tree = new IntervalTree();
+        tree.root = build(sorted, 0, sorted.length);
+        tree.size = sorted.length;
+        return tree;
+    }
+
+    private static Node build(Event[] sorted, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Node node = new Node(sorted[middle]);
+        node.left = build(sorted, from, middle);
+        node.right = build(sorted, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Removes an event from the tree. Events are matched by sequence number, so equal copies are left alone.
+     *
+     * @param event the event to remove
+     */
+    public void remove(Event event) {
+        root = delete(root, event);
+    }
+
+    /**
+     * Gets the number of events in the tree.
+     *
+     * @return the number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the events running at the given moment: started at or before it and not yet ended.
+     *
+     * @param moment the moment to look at
+     * @return the running events, earliest start first
+     */
+    public List<Event> getEventsAt(LocalDateTime moment) {
+        List<Event> events = new ArrayList<>();
+        collect(root, moment, moment, true, events);
+        return events;
+    }
+
+    /**
+     * Gets the events that overlap the window from {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @param from the start of the window
+     * @param to the end of the window
+     * @return the overlapping events, earliest start first
+     */
+    public List<Event> getEventsBetween(LocalDateTime from, LocalDateTime to) {
+        List<Event> events = new ArrayList<>();
+        collect(root, from, to, false, events);
+        return events;
+    }
+
+    /**
+     * Adds the events of a subtree that end after {@code from} and start before {@code to}, or at
+     * {@code to} too when {@code includeTo} is set, in start order.
+     */
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, boolean includeTo,
+            List<Event> events) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            // Nothing in this subtree is still running at the start of the window
+            return;
+        }
+        collect(node.left, from, to, includeTo, events);
+        LocalDateTime start = node.event.getStartTime();
+        boolean startsInTime = includeTo ? !start.isAfter(to) : start.isBefore(to);
+        if (!startsInTime) {
+            // The right subtree starts even later
+            return;
+        }
+        if (node.event.getEndTime().isAfter(from)) {
+            events.add(node.event);
+        }
+        collect(node.right, from, to, includeTo, events);
+    }
+
+    private static int compare(Event a, Event b) {
+        int byStart = a.getStartTime().compareTo(b.getStartTime());
+        return byStart != 0 ? byStart : Integer.compare(a.getId(), b.getId());
+    }
+
+    private Node insert(Node node, Event event) {
+        if (node == null) {
+            return new Node(event);
+        }
+        if (compare(event, node.event) < 0) {
+            node.left = insert(node.left, event);
+        } else {
+            node.right = insert(node.right, event);
+        }
+        return rebalance(node);
+    }
+
+    private Node delete(Node node, Event event) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(event, node.event);
+        if (comparison < 0) {
+            node.left = delete(node.left, event);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, event);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = deleteFirst(node.right);
+            successor.left = node.left;
+            successor.right = node.right;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private static Node deleteFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteFirst(node.left);
+        return rebalance(node);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.maxEnd = node.event.getEndTime();
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    /**
+     * One event, with the height and latest end time of the subtree below it.
+     */
+    private static class Node {
+        private final Event event;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private LocalDateTime maxEnd;
+
+        Node(Event event) {
+            this.event = event;
+            this.maxEnd = event.getEndTime();
+        }
+    }
+}
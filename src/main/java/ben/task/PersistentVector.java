@@ -0,0 +1,367 @@
+package ben.task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * List whose versions share structure: it is a counted tree like {@link CountedBTreeList}, but nodes are
+ * never changed once built. Adding, removing or replacing an element copies only the path from the root to
+ * its leaf, O(log N) small arrays, and then publishes the new root. Taking a {@link #snapshot()} just
+ * keeps the current root, so it costs O(1), and the snapshot never changes however the list is changed later.
+ *
+ * @param <E> the type of elements in the list
+ */
+public class PersistentVector<E> extends AbstractList<E> {
+    private static final int MAX_LEAF = 32;
+    private static final int MAX_CHILDREN = 32;
+    private static final Leaf EMPTY = new Leaf(new Object[0]);
+
+    private volatile Node root = EMPTY;
+
+    /**
+     * Constructs an empty list.
+     */
+    public PersistentVector() {
+    }
+
+    /**
+     * Constructs a list holding the given elements in order.
+     *
+     * @param elements the elements to copy
+     */
+    public PersistentVector(Collection<? extends E> elements) {
+        root = build(elements.toArray());
+    }
+
+    /**
+     * Gets a read-only view of the list as it is now, which later changes to the list do not affect.
+     * Reading the snapshot needs no lock, since nothing it refers to is ever changed.
+     *
+     * @return the frozen version of the list
+     */
+    public List<E> snapshot() {
+        return new Snapshot<>(root);
+    }
+
+    @Override
+    public int size() {
+        return root.size;
+    }
+
+    @Override
+    public E get(int index) {
+        return elementAt(root, index);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        Node current = root;
+        E previous = elementAt(current, index);
+        root = current.set(index, element);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        Node current = root;
+        if (index < 0 || index > current.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current.size);
+        }
+        Node[] halves = current.insert(index, element);
+        // The root split, so the tree grows one level
+        root = halves.length == 1 ? halves[0] : new Inner(halves);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        Node current = root;
+        E removed = elementAt(current, index);
+        Node next = current.remove(index);
+        if (next.size == 0) {
+            next = EMPTY;
+        } else if (next instanceof Inner && ((Inner) next).children.length == 1) {
+            next = ((Inner) next).children[0];
+        }
+        root = next;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        root = EMPTY;
+        modCount++;
+    }
+
+    /**
+     * Iterates over the version of the list current when iteration starts, so it never fails on a
+     * concurrent change. Removing through the iterator is not supported.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new VersionIterator<>(root);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E elementAt(Node root, int index) {
+        Objects.checkIndex(index, root.size);
+        Node node = root;
+        while (node instanceof Inner) {
+            Node[] children = ((Inner) node).children;
+            int child = 0;
+            while (index >= children[child].size) {
+                index -= children[child++].size;
+            }
+            node = children[child];
+        }
+        return (E) ((Leaf) node).elements[index];
+    }
+
+    /**
+     * Builds full leaves and full inner nodes bottom up, so a loaded list is as shallow as it can be.
+     */
+    private static Node build(Object[] elements) {
+        if (elements.length == 0) {
+            return EMPTY;
+        }
+        Node[] level = new Node[(elements.length + MAX_LEAF - 1) / MAX_LEAF];
+        for (int i = 0; i < level.length; i++) {
+            int from = i * MAX_LEAF;
+            level[i] = new Leaf(Arrays.copyOfRange(elements, from, Math.min(from + MAX_LEAF, elements.length)));
+        }
+        while (level.length > 1) {
+            Node[] parents = new Node[(level.length + MAX_CHILDREN - 1) / MAX_CHILDREN];
+            for (int i = 0; i < parents.length; i++) {
+                int from = i * MAX_CHILDREN;
+                parents[i] = new Inner(Arrays.copyOfRange(level, from, Math.min(from + MAX_CHILDREN, level.length)));
+            }
+            level = parents;
+        }
+        return level[0];
+    }
+
+    /**
+     * A frozen version of the list.
+     */
+    private static class Snapshot<E> extends AbstractList<E> {
+        private final Node root;
+
+        Snapshot(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public int size() {
+            return root.size;
+        }
+
+        @Override
+        public E get(int index) {
+            return elementAt(root, index);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new VersionIterator<>(root);
+        }
+    }
+
+    /**
+     * Iterator over one version that remembers the leaf it is in, so stepping through a leaf does not
+     * descend the tree.
+     */
+    private static class VersionIterator<E> implements Iterator<E> {
+        private final Node root;
+        private int nextIndex;
+        private Leaf leaf;
+        private int leafStart;
+
+        VersionIterator(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < root.size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (nextIndex >= root.size) {
+                throw new NoSuchElementException();
+            }
+            if (leaf == null || nextIndex >= leafStart + leaf.size) {
+                findLeaf(nextIndex);
+            }
+            return (E) leaf.elements[nextIndex++ - leafStart];
+        }
+
+        private void findLeaf(int index) {
+            Node node = root;
+            leafStart = 0;
+            while (node instanceof Inner) {
+                Node[] children = ((Inner) node).children;
+                int child = 0;
+                while (index - leafStart >= children[child].size) {
+                    leafStart += children[child++].size;
+                }
+                node = children[child];
+            }
+            leaf = (Leaf) node;
+        }
+    }
+
+    /**
+     * A node of the tree, which knows how many elements lie below it. Changes return new nodes.
+     */
+    private abstract static class Node {
+        final int size;
+
+        Node(int size) {
+            this.size = size;
+        }
+
+        abstract Node set(int index, Object element);
+
+        /**
+         * Inserts an element at a position within this node.
+         *
+         * @return the new node, or its two halves if it had to split
+         */
+        abstract Node[] insert(int index, Object element);
+
+        abstract Node remove(int index);
+    }
+
+    private static class Leaf extends Node {
+        private final Object[] elements;
+
+        Leaf(Object[] elements) {
+            super(elements.length);
+            this.elements = elements;
+        }
+
+        @Override
+        Node set(int index, Object element) {
+            Object[] copy = elements.clone();
+            copy[index] = element;
+            return new Leaf(copy);
+        }
+
+        @Override
+        Node[] insert(int index, Object element) {
+            if (size == MAX_LEAF && index == size) {
+                // Appending starts a new leaf and keeps this one as it is, shared with older versions
+                return new Node[] {this, new Leaf(new Object[] {element})};
+            }
+            Object[] grown = new Object[size + 1];
+            System.arraycopy(elements, 0, grown, 0, index);
+            grown[index] = element;
+            System.arraycopy(elements, index, grown, index + 1, size - index);
+            if (grown.length <= MAX_LEAF) {
+                return new Node[] {new Leaf(grown)};
+            }
+            int half = grown.length / 2;
+            return new Node[] {
+                new Leaf(Arrays.copyOfRange(grown, 0, half)),
+                new Leaf(Arrays.copyOfRange(grown, half, grown.length))
+            };
+        }
+
+        @Override
+        Node remove(int index) {
+            Object[] shrunk = new Object[size - 1];
+            System.arraycopy(elements, 0, shrunk, 0, index);
+            System.arraycopy(elements, index + 1, shrunk, index, size - index - 1);
+            return new Leaf(shrunk);
+        }
+    }
+
+    private static class Inner extends Node {
+        private final Node[] children;
+
+        Inner(Node[] children) {
+            super(sizeOf(children));
+            this.children = children;
+        }
+
+        private static int sizeOf(Node[] children) {
+            int size = 0;
+            for (Node child : children) {
+                size += child.size;
+            }
+            return size;
+        }
+
+        @Override
+        Node set(int index, Object element) {
+            int child = 0;
+            while (index >= children[child].size) {
+                index -= children[child++].size;
+            }
+            Node[] copy = children.clone();
+            copy[child] = children[child].set(index, element);
+            return new Inner(copy);
+        }
+
+        @Override
+        Node[] insert(int index, Object element) {
+            // Positions equal to a child's size append to it, so appending to the list always reaches a leaf
+            int child = 0;
+            while (child < children.length - 1 && index > children[child].size) {
+                index -= children[child++].size;
+            }
+            Node[] replacement = children[child].insert(index, element);
+            Node[] copy = new Node[children.length + replacement.length - 1];
+            System.arraycopy(children, 0, copy, 0, child);
+            System.arraycopy(replacement, 0, copy, child, replacement.length);
+            System.arraycopy(children, child + 1, copy, child + replacement.length, children.length - child - 1);
+            if (copy.length <= MAX_CHILDREN) {
+                return new Node[] {new Inner(copy)};
+            }
+            int half = copy.length / 2;
+            return new Node[] {
+                new Inner(Arrays.copyOfRange(copy, 0, half)),
+                new Inner(Arrays.copyOfRange(copy, half, copy.length))
+            };
+        }
+
+        @Override
+        Node remove(int index) {
+            int child = 0;
+            while (index >= children[child].size) {
+                index -= children[child++].size;
+            }
+            Node changed = children[child].remove(index);
+            if (changed.size == 0) {
+                Node[] copy = new Node[children.length - 1];
+                System.arraycopy(children, 0, copy, 0, child);
+                System.arraycopy(children, child + 1, copy, child, children.length - child - 1);
+                return new Inner(copy);
+            }
+            if (changed instanceof Leaf && child + 1 < children.length && children[child + 1] instanceof Leaf
+                    && changed.size + children[child + 1].size <= MAX_LEAF) {
+                // Fold the next leaf into this one, so deletes do not leave a trail of nearly empty leaves
+                Object[] left = ((Leaf) changed).elements;
+                Object[] right = ((Leaf) children[child + 1]).elements;
+                Object[] merged = Arrays.copyOf(left, left.length + right.length);
+                System.arraycopy(right, 0, merged, left.length, right.length);
+                Node[] copy = new Node[children.length - 1];
+                System.arraycopy(children, 0, copy, 0, child);
+                copy[child] = new Leaf(merged);
+                System.arraycopy(children, child + 2, copy, child + 1, children.length - child - 2);
+                return new Inner(copy);
+            }
+            Node[] copy = children.clone();
+            copy[child] = changed;
+            return new Inner(copy);
+        }
+    }
+}
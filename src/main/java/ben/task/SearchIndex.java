@@ -0,0 +1,246 @@
+package ben.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Inverted index from the words of task descriptions to the tasks using them, with term frequencies,
+ * for ranking tasks against a multi-word query with BM25.
+ * Words are runs of letters and digits, lowercased. Posting lists hold task sequence numbers in increasing
+ * order, so a query walks all of its lists side by side and scores one task at a time; only the best
+ * matches are kept, in a heap bounded by the number of results asked for.
+ * Deleted tasks stay in the posting lists until the index is rebuilt but no longer count or match.
+ */
+public class SearchIndex {
+    /** Term frequency saturation; higher values let repeated words count for longer. */
+    private static final double K1 = 1.2;
+    /** How strongly scores are normalised by description length, from 0 (not at all) to 1 (fully). */
+    private static final double B = 0.75;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final BitSet deletedIds = new BitSet();
+    private int[] lengthsById = new int[16];
+    private int liveCount;
+    private int deletedCount;
+    private long totalLength;
+
+    /**
+     * A task with its relevance to a query.
+     */
+    public static class Match {
+        private final int id;
+        private final double score;
+
+        Match(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Adds a task to the index. Tasks must be added in increasing order of sequence number.
+     *
+     * @param task the task to add
+     */
+    public void add(Task task) {
+        int id = task.getId();
+        List<String> words = tokenize(task.getDescription());
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String word : words) {
+            frequencies.merge(word, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            Postings list = postings.computeIfAbsent(entry.getKey(), key -> new Postings());
+            list.add(id, entry.getValue());
+        }
+
+        if (id >= lengthsById.length) {
+            lengthsById = Arrays.copyOf(lengthsById, Math.max(id + 1, lengthsById.length * 2));
+        }
+        lengthsById[id] = words.size();
+        totalLength += words.size();
+        liveCount++;
+    }
+
+    /**
+     * Records that a task was deleted, so it no longer matches or counts towards word statistics.
+     *
+     * @param task the deleted task
+     */
+    public void remove(Task task) {
+        int id = task.getId();
+        if (deletedIds.get(id)) {
+            return;
+        }
+        deletedIds.set(id);
+        for (String word : new HashSet<>(tokenize(task.getDescription()))) {
+            Postings list = postings.get(word);
+            if (list != null) {
+                list.liveCount--;
+            }
+        }
+        totalLength -= lengthsById[id];
+        liveCount--;
+        deletedCount++;
+    }
+
+    /**
+     * Checks whether deleted tasks take up more of the index than live ones, so it is worth rebuilding.
+     *
+     * @return true if the index should be rebuilt
+     */
+    public boolean needsRebuild() {
+        return deletedCount > liveCount;
+    }
+
+    /**
+     * Gets the tasks that best match the query, best first. A task matches if it contains any of the
+     * query's words; ties are broken in favour of the task that comes first in the list.
+     *
+     * @param query the words to look for
+     * @param limit the largest number of matches to return
+     * @return at most {@code limit} matches, ordered by decreasing score
+     */
+    public List<Match> search(String query, int limit) {
+        List<Match> matches = new ArrayList<>();
+        search(query, limit, matches::add);
+        return matches;
+    }
+
+    /**
+     * Hands the tasks that best match the query to {@code results} one at a time, best first, without
+     * collecting them into a list, so a caller can show each result as soon as it is handed over.
+     *
+     * @param query the words to look for
+     * @param limit the largest number of matches to hand over
+     * @param results receives at most {@code limit} matches, in order of decreasing score
+     */
+    public void search(String query, int limit, Consumer<Match> results) {
+        assert limit > 0 : "Search limit should be positive";
+
+        List<Postings> lists = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String word : new LinkedHashSet<>(tokenize(query))) {
+            Postings list = postings.get(word);
+            if (list != null && list.liveCount > 0) {
+                lists.add(list);
+                weights.add(getInverseDocumentFrequency(list.liveCount));
+            }
+        }
+        if (lists.isEmpty()) {
+            return;
+        }
+
+        // The weakest kept match sits on top, so a better one can replace it in O(log limit)
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, SearchIndex::compareWorstFirst);
+        double averageLength = (double) totalLength / liveCount;
+        int[] cursors = new int[lists.size()];
+        while (true) {
+            int id = Integer.MAX_VALUE;
+            for (int i = 0; i < lists.size(); i++) {
+                if (cursors[i] < lists.get(i).size) {
+                    id = Math.min(id, lists.get(i).ids[cursors[i]]);
+                }
+            }
+            if (id == Integer.MAX_VALUE) {
+                break;
+            }
+
+            double score = 0;
+            double lengthNorm = 1 - B + B * lengthsById[id] / averageLength;
+            for (int i = 0; i < lists.size(); i++) {
+                Postings list = lists.get(i);
+                if (cursors[i] < list.size && list.ids[cursors[i]] == id) {
+                    int frequency = list.frequencies[cursors[i]++];
+                    score += weights.get(i) * frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+                }
+            }
+            if (deletedIds.get(id)) {
+                continue;
+            }
+
+            Match match = new Match(id, score);
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (compareWorstFirst(match, best.peek()) > 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        Match[] matches = best.toArray(new Match[0]);
+        Arrays.sort(matches, (a, b) -> compareWorstFirst(b, a));
+        for (Match match : matches) {
+            results.accept(match);
+        }
+    }
+
+    private double getInverseDocumentFrequency(int documentFrequency) {
+        return Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * Orders matches from least to most relevant: lower scores first, then later tasks first.
+     */
+    private static int compareWorstFirst(Match a, Match b) {
+        int byScore = Double.compare(a.score, b.score);
+        return byScore != 0 ? byScore : Integer.compare(b.id, a.id);
+    }
+
+    /**
+     * Splits text into lowercased words made of letters and digits.
+     *
+     * @param text the text to split
+     * @return the words in order, including repeats
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Growable, increasing list of sequence numbers that use one word, with how often each uses it.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int liveCount;
+
+        void add(int id, int frequency) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ids[size] = id;
+            frequencies[size++] = frequency;
+            liveCount++;
+        }
+    }
+}
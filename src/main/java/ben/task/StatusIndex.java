@@ -0,0 +1,74 @@
+package ben.task;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compressed bitmaps of task sequence numbers by completion status and by task type, so counts are
+ * constant time and combinations such as "pending deadlines" are bitmap intersections instead of scans.
+ */
+public class StatusIndex {
+    private final CompressedBitmap completed = new CompressedBitmap();
+    private final CompressedBitmap pending = new CompressedBitmap();
+    private final Map<String, CompressedBitmap> byType = new HashMap<>();
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task the task to add
+     */
+    public void add(Task task) {
+        (task.isComplete() ? completed : pending).add(task.getId());
+        byType.computeIfAbsent(task.getType(), key -> new CompressedBitmap()).add(task.getId());
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the task to remove
+     */
+    public void remove(Task task) {
+        completed.remove(task.getId());
+        pending.remove(task.getId());
+        CompressedBitmap type = byType.get(task.getType());
+        if (type != null) {
+            type.remove(task.getId());
+        }
+    }
+
+    /**
+     * Moves a task to the completed or pending set.
+     *
+     * @param task the task whose status changed
+     * @param isComplete whether the task is now complete
+     */
+    public void setComplete(Task task, boolean isComplete) {
+        if (isComplete) {
+            pending.remove(task.getId());
+            completed.add(task.getId());
+        } else {
+            completed.remove(task.getId());
+            pending.add(task.getId());
+        }
+    }
+
+    /**
+     * Gets the sequence numbers of completed or pending tasks.
+     *
+     * @param isComplete true for completed tasks, false for pending ones
+     * @return the matching sequence numbers; must not be modified
+     */
+    public CompressedBitmap getByStatus(boolean isComplete) {
+        return isComplete ? completed : pending;
+    }
+
+    /**
+     * Gets the sequence numbers of tasks of one type.
+     *
+     * @param taskType the type identifier ("T", "D", "E")
+     * @return the matching sequence numbers; must not be modified
+     */
+    public CompressedBitmap getByType(String taskType) {
+        return byType.getOrDefault(taskType, new CompressedBitmap());
+    }
+}
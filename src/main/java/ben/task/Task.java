@@ -6,6 +6,7 @@ package ben.task;
 public abstract class Task {
     private String description;
     private boolean isComplete;
+    private int id;
 
     /**
      * Constructs a new task with the specified description.
@@ -53,6 +54,28 @@ public abstract class Task {
         assert this.isComplete != wasComplete || !wasComplete : "Completion status should change";
     }
 
+    /**
+     * Creates a new version of this task with the given completion status, leaving this one unchanged.
+     * The new version keeps this task's sequence number, so indexes that refer to tasks by number still
+     * find it.
+     *
+     * @param isComplete whether the new version is completed
+     * @return the new version of this task
+     */
+    public Task withCompletion(boolean isComplete) {
+        Task version = copy();
+        version.isComplete = isComplete;
+        version.id = getId();
+        return version;
+    }
+
+    /**
+     * Creates a task with the same details as this one, not yet completed.
+     *
+     * @return the new task
+     */
+    protected abstract Task copy();
+
     /**
      * Gets the description text of this task.
      *
@@ -62,6 +85,20 @@ public abstract class Task {
         return this.description;
     }
 
+    /**
+     * Gets the sequence number given to this task by its task list. Numbers grow in list order,
+     * so indexes can refer to tasks by number and still return them in list order.
+     *
+     * @return the sequence number, or 0 if the task has not been numbered yet
+     */
+    int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Gets the single-character type identifier for this task.
      * Each subclass provides its own implementation.
@@ -1,15 +1,24 @@
 package ben.task;
 
 import ben.BenException;
+import ben.storage.Mutation;
 import ben.storage.Storage;
 import ben.ui.UI;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -17,20 +26,77 @@ import java.util.stream.IntStream;
 /**
  * Manages a collection of tasks with operations for adding, removing,
  * marking, and searching tasks. Integrates with storage for data persistence.
+ * Safe for concurrent use: reads share a {@link StampedLock}, and simple reads such as {@link #getTask(int)}
+ * first try an optimistic read that takes no lock at all. Writes are serialized by locking the backing list,
+ * which also lets a write-behind flush copy it from another thread, and hold the stamped lock exclusively
+ * only while the list and its indexes change, so readers are not blocked while the change is saved.
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    /** System property choosing the structure that holds the tasks, e.g. {@code -Dben.tasks.backing=btree}. */
+    public static final String BACKING_PROPERTY = "ben.tasks.backing";
+
+    /**
+     * The structure that holds the tasks in list order.
+     */
+    public enum Backing {
+        /** The list as loaded, normally an array list. Reading is fastest, but deleting shifts every later task. */
+        ARRAY,
+        /** A counted B-tree, where reading, inserting and deleting by position all take O(log N). */
+        BTREE,
+        /**
+         * A persistent vector whose versions share structure. Changes publish a new version in O(log N), and
+         * {@link TaskList#snapshot()} takes O(1), so long reads such as listing or exporting never block writers.
+         */
+        PERSISTENT,
+        /**
+         * Primitive arrays holding each field of every task, with descriptions packed into one byte arena.
+         * Takes a fraction of the memory, but every read builds a short-lived view of the task.
+         */
+        COLUMNAR;
+
+        /**
+         * Reads the backing from the {@value TaskList#BACKING_PROPERTY} system property.
+         *
+         * @return the chosen backing, {@link #ARRAY} if none is set or the name is unknown
+         */
+        public static Backing fromSystemProperties() {
+            String backing = System.getProperty(BACKING_PROPERTY);
+            if (backing == null) {
+                return ARRAY;
+            }
+            try {
+                return valueOf(backing.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Warning: Ignoring unknown " + BACKING_PROPERTY + " value: " + backing
+                        + " - using array");
+                return ARRAY;
+            }
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final AtomicInteger waitingWriters = new AtomicInteger();
+    private final Object writersGone = new Object();
+    private final boolean isOptimisticReadSafe;
+    private List<Task> tasks;
     private Storage storage;
-    private UI ui;
-    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private int deferredSaveDepth;
+    private boolean hasUnsavedChanges;
+    private List<UndoRecord> undoLog;
+    private boolean hadUnsavedChangesAtBegin;
+    private DateIndex dateIndex;
+    private TrigramIndex trigramIndex;
+    private SearchIndex searchIndex;
+    private StatusIndex statusIndex;
+    private IntervalTree eventTree;
+    private int nextTaskId;
 
     /**
      * Constructs an empty task list.
-     * Initializes the internal ArrayList and creates a UI instance for display operations.
+     * Initializes the internal ArrayList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
-        this.ui = new UI(); // For showing results
+        this(new ArrayList<>());
     }
 
     /**
@@ -38,15 +104,256 @@ public class TaskList {
      *
      * @param tasks the list of tasks to initialize the task list with
      */
-    public TaskList(ArrayList<Task> tasks) {
-        this.tasks = tasks;
-        this.ui = new UI(); // For showing results
+    public TaskList(List<Task> tasks) {
+        this(tasks, Backing.ARRAY);
+    }
+
+    /**
+     * Constructs a task list with existing tasks, held in the given structure.
+     *
+     * @param tasks the list of tasks to initialize the task list with
+     * @param backing the structure to hold the tasks in
+     */
+    public TaskList(List<Task> tasks, Backing backing) {
+        if (backing == Backing.BTREE && !(tasks instanceof CountedBTreeList)) {
+            this.tasks = new CountedBTreeList<>(tasks);
+        } else if (backing == Backing.PERSISTENT && !(tasks instanceof PersistentVector)) {
+            this.tasks = new PersistentVector<>(tasks);
+        } else if (backing == Backing.COLUMNAR && !(tasks instanceof ColumnarTaskList)) {
+            this.tasks = new ColumnarTaskList(tasks);
+        } else {
+            this.tasks = tasks;
+        }
+        // Lists that decode on first access write to themselves when read, which must not race a writer
+        this.isOptimisticReadSafe = this.tasks instanceof ArrayList || this.tasks instanceof CountedBTreeList
+                || this.tasks instanceof PersistentVector;
     }
 
     public void setStorage(Storage storage) {
         this.storage = storage;
     }
 
+    /**
+     * Stops saving each change as it is made, until {@link #resumeSaves()} is called as many times as this.
+     * Changes made meanwhile are saved together, in one write of the whole list.
+     */
+    public void deferSaves() {
+        synchronized (tasks) {
+            deferredSaveDepth++;
+        }
+    }
+
+    /**
+     * Saves the changes made since saves were deferred, in one write, and keeps deferring later changes.
+     * Does nothing while a transaction is open, since its changes must not be saved before it is committed;
+     * they are saved when the transaction ends instead.
+     *
+     * @throws BenException if the tasks cannot be saved to storage
+     */
+    public void saveDeferredChanges() throws BenException {
+        synchronized (tasks) {
+            if (undoLog != null) {
+                return;
+            }
+            if (hasUnsavedChanges && storage != null) {
+                storage.recordChanges(tasks);
+            }
+            hasUnsavedChanges = false;
+        }
+    }
+
+    /**
+     * Ends one {@link #deferSaves()}. Once none are left, the changes made meanwhile are saved in one write
+     * and every later change is saved as it is made again.
+     *
+     * @throws BenException if the tasks cannot be saved to storage
+     */
+    public void resumeSaves() throws BenException {
+        synchronized (tasks) {
+            assert deferredSaveDepth > 0 : "Saves should have been deferred";
+            if (--deferredSaveDepth == 0) {
+                saveDeferredChanges();
+            }
+        }
+    }
+
+    /**
+     * Starts a transaction: the changes made until {@link #commitTransaction()} are saved together in one
+     * write, or undone together by {@link #rollbackTransaction()}.
+     *
+     * @throws BenException if a transaction is already open
+     */
+    public void beginTransaction() throws BenException {
+        synchronized (tasks) {
+            if (undoLog != null) {
+                throw new BenException("A transaction is already open! Use commit or rollback to end it first.");
+            }
+            deferSaves();
+            undoLog = new ArrayList<>();
+            hadUnsavedChangesAtBegin = hasUnsavedChanges;
+        }
+    }
+
+    /**
+     * Checks whether a transaction is open.
+     *
+     * @return true if changes are being collected for a commit or rollback
+     */
+    public boolean isInTransaction() {
+        synchronized (tasks) {
+            return undoLog != null;
+        }
+    }
+
+    /**
+     * Ends the open transaction and saves its changes in one write.
+     *
+     * @return the number of changes made in the transaction
+     * @throws BenException if no transaction is open or the tasks cannot be saved
+     */
+    public int commitTransaction() throws BenException {
+        synchronized (tasks) {
+            int changeCount = getOpenUndoLog().size();
+            undoLog = null;
+            resumeSaves();
+            return changeCount;
+        }
+    }
+
+    /**
+     * Ends the open transaction, undoing every change made in it. Nothing is written unless the list
+     * must be rebuilt or earlier changes were still waiting to be saved.
+     *
+     * @return the number of changes undone
+     * @throws BenException if no transaction is open or the tasks cannot be saved
+     */
+    public int rollbackTransaction() throws BenException {
+        synchronized (tasks) {
+            int changeCount = getOpenUndoLog().size();
+            rollbackToSavepoint(0);
+            hasUnsavedChanges |= hadUnsavedChangesAtBegin;
+            undoLog = null;
+            resumeSaves();
+            return changeCount;
+        }
+    }
+
+    /**
+     * Marks the current point in the open transaction, so later changes can be undone on their own.
+     *
+     * @return the savepoint, to pass to {@link #rollbackToSavepoint(int)}
+     * @throws BenException if no transaction is open
+     */
+    public int markSavepoint() throws BenException {
+        synchronized (tasks) {
+            return getOpenUndoLog().size();
+        }
+    }
+
+    /**
+     * Undoes the changes made in the open transaction since the given savepoint, latest first.
+     * The transaction stays open.
+     *
+     * @param savepoint a savepoint from {@link #markSavepoint()}
+     * @throws BenException if no transaction is open
+     */
+    public void rollbackToSavepoint(int savepoint) throws BenException {
+        synchronized (tasks) {
+            List<UndoRecord> log = getOpenUndoLog();
+            if (log.size() == savepoint) {
+                return;
+            }
+            List<UndoRecord> undone = log.subList(savepoint, log.size());
+            long stamp = writeLock();
+            try {
+                if (tasks instanceof TaskRecords) {
+                    // Records can only be appended, so undo on detached copies and store them again
+                    List<Task> restored = new ArrayList<>(tasks.size());
+                    for (Task task : tasks) {
+                        restored.add(task.withCompletion(task.isComplete()));
+                    }
+                    undo(undone, restored);
+                    try {
+                        ((TaskRecords) tasks).replaceRecords(restored);
+                    } catch (IOException | UncheckedIOException e) {
+                        throw new BenException("Error rolling back changes: " + e.getMessage());
+                    }
+                    hasUnsavedChanges = true;
+                } else {
+                    undo(undone, tasks);
+                }
+                // Undone changes may break the order the indexes were built in; rebuild them when next used
+                dateIndex = null;
+                trigramIndex = null;
+                searchIndex = null;
+                statusIndex = null;
+                eventTree = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            undone.clear();
+        }
+    }
+
+    private List<UndoRecord> getOpenUndoLog() throws BenException {
+        if (undoLog == null) {
+            throw new BenException("No transaction is open! Use begin to start one.");
+        }
+        return undoLog;
+    }
+
+    private void undo(List<UndoRecord> records, List<Task> list) {
+        for (int i = records.size() - 1; i >= 0; i--) {
+            UndoRecord record = records.get(i);
+            // A removed view is only valid until its store changes again, so copies get a detached task
+            Task removed = record.task == null || list == tasks ? record.task
+                    : record.task.withCompletion(record.task.isComplete());
+            switch (record.type) {
+            case ADD:
+                list.remove(list.size() - 1);
+                break;
+            case DELETE:
+                list.add(record.index - 1, removed);
+                break;
+            case SNOOZE:
+                list.remove(list.size() - 1);
+                list.add(record.index - 1, removed);
+                break;
+            default:
+                if (list == tasks) {
+                    setComplete(record.index, tasks.get(record.index - 1), record.wasComplete);
+                } else if (record.wasComplete) {
+                    list.get(record.index - 1).markComplete();
+                } else {
+                    list.get(record.index - 1).markIncomplete();
+                }
+            }
+        }
+    }
+
+    private void recordUndo(Mutation.Type type, int index, Task task, boolean wasComplete) {
+        if (undoLog != null) {
+            undoLog.add(new UndoRecord(type, index, task, wasComplete));
+        }
+    }
+
+    /**
+     * What is needed to undo one change: the task that was removed and where it was, or the status it had.
+     */
+    private static class UndoRecord {
+        private final Mutation.Type type;
+        private final int index;
+        private final Task task;
+        private final boolean wasComplete;
+
+        UndoRecord(Mutation.Type type, int index, Task task, boolean wasComplete) {
+            this.type = type;
+            this.index = index;
+            this.task = task;
+            this.wasComplete = wasComplete;
+        }
+    }
+
     /**
      * Adds a new task to the list and automatically saves to storage.
      *
@@ -58,13 +365,41 @@ public class TaskList {
         assert task.getDescription() != null && !task.getDescription().trim().isEmpty() :
                 "Task description should not be null or empty";
 
-        int oldSize = tasks.size();
-        tasks.add(task);
+        synchronized (tasks) {
+            int oldSize = tasks.size();
+            long stamp = writeLock();
+            try {
+                tasks.add(task);
+                addToIndexes(getLastTask());
+                keepIdInStep(task);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+
+            assert tasks.size() == oldSize + 1 : "Task list size should increase by 1 after addition";
+            assert getLastTask().getDescription().equals(task.getDescription()) : "Last task should be the one just added";
+
+            recordUndo(Mutation.Type.ADD, 0, null, false);
+            saveToStorage(Mutation.add(task));
+        }
+    }
 
-        assert tasks.size() == oldSize + 1 : "Task list size should increase by 1 after addition";
-        assert tasks.get(tasks.size() - 1) == task : "Last task should be the one just added";
+    /**
+     * Gets the task as the list holds it, which for a store of task records is a view rather than the task added.
+     */
+    private Task getLastTask() {
+        return tasks.get(tasks.size() - 1);
+    }
 
-        saveToStorage();
+    /**
+     * Gives a task just appended the sequence number of the view the list holds for it, if any,
+     * so the caller's task can still be matched with the list's.
+     */
+    private void keepIdInStep(Task added) {
+        Task stored = getLastTask();
+        if (stored != added) {
+            added.setId(stored.getId());
+        }
     }
 
     /**
@@ -75,10 +410,26 @@ public class TaskList {
      * @throws BenException if the index is less than 1 or greater than the list size
      */
     public Task getTask(int index) throws BenException {
-        validateIndex(index);
-        assert index >= 1 && index <= tasks.size() : "Index should be validated before reaching this point";
-        assert tasks.get(index - 1) != null : "Task at valid index should never be null";
-        return tasks.get(index - 1);
+        long stamp = isOptimisticReadSafe ? lock.tryOptimisticRead() : 0;
+        if (stamp != 0) {
+            try {
+                Task task = index >= 1 && index <= tasks.size() ? tasks.get(index - 1) : null;
+                if (task != null && lock.validate(stamp)) {
+                    return task;
+                }
+            } catch (RuntimeException e) {
+                // A write changed the list mid-read; read again under the lock
+            }
+        }
+
+        stamp = readLock();
+        try {
+            validateIndex(index);
+            assert tasks.get(index - 1) != null : "Task at valid index should never be null";
+            return tasks.get(index - 1);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -89,16 +440,58 @@ public class TaskList {
      * @throws BenException if the index is invalid or storage save fails
      */
     public Task deleteTask(int index) throws BenException {
-        validateIndex(index);
-        int oldSize = tasks.size();
-        assert oldSize > 0 : "Cannot delete from empty task list";
+        synchronized (tasks) {
+            validateIndex(index);
+            int oldSize = tasks.size();
+            assert oldSize > 0 : "Cannot delete from empty task list";
 
-        Task deletedTask = tasks.remove(index - 1);
-        assert deletedTask != null : "Deleted task should not be null";
-        assert tasks.size() == oldSize - 1 : "Task list size should decrease by 1 after deletion";
+            Task deletedTask;
+            long stamp = writeLock();
+            try {
+                deletedTask = tasks.remove(index - 1);
+                removeFromIndexes(deletedTask);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            assert deletedTask != null : "Deleted task should not be null";
+            assert tasks.size() == oldSize - 1 : "Task list size should decrease by 1 after deletion";
 
-        saveToStorage();
-        return deletedTask;
+            recordUndo(Mutation.Type.DELETE, index, deletedTask, false);
+            saveToStorage(Mutation.delete(index));
+            return deletedTask;
+        }
+    }
+
+    /**
+     * Replaces the task at the specified index with its snoozed version, which is moved to the end of the list.
+     * The change is saved to storage as a single operation.
+     *
+     * @param index the 1-based position of the task being snoozed
+     * @param snoozedTask the rescheduled task to append
+     * @return the original task that was replaced
+     * @throws BenException if the index is invalid or storage save fails
+     */
+    public Task snoozeTask(int index, Task snoozedTask) throws BenException {
+        assert snoozedTask != null : "Snoozed task should not be null";
+
+        synchronized (tasks) {
+            validateIndex(index);
+            Task originalTask;
+            long stamp = writeLock();
+            try {
+                originalTask = tasks.remove(index - 1);
+                tasks.add(snoozedTask);
+                removeFromIndexes(originalTask);
+                addToIndexes(getLastTask());
+                keepIdInStep(snoozedTask);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+
+            recordUndo(Mutation.Type.SNOOZE, index, originalTask, false);
+            saveToStorage(Mutation.snooze(index, snoozedTask));
+            return originalTask;
+        }
     }
 
     /**
@@ -109,18 +502,26 @@ public class TaskList {
      * @throws BenException if the index is invalid or storage save fails
      */
     public boolean mark(int index) throws BenException {
-        validateIndex(index);
-        Task task = this.tasks.get(index - 1);
-        assert task != null : "Task at valid index should not be null";
+        synchronized (tasks) {
+            validateIndex(index);
+            Task task = this.tasks.get(index - 1);
+            assert task != null : "Task at valid index should not be null";
 
-        boolean wasComplete = task.isComplete();
-        task.markComplete();
+            boolean wasComplete = task.isComplete();
+            long stamp = writeLock();
+            try {
+                task = setComplete(index, task, true);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
 
-        assert task.isComplete() : "Task should be marked as complete after calling markComplete()";
-        assert task.isComplete() != wasComplete || wasComplete : "Task completion status should change or was already complete";
+            assert task.isComplete() : "Task should be marked as complete after calling markComplete()";
+            assert task.isComplete() != wasComplete || wasComplete : "Task completion status should change or was already complete";
 
-        saveToStorage();
-        return true;
+            recordUndo(Mutation.Type.MARK, index, null, wasComplete);
+            saveToStorage(Mutation.mark(index));
+            return true;
+        }
     }
 
     /**
@@ -131,37 +532,475 @@ public class TaskList {
      * @throws BenException if the index is invalid or storage save fails
      */
     public boolean unmark(int index) throws BenException {
-        validateIndex(index);
-        this.tasks.get(index - 1).markIncomplete();
-        saveToStorage();
-        return true;
+        synchronized (tasks) {
+            validateIndex(index);
+            Task task = this.tasks.get(index - 1);
+            boolean wasComplete = task.isComplete();
+            long stamp = writeLock();
+            try {
+                setComplete(index, task, false);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            recordUndo(Mutation.Type.UNMARK, index, null, wasComplete);
+            saveToStorage(Mutation.unmark(index));
+            return true;
+        }
     }
 
-    public void showTasksDueOn(String dateString) throws BenException {
-        LocalDate targetDate;
-        try {
-            targetDate = LocalDate.parse(dateString, INPUT_FORMAT);
-        } catch (DateTimeParseException e) {
-            throw new BenException("Invalid date format! Please use yyyy-mm-dd format (e.g., 2019-12-25)");
+    /**
+     * Marks every selected task as completed or not completed in one pass, then saves the list in one write.
+     * Nothing changes if any selected task number is invalid.
+     *
+     * @param selection the tasks to change
+     * @param isComplete whether the tasks are now completed
+     * @return the selected tasks as they are now, in list order
+     * @throws BenException if a task number is invalid or storage save fails
+     */
+    public List<Task> markTasks(TaskSelection selection, boolean isComplete) throws BenException {
+        synchronized (tasks) {
+            int[] numbers = select(selection);
+            List<Task> selected = new ArrayList<>(numbers.length);
+            boolean isChanged = false;
+            long stamp = writeLock();
+            try {
+                for (int number : numbers) {
+                    Task task = tasks.get(number - 1);
+                    boolean wasComplete = task.isComplete();
+                    if (wasComplete != isComplete) {
+                        task = setComplete(number, task, isComplete);
+                        recordUndo(isComplete ? Mutation.Type.MARK : Mutation.Type.UNMARK, number, null, wasComplete);
+                        isChanged = true;
+                    }
+                    selected.add(task);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            if (isChanged) {
+                saveAllToStorage();
+            }
+            return selected;
         }
+    }
 
-        List<Task> matchingTasks = this.tasks.stream()
-                .filter(task -> task instanceof Deadline)
-                .map(task -> (Deadline) task)
-                .filter(deadline -> deadline.getDeadline().equals(targetDate))
-                .collect(Collectors.toList());
+    /**
+     * Removes every selected task, compacting the list once, then saves the list in one write.
+     * Nothing changes if any selected task number is invalid.
+     *
+     * @param selection the tasks to remove
+     * @return the removed tasks, in the order they were listed
+     * @throws BenException if a task number is invalid or storage save fails
+     */
+    public List<Task> deleteTasks(TaskSelection selection) throws BenException {
+        synchronized (tasks) {
+            int[] numbers = select(selection);
+            if (numbers.length == 0) {
+                return new ArrayList<>();
+            }
+            List<Task> removed = new ArrayList<>(numbers.length);
+            long stamp = writeLock();
+            try {
+                if (tasks instanceof ArrayList) {
+                    // Slide the kept tasks down over the removed ones, then cut off the tail
+                    int kept = numbers[0] - 1;
+                    int next = 0;
+                    for (int position = kept; position < tasks.size(); position++) {
+                        Task task = tasks.get(position);
+                        if (next < numbers.length && numbers[next] == position + 1) {
+                            removed.add(task);
+                            next++;
+                        } else {
+                            tasks.set(kept++, task);
+                        }
+                    }
+                    tasks.subList(kept, tasks.size()).clear();
+                } else if (tasks instanceof ColumnarTaskList) {
+                    for (int number : numbers) {
+                        removed.add(tasks.get(number - 1));
+                    }
+                    ((ColumnarTaskList) tasks).removeAt(numbers);
+                } else {
+                    // Removing from the back keeps the earlier numbers valid
+                    for (int i = numbers.length - 1; i >= 0; i--) {
+                        removed.add(tasks.remove(numbers[i] - 1));
+                    }
+                    Collections.reverse(removed);
+                }
+                for (Task task : removed) {
+                    removeFromIndexes(task);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            // Undoing later deletes first restores the numbers the earlier ones refer to
+            for (int i = numbers.length - 1; i >= 0; i--) {
+                recordUndo(Mutation.Type.DELETE, numbers[i], removed.get(i), false);
+            }
+            saveAllToStorage();
+            return removed;
+        }
+    }
 
+    /**
+     * Finds the numbers of the selected tasks in one pass over the list, or over just the given ranges.
+     *
+     * @return the 1-based task numbers, ascending
+     */
+    private int[] select(TaskSelection selection) throws BenException {
+        boolean[] isInRange = selection.getNumbers(tasks.size());
+        int[] numbers = new int[tasks.size()];
+        int count = 0;
+        if (selection.hasRanges()) {
+            for (int number = 1; number < isInRange.length; number++) {
+                if (isInRange[number] && selection.matches(tasks.get(number - 1))) {
+                    numbers[count++] = number;
+                }
+            }
+        } else {
+            int number = 1;
+            for (Task task : tasks) {
+                if (selection.matches(task)) {
+                    numbers[count++] = number;
+                }
+                number++;
+            }
+        }
+        return Arrays.copyOf(numbers, count);
+    }
 
-        if (matchingTasks.isEmpty()) {
-            ui.showMessage("No deadlines found for " + targetDate.format(DateTimeFormatter.ofPattern("MMM dd yyyy")));
+    /**
+     * Changes a task's completion status. A persistent backing must not change a task that older snapshots
+     * still show, so it stores a new version of the task in its place instead.
+     *
+     * @return the task as it is now in the list
+     */
+    private Task setComplete(int index, Task task, boolean isComplete) {
+        Task updated = task;
+        if (tasks instanceof PersistentVector) {
+            updated = task.withCompletion(isComplete);
+            tasks.set(index - 1, updated);
+            replaceInIndexes(task, updated);
+        } else if (isComplete) {
+            task.markComplete();
         } else {
-            StringBuilder result = new StringBuilder();
-            result.append("Tasks due on ").append(targetDate.format(DateTimeFormatter.ofPattern("MMM dd yyyy"))).append(":\n");
-            for (int i = 0; i < matchingTasks.size(); i++) {
-                result.append(" ").append(i + 1).append(".").append(matchingTasks.get(i)).append("\n");
+            task.markIncomplete();
+        }
+        if (statusIndex != null) {
+            statusIndex.setComplete(updated, isComplete);
+        }
+        return updated;
+    }
+
+    /**
+     * Gets the deadlines due and the events taking place on any day in the given range, earliest first.
+     * Uses the date index, which is built on the first date query and kept up to date from then on.
+     *
+     * @param from the first day of the range
+     * @param to the last day of the range, inclusive
+     * @return the matching tasks
+     */
+    public List<Task> getTasksDueBetween(LocalDate from, LocalDate to) {
+        return readIndexed(() -> dateIndex != null, () -> getDateIndex().getTasksBetween(from, to));
+    }
+
+    /**
+     * Gets the incomplete deadlines that were due before the given day, earliest first.
+     *
+     * @param today the current day
+     * @return the overdue deadlines
+     */
+    public List<Task> getOverdueTasks(LocalDate today) {
+        return readIndexed(() -> dateIndex != null, () -> getDateIndex().getOverdueTasks(today));
+    }
+
+    /**
+     * Gets the events running at the given moment: started at or before it and not yet ended.
+     * Uses the event interval tree, which is built on the first time query and kept up to date from then on.
+     *
+     * @param moment the moment to look at
+     * @return the running events, earliest start first
+     */
+    public List<Event> getEventsAt(LocalDateTime moment) {
+        return readIndexed(() -> eventTree != null, () -> getEventTree().getEventsAt(moment));
+    }
+
+    /**
+     * Gets the events that overlap the window from {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @param from the start of the window
+     * @param to the end of the window
+     * @return the overlapping events, earliest start first
+     */
+    public List<Event> getEventsBetween(LocalDateTime from, LocalDateTime to) {
+        return readIndexed(() -> eventTree != null, () -> getEventTree().getEventsBetween(from, to));
+    }
+
+    /**
+     * Gets the other events in the list whose time overlaps the given event's.
+     *
+     * @param event the event to check, which may or may not be in the list
+     * @return the overlapping events, earliest start first
+     */
+    public List<Event> getOverlappingEvents(Event event) {
+        List<Event> overlapping = getEventsBetween(event.getStartTime(), event.getEndTime());
+        // A store of task records hands out views, which share the event's sequence number rather than its identity
+        overlapping.removeIf(other -> other == event || (event.getId() != 0 && other.getId() == event.getId()));
+        return overlapping;
+    }
+
+    /**
+     * Finds the gaps between events in a window that are at least the given length, earliest first.
+     * The events overlapping the window come from the interval tree already sorted by start time, so one
+     * sweep that tracks the latest end seen so far merges them and finds the gaps.
+     *
+     * @param from the start of the window
+     * @param to the end of the window
+     * @param minutes the shortest gap wanted, in minutes
+     * @param limit the largest number of gaps to return
+     * @return the free slots, each covering a whole gap
+     */
+    public List<TimeSlot> getFreeSlots(LocalDateTime from, LocalDateTime to, long minutes, int limit) {
+        List<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Event event : getEventsBetween(from, to)) {
+            if (slots.size() == limit) {
+                return slots;
+            }
+            if (!event.getStartTime().isBefore(freeFrom.plusMinutes(minutes))) {
+                slots.add(new TimeSlot(freeFrom, event.getStartTime()));
+            }
+            if (event.getEndTime().isAfter(freeFrom)) {
+                freeFrom = event.getEndTime();
+            }
+        }
+        if (slots.size() < limit && !to.isBefore(freeFrom.plusMinutes(minutes))) {
+            slots.add(new TimeSlot(freeFrom, to));
+        }
+        return slots;
+    }
+
+    private IntervalTree getEventTree() {
+        if (eventTree == null) {
+            assignIds();
+            List<Event> events = new ArrayList<>();
+            for (Task task : tasks) {
+                if (task instanceof Event) {
+                    events.add((Event) task);
+                }
+            }
+            eventTree = IntervalTree.of(events);
+        }
+        return eventTree;
+    }
+
+    /**
+     * Gets the tasks whose description contains the keyword, ignoring case, in list order.
+     * Keywords of at least three characters are answered from the trigram index, which is built on the
+     * first search and kept up to date from then on; shorter keywords scan the list.
+     *
+     * @param keyword the text to look for
+     * @return the matching tasks
+     */
+    public List<Task> findTasks(String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        if (lowerKeyword.length() < TrigramIndex.GRAM_LENGTH) {
+            return read(() -> {
+                List<Task> matchingTasks = new ArrayList<>();
+                for (Task task : tasks) {
+                    if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                        matchingTasks.add(task);
+                    }
+                }
+                return matchingTasks;
+            });
+        }
+
+        return readIndexed(() -> trigramIndex != null, () -> {
+            List<Task> matchingTasks = new ArrayList<>();
+            int position = 0;
+            for (int id : getTrigramIndex().getCandidates(lowerKeyword)) {
+                position = findPosition(id, position);
+                if (position < 0) {
+                    // Deleted since it was indexed
+                    position = -position - 1;
+                    continue;
+                }
+                Task task = tasks.get(position);
+                if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                    matchingTasks.add(task);
+                }
+            }
+            return matchingTasks;
+        });
+    }
+
+    /**
+     * Finds a task's position by binary search, since sequence numbers grow in list order.
+     *
+     * @param id the sequence number to look for
+     * @param from the position to start searching from
+     * @return the position, or {@code -(insertion point) - 1} if no task has that number
+     */
+    private int findPosition(int id, int from) {
+        int low = from;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = tasks.get(mid).getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Gets the tasks that best match the words of a query, ranked by BM25 relevance, best first.
+     * The word index is built on the first search and kept up to date from then on.
+     *
+     * @param query the words to look for
+     * @param limit the largest number of tasks to return
+     * @return at most {@code limit} tasks containing any of the query's words
+     */
+    public List<Task> searchTasks(String query, int limit) {
+        List<Task> rankedTasks = new ArrayList<>();
+        searchTasks(query, limit, rankedTasks::add);
+        return rankedTasks;
+    }
+
+    /**
+     * Hands the tasks that best match the words of a query to {@code results} one at a time, best first,
+     * so they can be shown while later ones are still being looked up.
+     * The list cannot change until the last task has been handed over.
+     *
+     * @param query the words to look for
+     * @param limit the largest number of tasks to hand over
+     * @param results receives at most {@code limit} tasks containing any of the query's words
+     * @return the number of tasks handed over
+     */
+    public int searchTasks(String query, int limit, Consumer<Task> results) {
+        return readIndexed(() -> searchIndex != null, () -> {
+            int[] count = new int[1];
+            getSearchIndex().search(query, limit, match -> {
+                int position = findPosition(match.getId(), 0);
+                if (position >= 0) {
+                    results.accept(tasks.get(position));
+                    count[0]++;
+                }
+            });
+            return count[0];
+        });
+    }
+
+    private SearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            assignIds();
+            searchIndex = new SearchIndex();
+            for (Task task : tasks) {
+                searchIndex.add(task);
             }
-            ui.showMessage(result.toString().trim());
         }
+        return searchIndex;
+    }
+
+    private TrigramIndex getTrigramIndex() {
+        if (trigramIndex == null) {
+            assignIds();
+            trigramIndex = new TrigramIndex();
+            for (Task task : tasks) {
+                trigramIndex.add(task);
+            }
+        }
+        return trigramIndex;
+    }
+
+    /**
+     * Numbers every task in list order, the first time an index that refers to tasks by number is built.
+     * From then on each added task is numbered as it is appended.
+     */
+    private void assignIds() {
+        if (nextTaskId > 0) {
+            return;
+        }
+        nextTaskId = 1;
+        for (Task task : tasks) {
+            task.setId(nextTaskId++);
+        }
+    }
+
+    private void addToIndexes(Task task) {
+        if (nextTaskId > 0) {
+            task.setId(nextTaskId++);
+        }
+        if (dateIndex != null) {
+            dateIndex.add(task);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.add(task);
+        }
+        if (searchIndex != null) {
+            searchIndex.add(task);
+        }
+        if (statusIndex != null) {
+            statusIndex.add(task);
+        }
+        if (eventTree != null && task instanceof Event) {
+            eventTree.add((Event) task);
+        }
+    }
+
+    private void removeFromIndexes(Task task) {
+        if (dateIndex != null) {
+            dateIndex.remove(task);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.remove(task);
+            if (trigramIndex.needsRebuild()) {
+                // Dropping the index makes the next search rebuild it without the deleted tasks
+                trigramIndex = null;
+            }
+        }
+        if (searchIndex != null) {
+            searchIndex.remove(task);
+            if (searchIndex.needsRebuild()) {
+                searchIndex = null;
+            }
+        }
+        if (statusIndex != null) {
+            statusIndex.remove(task);
+        }
+        if (eventTree != null && task instanceof Event) {
+            eventTree.remove((Event) task);
+        }
+    }
+
+    /**
+     * Points the indexes that hold tasks themselves at a new version of a task. The text and status indexes
+     * refer to tasks by sequence number, which the new version keeps.
+     */
+    private void replaceInIndexes(Task oldVersion, Task newVersion) {
+        if (dateIndex != null) {
+            dateIndex.replace(oldVersion, newVersion);
+        }
+        if (eventTree != null && oldVersion instanceof Event) {
+            eventTree.remove((Event) oldVersion);
+            eventTree.add((Event) newVersion);
+        }
+    }
+
+    private DateIndex getDateIndex() {
+        if (dateIndex == null) {
+            dateIndex = new DateIndex();
+            for (Task task : tasks) {
+                dateIndex.add(task);
+            }
+        }
+        return dateIndex;
     }
 
     /**
@@ -172,13 +1011,28 @@ public class TaskList {
      * @param ui the UI component used to display search results
      */
     public void findTasksContaining(String keyword, UI ui) {
-        List<Task> matchingTasks = tasks.stream()
-                .filter(task -> task.getDescription().toLowerCase().contains(keyword.toLowerCase()))
-                .collect(Collectors.toList());
+        showMatchingTasks(findTasks(keyword), "No matching tasks found for: " + keyword, ui);
+    }
 
-        // Display results
+    /**
+     * Searches for the tasks most relevant to the query's words and displays them, best match first.
+     * Each task is displayed as soon as it is ranked instead of after the whole result list is built.
+     *
+     * @param query the words to look for in task descriptions
+     * @param limit the largest number of tasks to display
+     * @param ui the UI component used to display search results
+     */
+    public void searchTasksMatching(String query, int limit, UI ui) {
+        int[] rank = new int[1];
+        int matchCount = searchTasks(query, limit, task -> ui.showMatchingTask(++rank[0], task));
+        if (matchCount == 0) {
+            ui.showMessage("No matching tasks found for: " + query);
+        }
+    }
+
+    private static void showMatchingTasks(List<Task> matchingTasks, String emptyMessage, UI ui) {
         if (matchingTasks.isEmpty()) {
-            ui.showMessage("No matching tasks found for: " + keyword);
+            ui.showMessage(emptyMessage);
         } else {
             // Use Streams to format results with numbering
             String result = "Here are the matching tasks in your list:\n" +
@@ -191,37 +1045,128 @@ public class TaskList {
     }
 
     /**
-     * Gets all completed tasks using Streams.
+     * Gets a read-only copy of every task in list order, which later changes to the list do not affect.
+     *
+     * @return an unmodifiable list of all tasks
+     */
+    public List<Task> getAllTasks() {
+        return snapshot();
+    }
+
+    /**
+     * Gets a frozen, read-only version of the list, which later changes to the list do not affect.
+     * With the {@link Backing#PERSISTENT} backing this takes O(1) and needs no lock; otherwise the list is copied.
+     *
+     * @return an unmodifiable list of all tasks as they are now
+     */
+    public List<Task> snapshot() {
+        if (tasks instanceof PersistentVector) {
+            return ((PersistentVector<Task>) tasks).snapshot();
+        }
+        return read(() -> Collections.unmodifiableList(new ArrayList<>(tasks)));
+    }
+
+    /**
+     * Gets all completed tasks, in list order.
      *
      * @return a list of all completed tasks
      */
     public List<Task> getCompletedTasks() {
-        return tasks.stream()
-                .filter(Task::isComplete)
-                .collect(Collectors.toList());
+        return readIndexed(() -> statusIndex != null, () -> getTasksById(getStatusIndex().getByStatus(true)));
     }
 
     /**
-     * Gets all pending (incomplete) tasks using Streams.
+     * Gets all pending (incomplete) tasks, in list order.
      *
      * @return a list of all pending tasks
      */
     public List<Task> getPendingTasks() {
-        return tasks.stream()
-                .filter(task -> !task.isComplete())
-                .collect(Collectors.toList());
+        return readIndexed(() -> statusIndex != null, () -> getTasksById(getStatusIndex().getByStatus(false)));
     }
 
     /**
-     * Gets tasks by type using Streams.
+     * Gets tasks by type, in list order.
      *
      * @param taskType the type identifier ("T", "D", "E")
      * @return a list of tasks matching the specified type
      */
     public List<Task> getTasksByType(String taskType) {
-        return tasks.stream()
-                .filter(task -> task.getType().equals(taskType))
-                .collect(Collectors.toList());
+        return readIndexed(() -> statusIndex != null, () -> getTasksById(getStatusIndex().getByType(taskType)));
+    }
+
+    /**
+     * Gets the completed or pending tasks of one type, in list order.
+     *
+     * @param taskType the type identifier ("T", "D", "E")
+     * @param isComplete true for completed tasks, false for pending ones
+     * @return the matching tasks
+     */
+    public List<Task> getTasksByTypeAndStatus(String taskType, boolean isComplete) {
+        return readIndexed(() -> statusIndex != null, () -> {
+            StatusIndex index = getStatusIndex();
+            return getTasksById(index.getByType(taskType).and(index.getByStatus(isComplete)));
+        });
+    }
+
+    /**
+     * Counts the completed or pending tasks without going through the list.
+     *
+     * @param isComplete true to count completed tasks, false to count pending ones
+     * @return the number of matching tasks
+     */
+    public int countTasksByStatus(boolean isComplete) {
+        return readIndexed(() -> statusIndex != null, () -> getStatusIndex().getByStatus(isComplete).getCardinality());
+    }
+
+    /**
+     * Counts the tasks of one type without going through the list.
+     *
+     * @param taskType the type identifier ("T", "D", "E")
+     * @return the number of matching tasks
+     */
+    public int countTasksByType(String taskType) {
+        return readIndexed(() -> statusIndex != null, () -> getStatusIndex().getByType(taskType).getCardinality());
+    }
+
+    /**
+     * Counts the completed or pending tasks of one type without going through the list.
+     *
+     * @param taskType the type identifier ("T", "D", "E")
+     * @param isComplete true to count completed tasks, false to count pending ones
+     * @return the number of matching tasks
+     */
+    public int countTasksByTypeAndStatus(String taskType, boolean isComplete) {
+        return readIndexed(() -> statusIndex != null, () -> {
+            StatusIndex index = getStatusIndex();
+            return index.getByType(taskType).andCardinality(index.getByStatus(isComplete));
+        });
+    }
+
+    /**
+     * Resolves sequence numbers to tasks. Both grow in list order, so each search starts where the last ended.
+     */
+    private List<Task> getTasksById(CompressedBitmap ids) {
+        List<Task> matchingTasks = new ArrayList<>(ids.getCardinality());
+        int[] position = {0};
+        ids.forEach(id -> {
+            int found = findPosition(id, position[0]);
+            if (found >= 0) {
+                matchingTasks.add(tasks.get(found));
+                position[0] = found + 1;
+            }
+        });
+        return matchingTasks;
+    }
+
+    private StatusIndex getStatusIndex() {
+        if (statusIndex == null) {
+            assignIds();
+            statusIndex = new StatusIndex();
+            for (Task task : tasks) {
+                statusIndex.add(task);
+            }
+        }
+        return statusIndex;
     }
 
     private void validateIndex(int index) throws BenException {
@@ -230,9 +1175,22 @@ public class TaskList {
         }
     }
 
-    private void saveToStorage() throws BenException {
-        if (storage != null) {
-            storage.saveTasks(tasks);
+    /**
+     * Hands the whole list to storage in one go, for changes too large to record one by one.
+     */
+    private void saveAllToStorage() throws BenException {
+        if (deferredSaveDepth > 0) {
+            hasUnsavedChanges = true;
+        } else if (storage != null) {
+            storage.recordChanges(tasks);
+        }
+    }
+
+    private void saveToStorage(Mutation mutation) throws BenException {
+        if (deferredSaveDepth > 0) {
+            hasUnsavedChanges = true;
+        } else if (storage != null) {
+            storage.recordMutation(mutation, tasks);
         }
     }
 
@@ -242,19 +1200,108 @@ public class TaskList {
      * @return the total count of tasks currently stored
      */
     public int getSize() {
-        return this.tasks.size();
+        long stamp = lock.tryOptimisticRead();
+        int size = this.tasks.size();
+        if (lock.validate(stamp)) {
+            return size;
+        }
+        return read(this.tasks::size);
     }
 
     @Override
     public String toString() {
+        if (tasks instanceof PersistentVector) {
+            // Formats a frozen version, so a long list does not hold up writers
+            return formatTasks(snapshot());
+        }
+        return read(() -> formatTasks(tasks));
+    }
+
+    private static String formatTasks(List<Task> tasks) {
         if (tasks.isEmpty()) {
             return "No tasks in your list.";
         }
 
         StringBuilder result = new StringBuilder();
-        for (int i = 0; i < this.getSize(); i++) {
-            result.append(i + 1).append(".").append(tasks.get(i)).append("\n");
+        int number = 1;
+        for (Task task : tasks) {
+            result.append(number++).append(".").append(task).append("\n");
         }
         return result.toString().trim();
     }
+
+    /**
+     * Takes the exclusive lock. A stamped lock lets new readers in while a writer waits, so a steady stream
+     * of overlapping reads could keep the writer out forever; counting waiting writers lets readers step aside.
+     * The last waiting writer to get the lock wakes the readers that stepped aside.
+     */
+    private long writeLock() {
+        waitingWriters.incrementAndGet();
+        try {
+            return lock.writeLock();
+        } finally {
+            if (waitingWriters.decrementAndGet() == 0) {
+                synchronized (writersGone) {
+                    writersGone.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the shared lock once no writer is waiting for the exclusive one. Readers that have to wait are
+     * parked rather than spinning, so a long read holding up a writer does not keep other readers busy.
+     */
+    private long readLock() {
+        if (waitingWriters.get() > 0) {
+            boolean isInterrupted = false;
+            synchronized (writersGone) {
+                while (waitingWriters.get() > 0) {
+                    try {
+                        writersGone.wait();
+                    } catch (InterruptedException e) {
+                        // Like the stamped lock's own readLock(), waiting is not cut short by an interrupt
+                        isInterrupted = true;
+                    }
+                }
+            }
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return lock.readLock();
+    }
+
+    /**
+     * Runs a read under the shared lock, so it sees no write half done.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a read that builds an index on first use. Once the index exists, the read shares the lock with
+     * other readers; the first read builds it holding the lock exclusively.
+     */
+    private <T> T readIndexed(BooleanSupplier isIndexBuilt, Supplier<T> reader) {
+        long stamp = readLock();
+        try {
+            if (!isIndexBuilt.getAsBoolean()) {
+                long writeStamp = lock.tryConvertToWriteLock(stamp);
+                if (writeStamp == 0) {
+                    lock.unlockRead(stamp);
+                    writeStamp = writeLock();
+                }
+                stamp = writeStamp;
+            }
+            return reader.get();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
 }
\ No newline at end of file
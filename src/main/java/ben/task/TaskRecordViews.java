@@ -0,0 +1,178 @@
+package ben.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The views handed out by a {@link TaskRecords} store. The three classes repeat the same few overrides,
+ * since each must extend its own task type. Their sequence number is the record's and cannot be changed.
+ */
+class TaskRecordViews {
+    private TaskRecordViews() {
+    }
+
+    private static boolean isViewOf(Object other, TaskRecords records, int id) {
+        if (other instanceof ToDoView) {
+            return ((ToDoView) other).records == records && ((ToDoView) other).id == id;
+        } else if (other instanceof DeadlineView) {
+            return ((DeadlineView) other).records == records && ((DeadlineView) other).id == id;
+        } else if (other instanceof EventView) {
+            return ((EventView) other).records == records && ((EventView) other).id == id;
+        }
+        return false;
+    }
+
+    static class ToDoView extends ToDo {
+        private final TaskRecords records;
+        private final int id;
+
+        ToDoView(TaskRecords records, int id, String description, boolean isComplete) {
+            super(description);
+            this.records = records;
+            this.id = id;
+            if (isComplete) {
+                super.markComplete();
+            }
+        }
+
+        @Override
+        public boolean isComplete() {
+            return records.isComplete(id, super.isComplete());
+        }
+
+        @Override
+        public void markComplete() {
+            super.markComplete();
+            records.setComplete(id, true);
+        }
+
+        @Override
+        public void markIncomplete() {
+            super.markIncomplete();
+            records.setComplete(id, false);
+        }
+
+        @Override
+        int getId() {
+            return id;
+        }
+
+        @Override
+        void setId(int id) {
+            // Numbered by the store
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isViewOf(other, records, id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    static class DeadlineView extends Deadline {
+        private final TaskRecords records;
+        private final int id;
+
+        DeadlineView(TaskRecords records, int id, String description, LocalDate deadline, boolean isComplete) {
+            super(description, deadline);
+            this.records = records;
+            this.id = id;
+            if (isComplete) {
+                super.markComplete();
+            }
+        }
+
+        @Override
+        public boolean isComplete() {
+            return records.isComplete(id, super.isComplete());
+        }
+
+        @Override
+        public void markComplete() {
+            super.markComplete();
+            records.setComplete(id, true);
+        }
+
+        @Override
+        public void markIncomplete() {
+            super.markIncomplete();
+            records.setComplete(id, false);
+        }
+
+        @Override
+        int getId() {
+            return id;
+        }
+
+        @Override
+        void setId(int id) {
+            // Numbered by the store
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isViewOf(other, records, id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    static class EventView extends Event {
+        private final TaskRecords records;
+        private final int id;
+
+        EventView(TaskRecords records, int id, String description, LocalDateTime start, LocalDateTime end,
+                boolean isComplete) {
+            super(description, start, end);
+            this.records = records;
+            this.id = id;
+            if (isComplete) {
+                super.markComplete();
+            }
+        }
+
+        @Override
+        public boolean isComplete() {
+            return records.isComplete(id, super.isComplete());
+        }
+
+        @Override
+        public void markComplete() {
+            super.markComplete();
+            records.setComplete(id, true);
+        }
+
+        @Override
+        public void markIncomplete() {
+            super.markIncomplete();
+            records.setComplete(id, false);
+        }
+
+        @Override
+        int getId() {
+            return id;
+        }
+
+        @Override
+        void setId(int id) {
+            // Numbered by the store
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isViewOf(other, records, id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ben.task;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A store that keeps tasks as records rather than {@link Task} objects, and hands out short-lived views of
+ * them. A view's completion status is read from and written to the store, so every view of a record
+ * agrees with the others, and views of the same record are equal. The other fields are fixed when the
+ * view is built.
+ */
+public interface TaskRecords {
+
+    /**
+     * Checks whether the record with the given sequence number is complete.
+     *
+     * @param id the record's sequence number
+     * @param ifMissing the answer to give if the store no longer holds the record
+     * @return true if the record is complete
+     */
+    boolean isComplete(int id, boolean ifMissing);
+
+    /**
+     * Changes the completion status of the record with the given sequence number.
+     *
+     * @param id the record's sequence number
+     * @param isComplete whether the record is now complete
+     */
+    void setComplete(int id, boolean isComplete);
+
+    /**
+     * Replaces every record with the given tasks, in order. Records can only be appended, so this is how
+     * changes in the middle of the store are undone. Sequence numbers are not reused.
+     *
+     * @param tasks the tasks to keep, in list order
+     * @throws IOException if a store kept in a file cannot write the new records; the old ones are then kept
+     */
+    void replaceRecords(List<Task> tasks) throws IOException;
+
+    /**
+     * Builds a view of a todo record.
+     *
+     * @param id the record's sequence number
+     * @param description the task description
+     * @param isComplete the record's status now, kept in case the record is deleted later
+     * @return the view
+     */
+    default Task viewToDo(int id, String description, boolean isComplete) {
+        return new TaskRecordViews.ToDoView(this, id, description, isComplete);
+    }
+
+    /**
+     * Builds a view of a deadline record.
+     *
+     * @param id the record's sequence number
+     * @param description the task description
+     * @param deadline the due date
+     * @param isComplete the record's status now, kept in case the record is deleted later
+     * @return the view
+     */
+    default Task viewDeadline(int id, String description, LocalDate deadline, boolean isComplete) {
+        return new TaskRecordViews.DeadlineView(this, id, description, deadline, isComplete);
+    }
+
+    /**
+     * Builds a view of an event record.
+     *
+     * @param id the record's sequence number
+     * @param description the task description
+     * @param start the start time
+     * @param end the end time
+     * @param isComplete the record's status now, kept in case the record is deleted later
+     * @return the view
+     */
+    default Task viewEvent(int id, String description, LocalDateTime start, LocalDateTime end, boolean isComplete) {
+        return new TaskRecordViews.EventView(this, id, description, start, end, isComplete);
+    }
+}
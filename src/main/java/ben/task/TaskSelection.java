@@ -0,0 +1,149 @@
+package ben.task;
+
+import ben.BenException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks the tasks a bulk {@code mark}, {@code unmark} or {@code delete} applies to: tasks whose numbers
+ * are in any of the given ranges, if there are any, that also pass every given filter.
+ * A todo has no date, so it never passes a date filter.
+ */
+public class TaskSelection {
+    private final List<int[]> ranges = new ArrayList<>();
+    private Boolean isComplete;
+    private String type;
+    private LocalDate before;
+    private LocalDate after;
+
+    /**
+     * Adds the tasks numbered from {@code from} to {@code to}, both included.
+     *
+     * @param from the first 1-based task number
+     * @param to the last 1-based task number
+     */
+    public void addRange(int from, int to) {
+        assert from >= 1 && from <= to : "Range should be non-empty and start at 1 or later";
+        ranges.add(new int[] {from, to});
+    }
+
+    /**
+     * Keeps only completed tasks, or only pending ones.
+     *
+     * @param isComplete true for completed tasks, false for pending ones
+     */
+    public void setComplete(boolean isComplete) {
+        this.isComplete = isComplete;
+    }
+
+    /**
+     * Keeps only tasks of one type.
+     *
+     * @param type the type identifier ("T", "D", "E")
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Keeps only deadlines due and events starting before the given day.
+     *
+     * @param before the first day excluded
+     */
+    public void setBefore(LocalDate before) {
+        this.before = before;
+    }
+
+    /**
+     * Keeps only deadlines due and events starting after the given day.
+     *
+     * @param after the last day excluded
+     */
+    public void setAfter(LocalDate after) {
+        this.after = after;
+    }
+
+    /**
+     * Checks whether this selects exactly one task by number, as the single-task commands always did.
+     *
+     * @return true if there is one range of one task and no filter
+     */
+    public boolean isSingleTask() {
+        return ranges.size() == 1 && ranges.get(0)[0] == ranges.get(0)[1] && !hasFilters();
+    }
+
+    /**
+     * Gets the number of the only task selected.
+     *
+     * @return the 1-based task number
+     */
+    public int getSingleTaskNumber() {
+        assert isSingleTask() : "Only a single-task selection has a single task number";
+        return ranges.get(0)[0];
+    }
+
+    /**
+     * Checks whether any task numbers were given. Without any, the filters are applied to every task.
+     *
+     * @return true if the selection is limited to ranges of task numbers
+     */
+    public boolean hasRanges() {
+        return !ranges.isEmpty();
+    }
+
+    private boolean hasFilters() {
+        return isComplete != null || type != null || before != null || after != null;
+    }
+
+    /**
+     * Gets the selected task numbers of a list of the given size, ascending and without repeats,
+     * before the filters are applied.
+     *
+     * @param size the number of tasks in the list
+     * @return a flag per task number, indexed from 1
+     * @throws BenException if a range goes past the end of the list
+     */
+    boolean[] getNumbers(int size) throws BenException {
+        boolean[] isSelected = new boolean[size + 1];
+        for (int[] range : ranges) {
+            if (range[1] > size) {
+                throw new BenException("Invalid ben.task number! Please choose numbers between 1 and " + size + ".");
+            }
+            for (int number = range[0]; number <= range[1]; number++) {
+                isSelected[number] = true;
+            }
+        }
+        return isSelected;
+    }
+
+    /**
+     * Checks whether a task passes every filter.
+     *
+     * @param task the task to check
+     * @return true if the task is selected, ranges aside
+     */
+    boolean matches(Task task) {
+        if (isComplete != null && task.isComplete() != isComplete) {
+            return false;
+        }
+        if (type != null && !task.getType().equals(type)) {
+            return false;
+        }
+        if (before == null && after == null) {
+            return true;
+        }
+        LocalDate date = getDate(task);
+        return date != null && (before == null || date.isBefore(before)) && (after == null || date.isAfter(after));
+    }
+
+    private static LocalDate getDate(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getDeadline();
+        } else if (task instanceof Event) {
+            return ((Event) task).getStartTime().toLocalDate();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package ben.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A free period of time between events, from its start (inclusive) to its end (exclusive).
+ */
+public class TimeSlot {
+    private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy HHmm");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HHmm");
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public TimeSlot(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public long getMinutes() {
+        return Duration.between(start, end).toMinutes();
+    }
+
+    @Override
+    public String toString() {
+        String endString = end.toLocalDate().equals(start.toLocalDate())
+                ? end.format(TIME_FORMAT)
+                : end.format(OUTPUT_FORMAT);
+        return start.format(OUTPUT_FORMAT) + " - " + endString + " (" + getMinutes() + " min)";
+    }
+}
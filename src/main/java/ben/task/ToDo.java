@@ -8,6 +8,11 @@ public class ToDo extends Task {
         super(description);
     }
 
+    @Override
+    protected Task copy() {
+        return new ToDo(getDescription());
+    }
+
     @Override
     public String getType() {
         return "T";
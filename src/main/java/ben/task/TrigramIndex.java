@@ -0,0 +1,133 @@
+package ben.task;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index from every three-character sequence of a lowercased description to the tasks containing it.
+ * A substring search intersects the posting lists of the keyword's trigrams, which leaves a small set of
+ * candidates that only need a final {@code contains} check.
+ * Posting lists hold task sequence numbers in increasing order. Deleted tasks are not removed from them
+ * straight away; they are skipped when candidates are resolved and dropped when the index is rebuilt.
+ */
+public class TrigramIndex {
+    /** The shortest keyword that can be answered from the index. */
+    public static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private int liveCount;
+    private int deletedCount;
+
+    /**
+     * Adds a task to the index. Tasks must be added in increasing order of sequence number.
+     *
+     * @param task the task to add
+     */
+    public void add(Task task) {
+        String text = task.getDescription().toLowerCase();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postings.computeIfAbsent(getGram(text, i), key -> new Postings()).add(task.getId());
+        }
+        liveCount++;
+    }
+
+    /**
+     * Records that a task was deleted. Its sequence number stays in the posting lists until the next rebuild.
+     *
+     * @param task the deleted task
+     */
+    public void remove(Task task) {
+        liveCount--;
+        deletedCount++;
+    }
+
+    /**
+     * Checks whether deleted tasks take up more of the index than live ones, so it is worth rebuilding.
+     *
+     * @return true if the index should be rebuilt
+     */
+    public boolean needsRebuild() {
+        return deletedCount > liveCount;
+    }
+
+    /**
+     * Gets the sequence numbers of tasks whose lowercased description contains every trigram of the keyword.
+     * The result may include deleted tasks and false positives, so every candidate must be verified.
+     *
+     * @param lowerKeyword the lowercased keyword, at least {@link #GRAM_LENGTH} characters long
+     * @return the candidate sequence numbers in increasing order
+     */
+    public int[] getCandidates(String lowerKeyword) {
+        assert lowerKeyword.length() >= GRAM_LENGTH : "Keyword too short for the trigram index";
+
+        int gramCount = lowerKeyword.length() - GRAM_LENGTH + 1;
+        Postings[] lists = new Postings[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            lists[i] = postings.get(getGram(lowerKeyword, i));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+
+        // Start from the rarest trigram so every later intersection works on the fewest candidates
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int candidateCount = candidates.length;
+        for (int i = 1; i < lists.length && candidateCount > 0; i++) {
+            candidateCount = intersect(candidates, candidateCount, lists[i]);
+        }
+        return Arrays.copyOf(candidates, candidateCount);
+    }
+
+    /**
+     * Keeps only the candidates that also appear in the given posting list, in place.
+     * Each candidate is found by galloping search, so a short candidate list against a long posting list
+     * costs far less than a full merge.
+     */
+    private static int intersect(int[] candidates, int candidateCount, Postings list) {
+        int kept = 0;
+        int position = 0;
+        for (int i = 0; i < candidateCount && position < list.size; i++) {
+            int id = candidates[i];
+            int step = 1;
+            int high = position;
+            while (high < list.size && list.ids[high] < id) {
+                position = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(list.ids, position, Math.min(high + 1, list.size), id);
+            if (found >= 0) {
+                candidates[kept++] = id;
+                position = found + 1;
+            } else {
+                position = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static long getGram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Growable, increasing list of sequence numbers that contain one trigram.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                // The trigram occurs more than once in the same description
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
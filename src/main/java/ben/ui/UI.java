@@ -3,6 +3,8 @@ package ben.ui;
 import ben.task.Task;
 import ben.task.TaskList;
 
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.util.Scanner;
 
 import ben.task.Task;
@@ -13,10 +15,22 @@ import ben.task.TaskList;
  */
 public class UI {
     private Scanner scanner;
+    private PrintStream out;
     private static final String DIVIDER = "____________________________________________________________";
 
     public UI() {
-        scanner = new Scanner(System.in);
+        this(System.in, System.out);
+    }
+
+    /**
+     * Constructs a UI that reads commands from and writes messages to the given streams.
+     *
+     * @param in where commands are read from
+     * @param out where messages are written; it is flushed when the UI is closed
+     */
+    public UI(InputStream in, PrintStream out) {
+        this.scanner = new Scanner(in);
+        this.out = out;
     }
 
     /**
@@ -25,19 +39,19 @@ public class UI {
      * @param name the name of the chatbot to display in the welcome message
      */
     public void showWelcome(String name) {
-        System.out.println(DIVIDER);
-        System.out.printf(" Hello! I'm %s%n", name);
-        System.out.println(" What can I do for you?");
-        System.out.println(DIVIDER);
+        out.println(DIVIDER);
+        out.printf(" Hello! I'm %s%n", name);
+        out.println(" What can I do for you?");
+        out.println(DIVIDER);
     }
 
     /**
      * Displays the goodbye message when the application terminates.
      */
     public void showGoodbye() {
-        System.out.println(DIVIDER);
-        System.out.println(" Bye. Hope to see you again soon!");
-        System.out.println(DIVIDER);
+        out.println(DIVIDER);
+        out.println(" Bye. Hope to see you again soon!");
+        out.println(DIVIDER);
     }
 
     /**
@@ -46,13 +60,13 @@ public class UI {
      * @param message the message content to display to the user
      */
     public void showMessage(String message) {
-        System.out.println(DIVIDER);
-        System.out.println(" " + message);
-        System.out.println(DIVIDER);
+        out.println(DIVIDER);
+        out.println(" " + message);
+        out.println(DIVIDER);
     }
 
     public void showLine() {
-        System.out.println(DIVIDER);
+        out.println(DIVIDER);
     }
 
     /**
@@ -61,12 +75,12 @@ public class UI {
      * @param tasks the TaskList containing all tasks to display
      */
     public void showTaskList(TaskList tasks) {
-        System.out.println(tasks);
+        out.println(tasks);
     }
 
     public void showTaskMarkedDone(Task task) {
-        System.out.println(" Nice! I've marked this ben.task as done:");
-        System.out.println("   " + task);
+        out.println(" Nice! I've marked this ben.task as done:");
+        out.println("   " + task);
     }
 
     /**
@@ -76,20 +90,33 @@ public class UI {
      * @param totalTasks the new total number of tasks after addition
      */
     public void showTaskAdded(Task task, int totalTasks) {
-        System.out.println(" Got it. I've added this ben.task:");
-        System.out.println("   " + task);
-        System.out.println(" Now you have " + totalTasks + " tasks in the list.");
+        out.println(" Got it. I've added this ben.task:");
+        out.println("   " + task);
+        out.println(" Now you have " + totalTasks + " tasks in the list.");
     }
 
     public void showTaskMarkedNotDone(Task task) {
-        System.out.println(" OK, I've marked this ben.task as not done yet:");
-        System.out.println("   " + task);
+        out.println(" OK, I've marked this ben.task as not done yet:");
+        out.println("   " + task);
     }
 
     public void showTaskDeleted(Task task, int remainingTasks) {
-        System.out.println(" Noted. I've removed this ben.task:");
-        System.out.println("   " + task);
-        System.out.println(" Now you have " + remainingTasks + " tasks in the list.");
+        out.println(" Noted. I've removed this ben.task:");
+        out.println("   " + task);
+        out.println(" Now you have " + remainingTasks + " tasks in the list.");
+    }
+
+    /**
+     * Displays one task of a ranked search result, introducing the results before the first one.
+     *
+     * @param rank the 1-based position of the task in the result
+     * @param task the matching task
+     */
+    public void showMatchingTask(int rank, Task task) {
+        if (rank == 1) {
+            out.println(" Here are the matching tasks in your list:");
+        }
+        out.println(" " + rank + "." + task);
     }
 
     /**
@@ -98,16 +125,16 @@ public class UI {
      * @param errorMessage the error message to display
      */
     public void showError(String errorMessage) {
-        System.out.println(" OOPS!!! " + errorMessage);
+        out.println(" OOPS!!! " + errorMessage);
     }
 
     /**
      * Displays confirmation that a task has been successfully snoozed.
      */
     public void showTaskSnoozed(Task originalTask, Task snoozedTask) {
-        System.out.println(" Got it! I've snoozed this task:");
-        System.out.println("   From: " + originalTask);
-        System.out.println("   To:   " + snoozedTask);
+        out.println(" Got it! I've snoozed this task:");
+        out.println("   From: " + originalTask);
+        out.println("   To:   " + snoozedTask);
     }
 
     /**
@@ -120,10 +147,11 @@ public class UI {
     }
 
     /**
-     * Closes the input scanner to free system resources.
+     * Closes the input scanner to free system resources and flushes any buffered output.
      * Should be called when the application terminates.
      */
     public void close() {
         scanner.close();
+        out.flush();
     }
 }
\ No newline at end of file
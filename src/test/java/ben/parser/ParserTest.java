@@ -3,14 +3,24 @@ package ben.parser;
 import ben.BenException;
 import ben.command.AddCommand;
 import ben.command.Command;
+import ben.command.CompoundCommand;
 import ben.command.DeleteCommand;
 import ben.command.DueCommand;
 import ben.command.ExitCommand;
 import ben.command.ListCommand;
 import ben.command.MarkCommand;
+import ben.storage.InMemoryStorage;
+import ben.task.TaskList;
+import ben.ui.UI;
 import org.junit.jupiter.api.Test;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -137,4 +147,53 @@ public class ParserTest {
         assertInstanceOf(ListCommand.class, Parser.parse("LIST"));
         assertInstanceOf(AddCommand.class, Parser.parse("TODO read book"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parse_semicolonSeparatedCommands_returnsCompoundCommand() throws BenException {
+        assertInstanceOf(CompoundCommand.class, Parser.parse("todo read book; mark 1; delete 2"));
+        assertInstanceOf(AddCommand.class, Parser.parse("todo read book;"));
+        assertThrows(BenException.class, () -> Parser.parse("delete 1; mark first"));
+        assertThrows(BenException.class, () -> Parser.parse("todo read book; bye"));
+    }
+
+    @Test
+    public void parse_semicolonBeforeUnparsableCommand_keepsWholeInputAsOneCommand() throws BenException {
+        TaskList tasks = new TaskList();
+        UI ui = new UI(InputStream.nullInputStream(), new PrintStream(OutputStream.nullOutputStream()));
+        for (String input : List.of("todo buy milk; at least 2 litres", "todo pack; memory stick",
+                "todo read book; deadline")) {
+            Command command = Parser.parse(input);
+            assertInstanceOf(AddCommand.class, command);
+            command.execute(tasks, ui, new InMemoryStorage());
+        }
+
+        assertEquals("buy milk; at least 2 litres", tasks.getTask(1).getDescription());
+        assertEquals("pack; memory stick", tasks.getTask(2).getDescription());
+        assertEquals("read book; deadline", tasks.getTask(3).getDescription());
+    }
+
+    @Test
+    public void parse_semicolonInDescription_keepsItInTheTask() throws BenException {
+        TaskList tasks = new TaskList();
+        UI ui = new UI(InputStream.nullInputStream(), new PrintStream(OutputStream.nullOutputStream()));
+        Parser.parse("todo buy milk; eggs").execute(tasks, ui, new InMemoryStorage());
+        Parser.parse("todo call mum\\; list").execute(tasks, ui, new InMemoryStorage());
+
+        assertEquals(2, tasks.getSize());
+        assertEquals("buy milk; eggs", tasks.getTask(1).getDescription());
+        assertEquals("call mum; list", tasks.getTask(2).getDescription());
+    }
+
+    @Test
+    public void parseTaskSelection_rangesAndFilters_parsed() throws BenException {
+        assertTrue(Parser.parseTaskSelection("7", "mark").isSingleTask());
+        assertEquals(7, Parser.parseTaskSelection("7", "mark").getSingleTaskNumber());
+        assertFalse(Parser.parseTaskSelection("1,4,9-20", "mark").isSingleTask());
+        assertFalse(Parser.parseTaskSelection("type:D before:2024-01-01", "mark").hasRanges());
+        assertFalse(Parser.parseTaskSelection("3 done", "delete").isSingleTask());
+        assertThrows(BenException.class, () -> Parser.parseTaskSelection("20-10", "delete"));
+        assertThrows(BenException.class, () -> Parser.parseTaskSelection("type:X", "delete"));
+        assertThrows(BenException.class, () -> Parser.parseTaskSelection("before:2024-13-01", "delete"));
+        assertThrows(BenException.class, () -> Parser.parseTaskSelection("0-3", "delete"));
+    }
+}
@@ -0,0 +1,105 @@
+package ben.storage;
+
+import ben.BenException;
+import ben.task.Deadline;
+import ben.task.Event;
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinarySnapshotTest {
+    private File file;
+    private List<Task> tasks;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = Files.createTempDirectory("ben").resolve("ben.txt.bin").toFile();
+        Task done = new Deadline("return book", "2019-12-25");
+        done.markComplete();
+        tasks = List.of(new ToDo("read book"), done,
+                new Event("team meeting", "2019-12-25 1400", "2019-12-25 1600"), new ToDo("café au lait"));
+    }
+
+    @Test
+    public void write_thenRead_returnsSameTasksAndSequence() throws BenException {
+        BinarySnapshot.write(tasks, file, 42, false);
+
+        BinarySnapshot snapshot = BinarySnapshot.read(file);
+        assertEquals(42, snapshot.getCheckpointSequence());
+        assertEquals(tasks.size(), snapshot.getTasks().size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(TaskTextFormat.format(tasks.get(i)), TaskTextFormat.format(snapshot.getTasks().get(i)));
+        }
+    }
+
+    @Test
+    public void read_unsupportedVersion_throwsException() throws Exception {
+        BinarySnapshot.write(tasks, file, 0, false);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4);
+            raf.writeInt(2);
+        }
+
+        BenException e = assertThrows(BenException.class, () -> BinarySnapshot.read(file));
+        assertTrue(e.getMessage().contains("version 2"));
+    }
+
+    @Test
+    public void read_truncatedFile_throwsException() throws Exception {
+        BinarySnapshot.write(tasks, file, 0, false);
+        byte[] data = Files.readAllBytes(file.toPath());
+
+        // Cut inside the header, inside the records and inside the description heap
+        for (int length : new int[] {20, 50, data.length - 3}) {
+            Files.write(file.toPath(), Arrays.copyOf(data, length));
+            assertThrows(BenException.class, () -> BinarySnapshot.read(file));
+        }
+    }
+
+    @Test
+    public void read_dateOutOfRange_skipsRecord() throws Exception {
+        BinarySnapshot.write(tasks, file, 0, false);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // Epoch day of the deadline, then start epoch minute of the event
+            raf.seek(32 + 32 + 16);
+            raf.writeLong(Long.MAX_VALUE);
+            raf.seek(32 + 2 * 32 + 16);
+            raf.writeLong(Long.MIN_VALUE);
+        }
+
+        List<Task> loaded = BinarySnapshot.read(file).getTasks();
+        assertEquals(2, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertEquals("café au lait", loaded.get(1).getDescription());
+    }
+
+    @Test
+    public void loadTasks_binaryFormat_importsTextFileThenKeepsSnapshot() throws Exception {
+        File textFile = new File(file.getParentFile(), "ben.txt");
+        Files.write(textFile.toPath(), List.of("T | 1 | read book", "D | 0 | return book | 2019-12-25"));
+        StorageConfig config = new StorageConfig();
+        config.setFormat(StorageConfig.Format.BINARY);
+        FileStorage storage = new FileStorage(textFile.getPath(), config);
+
+        List<Task> imported = storage.loadTasks();
+        assertEquals(2, imported.size());
+        storage.saveTasks(List.of(new ToDo("buy milk")));
+        assertTrue(file.exists());
+        assertEquals(2, Files.readAllLines(textFile.toPath()).size());
+
+        List<Task> reloaded = storage.loadTasks();
+        assertEquals(1, reloaded.size());
+        assertEquals("buy milk", reloaded.get(0).getDescription());
+    }
+}
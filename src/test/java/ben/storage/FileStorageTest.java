@@ -0,0 +1,86 @@
+package ben.storage;
+
+import ben.BenException;
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileStorageTest {
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("ben");
+        file = directory.resolve("ben.txt");
+    }
+
+    @Test
+    public void saveTasks_replacesFileAndLeavesNoTempFile() throws Exception {
+        StorageConfig config = new StorageConfig();
+        config.setSyncPolicy(StorageConfig.SyncPolicy.BATCH);
+        FileStorage storage = new FileStorage(file.toString(), config);
+        storage.saveTasks(List.of(new ToDo("read book"), new ToDo("return book")));
+        storage.saveTasks(List.of(new ToDo("buy milk")));
+
+        assertEquals(List.of("T | 0 | buy milk"), Files.readAllLines(file));
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    public void saveTasks_cannotReplaceFile_keepsDirectoryClean() throws Exception {
+        // A non-empty directory where the task file should be cannot be replaced
+        Files.createDirectories(file.resolve("blocked"));
+        FileStorage storage = new FileStorage(file.toString());
+
+        assertThrows(BenException.class, () -> storage.saveTasks(List.of(new ToDo("read book"))));
+        assertTrue(Files.isDirectory(file));
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    public void writeSnapshot_olderVersion_isDropped() throws Exception {
+        FileStorage storage = new FileStorage(file.toString());
+        long older = storage.takeSnapshotVersion();
+        long newer = storage.takeSnapshotVersion();
+
+        assertTrue(storage.writeSnapshot(List.of(new ToDo("return book")), 0, newer));
+        assertFalse(storage.writeSnapshot(List.of(new ToDo("read book")), 0, older));
+        assertEquals(List.of("T | 0 | return book"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void saveTasks_journaledStorage_discardsFoldedJournal() throws Exception {
+        StorageConfig config = new StorageConfig();
+        config.setJournaled(true);
+        FileStorage storage = new FileStorage(file.toString(), config);
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        Task task = new ToDo("read book");
+        tasks.add(task);
+        storage.recordMutation(Mutation.add(task), tasks);
+        assertTrue(Files.exists(directory.resolve("ben.txt.journal")));
+
+        storage.saveTasks(tasks);
+        assertFalse(Files.exists(directory.resolve("ben.txt.journal")));
+        storage.close();
+        assertEquals(1, new FileStorage(file.toString(), config).loadTasks().size());
+    }
+
+    private long countFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ben.storage;
+
+import ben.task.Deadline;
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class IncrementalSaveTest {
+    private Path file;
+    private FileStorage storage;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = Files.createTempDirectory("ben").resolve("ben.txt");
+        StorageConfig config = new StorageConfig();
+        config.setIncremental(true);
+        storage = new FileStorage(file.toString(), config);
+    }
+
+    @Test
+    public void recordMutation_eachType_patchesFileInPlace() throws Exception {
+        Files.write(file, List.of("T | 0 | read book", "D | 0 | return book | 2019-12-25", "T | 0 | buy milk"));
+        Object fileKey = getFileKey();
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+
+        tasks.get(1).markComplete();
+        storage.recordMutation(Mutation.mark(2), tasks);
+        assertFileHolds(tasks);
+
+        Task added = new ToDo("call mum");
+        tasks.add(added);
+        storage.recordMutation(Mutation.add(added), tasks);
+        assertFileHolds(tasks);
+
+        tasks.remove(0);
+        storage.recordMutation(Mutation.delete(1), tasks);
+        assertFileHolds(tasks);
+
+        Task snoozed = new Deadline("return book", "2019-12-26");
+        tasks.remove(0);
+        tasks.add(snoozed);
+        storage.recordMutation(Mutation.snooze(1, snoozed), tasks);
+        assertFileHolds(tasks);
+
+        tasks.get(0).markIncomplete();
+        storage.recordMutation(Mutation.unmark(1), tasks);
+        assertFileHolds(tasks);
+        assertEquals(fileKey, getFileKey());
+    }
+
+    @Test
+    public void recordMutation_fileWithoutFinalLineBreak_startsAddedTaskOnNewLine() throws Exception {
+        Files.writeString(file, "T | 0 | read book");
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        Task added = new ToDo("buy milk");
+        tasks.add(added);
+        storage.recordMutation(Mutation.add(added), tasks);
+
+        assertEquals(List.of("T | 0 | read book", "T | 0 | buy milk"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void recordMutation_unpatchableLine_rewritesWholeFile() throws Exception {
+        // A two-character status cannot be patched with one byte, so the whole file is saved instead
+        Files.write(file, List.of("T | 0 | read book", "T | 00 | buy milk"));
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        tasks.get(0).markComplete();
+        storage.recordMutation(Mutation.mark(1), tasks);
+
+        assertEquals(List.of("T | 1 | read book", "T | 0 | buy milk"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void recordMutation_afterFullSave_patchesSavedFile() throws Exception {
+        List<Task> tasks = new ArrayList<>(List.of(new ToDo("read book"), new ToDo("buy milk")));
+        storage.saveTasks(tasks);
+        Object fileKey = getFileKey();
+
+        tasks.get(1).markComplete();
+        storage.recordMutation(Mutation.mark(2), tasks);
+        assertFileHolds(tasks);
+        assertEquals(fileKey, getFileKey());
+    }
+
+    private void assertFileHolds(List<Task> tasks) throws Exception {
+        List<String> expected = new ArrayList<>();
+        for (Task task : tasks) {
+            expected.add(TaskTextFormat.format(task));
+        }
+        assertEquals(expected, Files.readAllLines(file));
+    }
+
+    /**
+     * Identifies the file itself rather than its name, so a file replaced by a full save is told apart.
+     */
+    private Object getFileKey() throws Exception {
+        Object fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        assertNotNull(fileKey);
+        return fileKey;
+    }
+}
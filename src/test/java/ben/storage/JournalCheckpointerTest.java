@@ -0,0 +1,82 @@
+package ben.storage;
+
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalCheckpointerTest {
+    private Path directory;
+    private String filePath;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("ben");
+        filePath = directory.resolve("ben.txt").toString();
+    }
+
+    @Test
+    public void recordMutation_pastThreshold_foldsJournalIntoTaskFile() throws Exception {
+        FileStorage storage = new FileStorage(filePath, checkpointingConfig(2));
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        for (String description : List.of("read book", "return book", "buy milk")) {
+            Task task = new ToDo(description);
+            tasks.add(task);
+            storage.recordMutation(Mutation.add(task), tasks);
+        }
+        storage.close();
+
+        List<String> lines = Files.readAllLines(directory.resolve("ben.txt"));
+        assertEquals(List.of("# checkpoint 2", "T | 0 | read book", "T | 0 | return book"), lines);
+        assertFalse(Files.exists(directory.resolve("ben.txt.journal.old")));
+        assertEquals(List.of("3 | A | T | 0 | buy milk"), Files.readAllLines(directory.resolve("ben.txt.journal")));
+
+        List<Task> reloaded = new FileStorage(filePath, checkpointingConfig(2)).loadTasks();
+        assertEquals(3, reloaded.size());
+        assertEquals("buy milk", reloaded.get(2).getDescription());
+    }
+
+    @Test
+    public void loadTasks_sealedJournalNotYetDeleted_skipsRecordsInCheckpoint() throws Exception {
+        // As left by a crash after the checkpoint was written but before the sealed journal was deleted
+        Files.write(directory.resolve("ben.txt"), List.of("# checkpoint 2", "T | 1 | read book", "T | 0 | buy milk"));
+        Files.write(directory.resolve("ben.txt.journal.old"), List.of("1 | A | T | 0 | read book", "2 | M | 1"));
+        Files.write(directory.resolve("ben.txt.journal"), List.of("3 | A | T | 0 | call mum"));
+
+        FileStorage storage = new FileStorage(filePath, checkpointingConfig(0));
+        List<Task> tasks = storage.loadTasks();
+        assertEquals(3, tasks.size());
+        assertTrue(tasks.get(0).isComplete());
+        assertEquals("call mum", tasks.get(2).getDescription());
+        storage.close();
+    }
+
+    @Test
+    public void isDue_belowOrAboveThreshold() throws Exception {
+        Journal journal = new Journal(directory.resolve("ben.txt.journal").toString());
+        JournalCheckpointer checkpointer = new JournalCheckpointer(new FileStorage(filePath), journal, 2, 0);
+        journal.append("M | 1");
+        assertFalse(checkpointer.isDue());
+        journal.append("M | 2");
+        assertTrue(checkpointer.isDue());
+        checkpointer.close();
+        journal.close();
+    }
+
+    private static StorageConfig checkpointingConfig(int recordThreshold) {
+        StorageConfig config = new StorageConfig();
+        config.setJournaled(true);
+        config.setCheckpointRecordThreshold(recordThreshold);
+        config.setCheckpointByteThreshold(0);
+        return config;
+    }
+}
@@ -0,0 +1,108 @@
+package ben.storage;
+
+import ben.task.Deadline;
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalTest {
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("ben");
+    }
+
+    @Test
+    public void append_numbersRecordsInOrder() throws Exception {
+        Journal journal = new Journal(directory.resolve("ben.txt.journal").toString());
+        assertEquals(1, journal.append("A | T | 0 | read book"));
+        assertEquals(2, journal.append("M | 1"));
+        journal.close();
+
+        List<String> records = journal.readRecords();
+        assertEquals(List.of("1 | A | T | 0 | read book", "2 | M | 1"), records);
+        assertEquals(2, journal.getRecordCount());
+        assertEquals(2, journal.getLastSequence());
+    }
+
+    @Test
+    public void seal_keepsSealedRecordsFirstUntilDeleted() throws Exception {
+        Journal journal = new Journal(directory.resolve("ben.txt.journal").toString());
+        journal.append("M | 1");
+        journal.seal();
+        journal.append("U | 1");
+        journal.flush();
+
+        assertEquals(List.of("1 | M | 1", "2 | U | 1"), journal.readRecords());
+        assertEquals(1, journal.getRecordCount());
+        journal.deleteSealed();
+        assertEquals(List.of("2 | U | 1"), journal.readRecords());
+
+        journal.reset();
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    public void loadTasks_journaledStorage_replaysEveryMutation() throws Exception {
+        String filePath = directory.resolve("ben.txt").toString();
+        FileStorage storage = new FileStorage(filePath, journaledConfig());
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        add(storage, tasks, new ToDo("read book"));
+        add(storage, tasks, new Deadline("return book", "2019-12-25"));
+        add(storage, tasks, new ToDo("buy milk"));
+        tasks.get(1).markComplete();
+        storage.recordMutation(Mutation.mark(2), tasks);
+        tasks.remove(0);
+        storage.recordMutation(Mutation.delete(1), tasks);
+        Task snoozed = new Deadline("return book", "2019-12-26");
+        tasks.remove(0);
+        tasks.add(snoozed);
+        storage.recordMutation(Mutation.snooze(1, snoozed), tasks);
+        storage.close();
+
+        assertFalse(Files.exists(directory.resolve("ben.txt")));
+        List<Task> replayed = new FileStorage(filePath, journaledConfig()).loadTasks();
+        assertEquals(2, replayed.size());
+        assertEquals("buy milk", replayed.get(0).getDescription());
+        assertEquals(TaskTextFormat.format(snoozed), TaskTextFormat.format(replayed.get(1)));
+    }
+
+    @Test
+    public void loadTasks_corruptedRecord_skipsOnlyThatChange() throws Exception {
+        String filePath = directory.resolve("ben.txt").toString();
+        Files.write(directory.resolve("ben.txt.journal"),
+                List.of("1 | A | T | 0 | read book", "2 | M | 7", "3 | A | T | 0 | buy milk", "4 | A | T |"));
+
+        FileStorage storage = new FileStorage(filePath, journaledConfig());
+        List<Task> tasks = storage.loadTasks();
+        assertEquals(2, tasks.size());
+        assertEquals("buy milk", tasks.get(1).getDescription());
+
+        // New records continue after the last one replayed
+        storage.recordMutation(Mutation.mark(1), tasks);
+        storage.close();
+        assertTrue(Files.readAllLines(directory.resolve("ben.txt.journal")).contains("4 | M | 1"));
+    }
+
+    private static StorageConfig journaledConfig() {
+        StorageConfig config = new StorageConfig();
+        config.setJournaled(true);
+        return config;
+    }
+
+    private static void add(FileStorage storage, List<Task> tasks, Task task) throws Exception {
+        tasks.add(task);
+        storage.recordMutation(Mutation.add(task), tasks);
+    }
+}
@@ -0,0 +1,136 @@
+package ben.storage;
+
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyTaskListTest {
+    private static final int READERS = 4;
+
+    @Test
+    public void get_decodesOnlyTheTaskRead() {
+        LazyTaskList tasks = new LazyTaskList(bytes("# checkpoint 7\n"
+                + "T | 1 | read book\r\n"
+                + "not a task\n"
+                + "\n"
+                + "D | 0 | return book | 2019-12-25\n"
+                + "E | 0 | team meeting | 2019-12-25T14:00 | 2019-12-25T16:00"));
+
+        assertEquals(3, tasks.size());
+        assertEquals(7, tasks.getCheckpointSequence());
+        assertEquals(1, tasks.getSkippedCount());
+        assertFalse(tasks.isDecoded(1));
+        assertEquals("D | 0 | return book | 2019-12-25", tasks.getRawLine(1));
+
+        assertEquals("return book", tasks.get(1).getDescription());
+        assertTrue(tasks.isDecoded(1));
+        assertFalse(tasks.isDecoded(0));
+        assertFalse(tasks.isDecoded(2));
+        assertTrue(tasks.get(0).isComplete());
+    }
+
+    @Test
+    public void loadTasks_fieldUnreadable_skipsLineLikeEagerLoad() throws Exception {
+        Path file = Files.createTempDirectory("ben").resolve("ben.txt");
+        Files.write(file, List.of("D | 0 | return book | someday", "T | 0 | read book",
+                "D | 0 | bad date | 2019-13-01", "D | 0 | short date | 2019-12-5", "T | 00 | buy milk",
+                "E | 0 | bad time | 2024-11-22T25:00 | 2024-11-22T26:00", "E | 0 | missing end | 2024-11-22T14:00",
+                "E | 1 | meeting | 2024-02-29T14:00 | 2024-02-29T15:00:30"));
+        StorageConfig config = new StorageConfig();
+        config.setLazy(true);
+
+        List<Task> lazy = new FileStorage(file.toString(), config).loadTasks();
+        List<Task> eager = new FileStorage(file.toString()).loadTasks();
+        assertEquals(5, ((LazyTaskList) lazy).getSkippedCount());
+        assertEquals(eager.size(), lazy.size());
+        for (int i = 0; i < eager.size(); i++) {
+            assertEquals(TaskTextFormat.format(eager.get(i)), TaskTextFormat.format(lazy.get(i)));
+        }
+    }
+
+    @Test
+    public void addAndRemove_keepUndecodedLinesInPlace() {
+        LazyTaskList tasks = new LazyTaskList(bytes("T | 0 | a\nT | 0 | b\nT | 0 | c\n"));
+        tasks.remove(0);
+        tasks.add(new ToDo("d"));
+        LazyTaskList copy = tasks.copy();
+        tasks.remove(0);
+
+        assertEquals(3, copy.size());
+        assertEquals("T | 0 | b", copy.getRawLine(0));
+        assertFalse(copy.isDecoded(1));
+        assertEquals("d", copy.get(2).getDescription());
+        assertEquals("c", tasks.get(0).getDescription());
+    }
+
+    @Test
+    public void saveTasks_lazyLoad_writesUntouchedLinesBackUnchanged() throws Exception {
+        Path file = Files.createTempDirectory("ben").resolve("ben.txt");
+        // A trailing field the codec would drop, so a decoded task would not round-trip byte for byte
+        Files.write(file, List.of("D | 0 | return book | 2019-12-25 | ignored", "T | 0 | read book"));
+        StorageConfig config = new StorageConfig();
+        config.setLazy(true);
+        FileStorage storage = new FileStorage(file.toString(), config);
+
+        List<Task> tasks = storage.loadTasks();
+        assertTrue(tasks instanceof LazyTaskList);
+        tasks.get(1).markComplete();
+        storage.saveTasks(tasks);
+        assertEquals(List.of("D | 0 | return book | 2019-12-25 | ignored", "T | 1 | read book"),
+                Files.readAllLines(file));
+    }
+
+    @Test
+    public void get_concurrentFirstReads_allReturnTheSameTask() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("D | 0 | return book ").append(i).append(" | 2019-12-25\n");
+        }
+        LazyTaskList tasks = new LazyTaskList(text.toString().getBytes(Charset.defaultCharset()));
+
+        Task[][] seen = new Task[READERS][tasks.size()];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            Task[] seenByReader = seen[r];
+            Thread reader = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < seenByReader.length; i++) {
+                    seenByReader[i] = tasks.get(i);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        start.countDown();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            for (int r = 0; r < READERS; r++) {
+                assertSame(tasks.get(i), seen[r][i]);
+            }
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,128 @@
+package ben.storage;
+
+import ben.task.Deadline;
+import ben.task.Task;
+import ben.task.TaskList;
+import ben.task.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PagedStorageTest {
+
+    @Test
+    public void replaceRecords_keepsNewTasksAcrossReopenAndLeavesNoTempFile() throws Exception {
+        Path directory = Files.createTempDirectory("ben");
+        Path pageFile = directory.resolve("ben.txt.pages");
+        PagedTaskList pages = PagedTaskList.open(pageFile, 1);
+        for (int i = 0; i < 200; i++) {
+            pages.add(new ToDo("chapter " + i + " of a rather long book"));
+        }
+        pages.get(0).markComplete();
+
+        List<Task> kept = new ArrayList<>(pages.subList(0, 2));
+        kept.add(new Deadline("return book", "2019-12-25"));
+        pages.replaceRecords(kept);
+        assertEquals(3, pages.size());
+        assertTrue(pages.get(0).isComplete());
+        pages.close();
+
+        PagedTaskList reopened = PagedTaskList.open(pageFile, 1);
+        assertEquals(3, reopened.size());
+        assertTrue(reopened.isFinished());
+        assertEquals("chapter 1 of a rather long book", reopened.get(1).getDescription());
+        assertEquals("[D][ ] return book (deadline: Dec 25 2019)", reopened.get(2).toString());
+        reopened.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void replaceRecords_taskTooLarge_keepsOldTasks() throws Exception {
+        Path directory = Files.createTempDirectory("ben");
+        Path pageFile = directory.resolve("ben.txt.pages");
+        PagedTaskList pages = PagedTaskList.open(pageFile, 1);
+        pages.add(new ToDo("read book"));
+        pages.add(new ToDo("return book"));
+
+        List<Task> replacement = List.of(new ToDo("buy milk"), new ToDo("x".repeat(PagedTaskList.PAGE_SIZE)));
+        assertThrows(IllegalArgumentException.class, () -> pages.replaceRecords(replacement));
+        assertEquals(2, pages.size());
+        assertEquals("return book", pages.get(1).getDescription());
+        pages.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void loadTasks_unfinishedPageFile_importsTextFileAgain() throws Exception {
+        Path directory = Files.createTempDirectory("ben");
+        Path textFile = directory.resolve("ben.txt");
+        Files.write(textFile, List.of("T | 1 | read book", "D | 0 | return book | 2019-12-25"));
+        PagedStorage storage = new PagedStorage(textFile.toString(), new StorageConfig());
+        assertEquals(2, storage.loadTasks().size());
+        storage.close();
+
+        // Clear the finished flag, as if the import had been cut short
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("ben.txt.pages").toFile(), "rw")) {
+            file.seek(16);
+            file.writeInt(0);
+        }
+        List<Task> tasks = storage.loadTasks();
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.get(0).isComplete());
+        assertEquals("return book", tasks.get(1).getDescription());
+        storage.close();
+    }
+
+    @Test
+    public void rollbackTransaction_pagedStorage_restoresTasksInTheFile() throws Exception {
+        String filePath = Files.createTempDirectory("ben").resolve("ben.txt").toString();
+        PagedStorage storage = new PagedStorage(filePath, new StorageConfig());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        taskList.setStorage(storage);
+        taskList.addTask(new ToDo("read book"));
+        taskList.addTask(new ToDo("return book"));
+        taskList.addTask(new ToDo("buy milk"));
+
+        taskList.beginTransaction();
+        taskList.deleteTask(2);
+        taskList.mark(1);
+        assertEquals(2, taskList.rollbackTransaction());
+        assertEquals(3, taskList.getSize());
+        storage.close();
+
+        TaskList reopened = new TaskList(storage.loadTasks());
+        assertEquals(3, reopened.getSize());
+        assertEquals("return book", reopened.getTask(2).getDescription());
+        assertFalse(reopened.getTask(1).isComplete());
+        storage.close();
+    }
+
+    @Test
+    public void saveTasks_otherList_replacesPageFile() throws Exception {
+        String filePath = Files.createTempDirectory("ben").resolve("ben.txt").toString();
+        PagedStorage storage = new PagedStorage(filePath, new StorageConfig());
+        List<Task> pages = storage.loadTasks();
+        pages.add(new ToDo("read book"));
+        storage.saveTasks(List.of(new ToDo("return book"), new ToDo("buy milk")));
+        storage.close();
+
+        List<Task> reopened = storage.loadTasks();
+        assertEquals(2, reopened.size());
+        assertEquals("buy milk", reopened.get(1).getDescription());
+        storage.close();
+    }
+}
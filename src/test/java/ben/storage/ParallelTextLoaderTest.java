@@ -0,0 +1,75 @@
+package ben.storage;
+
+import ben.task.Task;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelTextLoaderTest {
+    /** Enough lines to fill several of the loader's 1 MB chunks. */
+    private static final int LINE_COUNT = 60_000;
+
+    @Test
+    public void load_severalChunks_keepsFileOrder() {
+        StringBuilder text = new StringBuilder("# checkpoint 12\n");
+        for (int i = 0; i < LINE_COUNT; i++) {
+            switch (i % 4) {
+            case 0:
+                text.append("T | 0 | read chapter ").append(i).append("\n");
+                break;
+            case 1:
+                text.append("D | 1 | return book ").append(i).append(" | 2019-12-25\r\n");
+                break;
+            case 2:
+                text.append("E | 0 | meeting ").append(i).append(" | 2019-12-25T14:00 | 2019-12-25T16:00\n");
+                break;
+            default:
+                text.append("X | corrupted line ").append(i).append("\n");
+                break;
+            }
+        }
+        byte[] data = text.toString().getBytes(Charset.defaultCharset());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelTextLoader loader = new ParallelTextLoader(data, pool);
+            List<Task> tasks = loader.load();
+
+            assertEquals(12, loader.getCheckpointSequence());
+            assertEquals(LINE_COUNT / 4 * 3, tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                int line = i / 3 * 4 + i % 3;
+                assertEquals(line, Integer.parseInt(tasks.get(i).getDescription().replaceAll("\\D", "")));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void loadTasks_parallelLoad_matchesSequentialLoad() throws Exception {
+        Path file = Files.createTempDirectory("ben").resolve("ben.txt");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < LINE_COUNT; i++) {
+            text.append(i % 2 == 0 ? "T | 1 | a somewhat longer todo description number " + i
+                    : "D | 0 | deadline " + i + " | 2020-02-29").append(System.lineSeparator());
+        }
+        Files.writeString(file, text, Charset.defaultCharset());
+
+        StorageConfig config = new StorageConfig();
+        config.setParallel(true);
+        List<Task> parallel = new FileStorage(file.toString(), config).loadTasks();
+        List<Task> sequential = new FileStorage(file.toString()).loadTasks();
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(TaskTextFormat.format(sequential.get(i)), TaskTextFormat.format(parallel.get(i)));
+        }
+    }
+}
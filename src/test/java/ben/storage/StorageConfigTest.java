@@ -0,0 +1,36 @@
+package ben.storage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StorageConfigTest {
+
+    @Test
+    public void fromSystemProperties_validNames_ignoresCase() {
+        System.setProperty(StorageConfig.FORMAT_PROPERTY, " Binary ");
+        System.setProperty(StorageConfig.SYNC_PROPERTY, "mutation");
+        try {
+            StorageConfig config = StorageConfig.fromSystemProperties();
+            assertEquals(StorageConfig.Format.BINARY, config.getFormat());
+            assertEquals(StorageConfig.SyncPolicy.MUTATION, config.getSyncPolicy());
+        } finally {
+            System.clearProperty(StorageConfig.FORMAT_PROPERTY);
+            System.clearProperty(StorageConfig.SYNC_PROPERTY);
+        }
+    }
+
+    @Test
+    public void fromSystemProperties_unknownNames_fallsBackToDefaults() {
+        System.setProperty(StorageConfig.FORMAT_PROPERTY, "binray");
+        System.setProperty(StorageConfig.SYNC_PROPERTY, "always");
+        try {
+            StorageConfig config = StorageConfig.fromSystemProperties();
+            assertEquals(StorageConfig.Format.TEXT, config.getFormat());
+            assertEquals(StorageConfig.SyncPolicy.NONE, config.getSyncPolicy());
+        } finally {
+            System.clearProperty(StorageConfig.FORMAT_PROPERTY);
+            System.clearProperty(StorageConfig.SYNC_PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ben.storage;
+
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StorageFactoryTest {
+
+    @Test
+    public void create_builtInBackends_configuresThem() {
+        assertInstanceOf(FileStorage.class, StorageFactory.create(configFor("Text ")));
+        assertInstanceOf(InMemoryStorage.class, StorageFactory.create(configFor("memory")));
+        assertInstanceOf(PagedStorage.class, StorageFactory.create(configFor("paged")));
+
+        StorageConfig binary = configFor("binary");
+        StorageFactory.create(binary);
+        assertEquals(StorageConfig.Format.BINARY, binary.getFormat());
+        StorageConfig journal = configFor("journal");
+        StorageFactory.create(journal);
+        assertTrue(journal.isJournaled());
+    }
+
+    @Test
+    public void create_registeredBackend_usesItsFactory() {
+        InMemoryStorage shared = new InMemoryStorage();
+        StorageFactory.register(" Shared ", config -> shared);
+        assertSame(shared, StorageFactory.create(configFor("shared")));
+    }
+
+    @Test
+    public void create_unknownBackend_fallsBackToText() {
+        StorageConfig config = configFor("cloud");
+        assertInstanceOf(FileStorage.class, StorageFactory.create(config));
+        assertEquals("text", config.getBackend());
+        assertEquals(StorageConfig.Format.TEXT, config.getFormat());
+    }
+
+    @Test
+    public void inMemoryStorage_keepsSavedAndRecordedTasks() {
+        InMemoryStorage storage = new InMemoryStorage(List.of(new ToDo("read book")));
+        List<Task> loaded = storage.loadTasks();
+        loaded.add(new ToDo("return book"));
+        assertEquals(1, storage.loadTasks().size());
+
+        storage.saveTasks(loaded);
+        loaded.add(new ToDo("buy milk"));
+        assertEquals(2, storage.loadTasks().size());
+
+        // A recorded mutation keeps the live list, so later changes to it are loaded too
+        storage.recordMutation(Mutation.add(loaded.get(2)), loaded);
+        loaded.add(new ToDo("call mum"));
+        assertEquals(4, storage.loadTasks().size());
+        assertEquals(1, storage.getMutationCount());
+    }
+
+    @Test
+    public void recordChanges_defaultsToSavingTheList() throws Exception {
+        StorageConfig config = configFor("paged");
+        config.setFilePath(Files.createTempDirectory("ben").resolve("ben.txt").toString());
+        Storage storage = StorageFactory.create(config);
+        storage.loadTasks();
+        List<Task> tasks = new ArrayList<>(List.of(new ToDo("read book"), new ToDo("return book")));
+        storage.recordChanges(tasks);
+        storage.close();
+
+        assertEquals(2, storage.loadTasks().size());
+        storage.close();
+    }
+
+    private static StorageConfig configFor(String backend) {
+        StorageConfig config = new StorageConfig();
+        config.setBackend(backend);
+        return config;
+    }
+}
@@ -0,0 +1,156 @@
+package ben.storage;
+
+import ben.task.Deadline;
+import ben.task.Event;
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the codec against the split-and-formatter code it replaced, kept below as the reference.
+ */
+public class TaskTextFormatTest {
+    private static final DateTimeFormatter DATE_STORAGE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final List<String> LINES = List.of(
+            "T | 0 | ate",
+            "T | 1 | read book",
+            "T | 2 | status other than 1",
+            "T | 0 | café | crème",
+            "T | 0 | trailing separator |",
+            "T | 0 |",
+            "T|0|no spaces",
+            "Q | 0 | unknown type",
+            "D | 0 | return book | 2019-12-25",
+            "D | 1 | extra field | 2019-12-25 | ignored",
+            "D | 0 | no date",
+            "D | 0 | bad date | 2019-13-01",
+            "D | 0 | short date | 2019-12-5",
+            "E | 0 | Team meeting | 2024-11-22T14:00 | 2024-11-22T15:00",
+            "E | 1 | with seconds | 2024-11-22T14:00:30 | 2024-11-22T15:00:00.5",
+            "E | 0 | missing end | 2024-11-22T14:00",
+            "E | 0 | bad time | 2024-11-22 1400 | 2024-11-22T15:00");
+
+    @Test
+    public void format_matchesBaselineFormat() {
+        Task done = new ToDo("read book");
+        done.markComplete();
+        List<Task> tasks = List.of(done, new ToDo("café au lait"),
+                new Deadline("return book", LocalDate.of(2019, 12, 5)),
+                new Deadline("far future", LocalDate.of(12019, 1, 1)),
+                new Deadline("before common era", LocalDate.of(0, 6, 1)),
+                new Event("meeting", LocalDateTime.of(2024, 11, 22, 14, 0), LocalDateTime.of(2024, 11, 22, 15, 0)),
+                new Event("seconds", LocalDateTime.of(2024, 11, 22, 14, 0, 30),
+                        LocalDateTime.of(2024, 11, 22, 15, 0, 0, 500_000_000)),
+                new Event("midnight", LocalDateTime.of(999, 1, 1, 0, 0), LocalDateTime.of(10000, 1, 1, 0, 0)));
+
+        for (Task task : tasks) {
+            assertEquals(baselineFormat(task), TaskTextFormat.format(task));
+        }
+    }
+
+    @Test
+    public void parse_matchesBaselineParse() {
+        for (String line : LINES) {
+            assertEquals(describe(baselineParse(line)), describe(TaskTextFormat.parse(line)), line);
+
+            byte[] data = ("  " + line + "  ").getBytes(StandardCharsets.UTF_8);
+            Task fromBytes = TaskTextFormat.parse(data, 2, data.length - 2, StandardCharsets.UTF_8);
+            assertEquals(describe(baselineParse(line)), describe(fromBytes), line);
+        }
+    }
+
+    @Test
+    public void isReadable_agreesWithParse() {
+        List<String> lines = new ArrayList<>(LINES);
+        lines.addAll(List.of("D | 0 | leap day | 2019-02-29", "D | 0 | zero day | 2019-12-00",
+                "E | 0 | late | 2024-11-22T24:00 | 2024-11-22T23:59",
+                "E | 0 | leap | 2023-02-29T14:00 | 2023-03-01T14:00",
+                "E | 0 | fraction | 2024-11-22T14:00:00.5 | 2024-11-22T14:00:61"));
+        for (String line : lines) {
+            byte[] data = line.getBytes(StandardCharsets.UTF_8);
+            boolean isParsed = TaskTextFormat.parse(data, 0, data.length, StandardCharsets.UTF_8) != null;
+            assertEquals(isParsed, TaskTextFormat.isReadable(data, 0, data.length, StandardCharsets.UTF_8), line);
+        }
+    }
+
+    @Test
+    public void parse_thenFormat_returnsSameLine() {
+        for (String line : List.of("T | 1 | read book", "D | 0 | return book | 2019-12-25",
+                "E | 0 | Team meeting | 2024-11-22T14:00 | 2024-11-22T15:00")) {
+            assertEquals(line, TaskTextFormat.format(TaskTextFormat.parse(line)));
+        }
+        assertNull(TaskTextFormat.parse(""));
+    }
+
+    private static String describe(Task task) {
+        return task == null ? null : task.getClass().getSimpleName() + ": " + baselineFormat(task);
+    }
+
+    private static String baselineFormat(Task task) {
+        String status = task.isComplete() ? "1" : "0";
+        String type = task.getType();
+        String description = task.getDescription();
+
+        if (task instanceof Deadline) {
+            String dateString = ((Deadline) task).getDeadline().format(DATE_STORAGE_FORMAT);
+            return type + " | " + status + " | " + description + " | " + dateString;
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            return type + " | " + status + " | " + description + " | " + event.getStartTime() + " | "
+                    + event.getEndTime();
+        } else {
+            return type + " | " + status + " | " + description;
+        }
+    }
+
+    private static Task baselineParse(String line) {
+        if (line.isEmpty()) {
+            return null;
+        }
+        String[] parts = line.split(" \\| ");
+        if (parts.length < 3) {
+            return null;
+        }
+
+        boolean isDone = parts[1].equals("1");
+        String description = parts[2];
+        Task task = null;
+        try {
+            switch (parts[0]) {
+            case "T":
+                task = new ToDo(description);
+                break;
+            case "D":
+                if (parts.length >= 4) {
+                    task = new Deadline(description, LocalDate.parse(parts[3], DATE_STORAGE_FORMAT));
+                }
+                break;
+            case "E":
+                if (parts.length >= 5) {
+                    task = new Event(description, LocalDateTime.parse(parts[3]), LocalDateTime.parse(parts[4]));
+                }
+                break;
+            default:
+                break;
+            }
+        } catch (Exception e) {
+            return null;
+        }
+
+        if (task != null && isDone) {
+            task.markComplete();
+        }
+        return task;
+    }
+}
@@ -0,0 +1,93 @@
+package ben.storage;
+
+import ben.task.Task;
+import ben.task.ToDo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WriteBehindFlusherTest {
+    /** Long enough that the background thread never flushes during a test. */
+    private static final long INTERVAL_MILLIS = 60 * 60 * 1000;
+
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("ben");
+        file = directory.resolve("ben.txt");
+    }
+
+    @Test
+    public void close_writesPendingChangesOnce() throws Exception {
+        FileStorage storage = new FileStorage(file.toString(), writeBehindConfig(StorageConfig.SyncPolicy.NONE));
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        add(storage, tasks, "read book");
+        add(storage, tasks, "return book");
+        tasks.get(0).markComplete();
+        storage.recordMutation(Mutation.mark(1), tasks);
+        assertFalse(Files.exists(file));
+
+        storage.close();
+        assertEquals(List.of("T | 1 | read book", "T | 0 | return book"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void flush_writesEveryChangeRecordedBeforeIt() throws Exception {
+        FileStorage storage = new FileStorage(file.toString(), writeBehindConfig(StorageConfig.SyncPolicy.BATCH));
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        add(storage, tasks, "read book");
+        storage.flush();
+        assertEquals(List.of("T | 0 | read book"), Files.readAllLines(file));
+
+        add(storage, tasks, "return book");
+        assertEquals(1, Files.readAllLines(file).size());
+        storage.close();
+        assertEquals(2, Files.readAllLines(file).size());
+    }
+
+    @Test
+    public void recordMutation_mutationSyncPolicy_writesImmediately() throws Exception {
+        FileStorage storage = new FileStorage(file.toString(), writeBehindConfig(StorageConfig.SyncPolicy.MUTATION));
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        add(storage, tasks, "read book");
+        assertEquals(List.of("T | 0 | read book"), Files.readAllLines(file));
+        storage.close();
+    }
+
+    @Test
+    public void close_journaledWriteBehind_flushesJournal() throws Exception {
+        StorageConfig config = writeBehindConfig(StorageConfig.SyncPolicy.NONE);
+        config.setJournaled(true);
+        FileStorage storage = new FileStorage(file.toString(), config);
+        List<Task> tasks = new ArrayList<>(storage.loadTasks());
+        add(storage, tasks, "read book");
+        add(storage, tasks, "return book");
+        storage.close();
+
+        assertTrue(Files.exists(directory.resolve("ben.txt.journal")));
+        assertEquals(2, new FileStorage(file.toString(), config).loadTasks().size());
+    }
+
+    private static StorageConfig writeBehindConfig(StorageConfig.SyncPolicy syncPolicy) {
+        StorageConfig config = new StorageConfig();
+        config.setWriteBehindMillis(INTERVAL_MILLIS);
+        config.setSyncPolicy(syncPolicy);
+        return config;
+    }
+
+    private static void add(FileStorage storage, List<Task> tasks, String description) throws Exception {
+        Task task = new ToDo(description);
+        tasks.add(task);
+        storage.recordMutation(Mutation.add(task), tasks);
+    }
+}
@@ -0,0 +1,33 @@
+package ben.task;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DescriptionPoolTest {
+
+    @Test
+    public void intern_equalDescriptions_returnsSharedString() {
+        String first = DescriptionPool.intern(new String("Team meeting with pool test"));
+        long sharedBefore = DescriptionPool.getStatistics().getSharedCount();
+
+        String second = DescriptionPool.intern(new String("Team meeting with pool test"));
+
+        assertSame(first, second);
+        assertEquals(sharedBefore + 1, DescriptionPool.getStatistics().getSharedCount());
+        assertTrue(DescriptionPool.getStatistics().getSharedSavedBytes() > 0);
+    }
+
+    @Test
+    public void intern_differentDescriptions_keepsBoth() {
+        String first = DescriptionPool.intern(new String("pool test one"));
+        String second = DescriptionPool.intern(new String("pool test two"));
+
+        assertFalse(first == second);
+        assertEquals("pool test one", first);
+        assertEquals("pool test two", second);
+    }
+}
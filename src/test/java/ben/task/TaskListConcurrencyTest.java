@@ -0,0 +1,114 @@
+package ben.task;
+
+import ben.BenException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskListConcurrencyTest {
+    private static final int READERS = 4;
+    private static final int WRITES = 2000;
+
+    @Test
+    public void concurrentReadsAndWrites_arrayBacking_matchSequentialResult() throws Exception {
+        runStress(TaskList.Backing.ARRAY);
+    }
+
+    @Test
+    public void concurrentReadsAndWrites_btreeBacking_matchSequentialResult() throws Exception {
+        runStress(TaskList.Backing.BTREE);
+    }
+
+    @Test
+    public void concurrentReadsAndWrites_persistentBacking_matchSequentialResult() throws Exception {
+        runStress(TaskList.Backing.PERSISTENT);
+    }
+
+    private void runStress(TaskList.Backing backing) throws Exception {
+        List<Task> initialTasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            initialTasks.add(new ToDo("initial task " + i));
+        }
+        TaskList taskList = new TaskList(initialTasks, backing);
+        List<String> expected = new ArrayList<>();
+        for (Task task : initialTasks) {
+            expected.add(task.getDescription());
+        }
+
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    start.await();
+                    Random random = new Random();
+                    while (isWriting.get()) {
+                        int size = taskList.getSize();
+                        if (size > 0) {
+                            int index = 1 + random.nextInt(size);
+                            try {
+                                assertTrue(taskList.getTask(index) != null, "Tasks should never be null");
+                            } catch (BenException e) {
+                                // The list shrank after its size was read
+                            }
+                        }
+                        for (Task task : taskList.findTasks("task 1")) {
+                            assertTrue(task.getDescription().contains("task 1"), "Search results should match");
+                        }
+                        int completed = taskList.countTasksByStatus(true);
+                        assertTrue(completed >= 0 && completed <= initialTasks.size() + WRITES,
+                                "Counts should stay in range");
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        start.countDown();
+        Random random = new Random(42);
+        for (int i = 0; i < WRITES; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 0 || expected.isEmpty()) {
+                String description = "added task " + i;
+                taskList.addTask(new ToDo(description));
+                expected.add(description);
+            } else if (operation == 1) {
+                int index = 1 + random.nextInt(expected.size());
+                taskList.deleteTask(index);
+                expected.remove(index - 1);
+            } else if (operation == 2) {
+                int index = 1 + random.nextInt(expected.size());
+                String description = "snoozed task " + i;
+                taskList.snoozeTask(index, new ToDo(description));
+                expected.remove(index - 1);
+                expected.add(description);
+            } else {
+                taskList.mark(1 + random.nextInt(expected.size()));
+            }
+        }
+        isWriting.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(failures.isEmpty(), "Readers failed: " + failures);
+        assertEquals(expected.size(), taskList.getSize());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), taskList.getTask(i + 1).getDescription());
+        }
+        assertEquals(expected.size(), taskList.countTasksByStatus(true) + taskList.countTasksByStatus(false));
+    }
+}
@@ -1,10 +1,22 @@
 package ben.task;
 
 import ben.BenException;
+import ben.storage.FileStorage;
+import ben.storage.InMemoryStorage;
+import ben.storage.PagedStorage;
+import ben.storage.StorageConfig;
+import ben.ui.UI;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -103,6 +115,20 @@ public class TaskListTest {
         assertThrows(BenException.class, () -> taskList.deleteTask(-1));
     }
 
+    // Test snoozeTask method
+    @Test
+    public void snoozeTask_validIndex_movesReplacementToEnd() throws BenException {
+        taskList.addTask(deadlineTask);
+        taskList.addTask(todoTask);
+        Task snoozed = new Deadline("return book", "2019-12-30");
+
+        Task original = taskList.snoozeTask(1, snoozed);
+        assertEquals(deadlineTask, original);
+        assertEquals(2, taskList.getSize());
+        assertEquals(todoTask, taskList.getTask(1));
+        assertEquals(snoozed, taskList.getTask(2));
+    }
+
     // Test mark method
     @Test
     public void mark_validIndex_marksTaskComplete() throws BenException {
@@ -227,4 +253,456 @@ public class TaskListTest {
         assertEquals(todoTask, newTaskList.getTask(1));
         assertEquals(deadlineTask, newTaskList.getTask(2));
     }
-}
\ No newline at end of file
+
+    // Test date queries
+    @Test
+    public void getTasksDueBetween_range_includesDeadlinesAndSpanningEvents() throws BenException {
+        Event longEvent = new Event("conference", "2019-12-20 0900", "2019-12-26 1700");
+        taskList.addTask(todoTask);
+        taskList.addTask(deadlineTask);
+        taskList.addTask(longEvent);
+
+        List<Task> result = taskList.getTasksDueBetween(LocalDate.of(2019, 12, 25), LocalDate.of(2019, 12, 25));
+        assertEquals(2, result.size());
+        assertTrue(result.contains(deadlineTask));
+        assertTrue(result.contains(longEvent));
+        assertTrue(taskList.getTasksDueBetween(LocalDate.of(2019, 12, 27), LocalDate.of(2019, 12, 31)).isEmpty());
+    }
+
+    @Test
+    public void getTasksDueBetween_afterDelete_excludesDeletedTask() throws BenException {
+        taskList.addTask(deadlineTask);
+        LocalDate christmas = LocalDate.of(2019, 12, 25);
+        assertEquals(1, taskList.getTasksDueBetween(christmas, christmas).size());
+
+        taskList.deleteTask(1);
+        assertTrue(taskList.getTasksDueBetween(christmas, christmas).isEmpty());
+    }
+
+    @Test
+    public void getOverdueTasks_completedDeadline_isExcluded() throws BenException {
+        Task doneDeadline = new Deadline("pay bill", "2019-12-01");
+        doneDeadline.markComplete();
+        taskList.addTask(deadlineTask);
+        taskList.addTask(doneDeadline);
+
+        List<Task> result = taskList.getOverdueTasks(LocalDate.of(2020, 1, 1));
+        assertEquals(1, result.size());
+        assertEquals(deadlineTask, result.get(0));
+    }
+
+    // Test keyword search
+    @Test
+    public void findTasks_keyword_matchesSubstringIgnoringCase() throws BenException {
+        taskList.addTask(todoTask);
+        taskList.addTask(deadlineTask);
+        taskList.addTask(eventTask);
+
+        List<Task> result = taskList.findTasks("BOOK");
+        assertEquals(2, result.size());
+        assertEquals(todoTask, result.get(0));
+        assertEquals(deadlineTask, result.get(1));
+        assertEquals(1, taskList.findTasks("m m").size());
+        assertTrue(taskList.findTasks("books").isEmpty());
+    }
+
+    @Test
+    public void findTasks_afterDeleteAndSnooze_reflectsChanges() throws BenException {
+        taskList.addTask(todoTask);
+        taskList.addTask(deadlineTask);
+        assertEquals(2, taskList.findTasks("book").size());
+
+        taskList.deleteTask(1);
+        Task snoozed = new Deadline("return book late", "2019-12-30");
+        taskList.snoozeTask(1, snoozed);
+        taskList.addTask(new ToDo("buy bookshelf"));
+
+        List<Task> result = taskList.findTasks("book");
+        assertEquals(2, result.size());
+        assertEquals(snoozed, result.get(0));
+        assertEquals(1, taskList.findTasks("late").size());
+    }
+
+    // Test ranked search
+    @Test
+    public void searchTasks_multipleWords_ranksBestMatchFirst() throws BenException {
+        Task bothWords = new ToDo("return library book");
+        taskList.addTask(todoTask);
+        taskList.addTask(eventTask);
+        taskList.addTask(bothWords);
+        taskList.addTask(new ToDo("visit library"));
+
+        List<Task> result = taskList.searchTasks("Library BOOK", 10);
+        assertEquals(3, result.size());
+        assertEquals(bothWords, result.get(0));
+        assertFalse(result.contains(eventTask));
+        assertEquals(1, taskList.searchTasks("library book", 1).size());
+    }
+
+    @Test
+    public void searchTasks_afterDelete_excludesDeletedTask() throws BenException {
+        taskList.addTask(todoTask);
+        taskList.addTask(deadlineTask);
+        assertEquals(2, taskList.searchTasks("book", 10).size());
+
+        taskList.deleteTask(1);
+        List<Task> result = taskList.searchTasks("book", 10);
+        assertEquals(1, result.size());
+        assertEquals(deadlineTask, result.get(0));
+        assertTrue(taskList.searchTasks("read", 10).isEmpty());
+    }
+
+    @Test
+    public void searchTasksMatching_showsEachTaskAsItIsRanked() throws BenException {
+        Task bothWords = new ToDo("return library book");
+        taskList.addTask(todoTask);
+        taskList.addTask(bothWords);
+        List<String> shown = new ArrayList<>();
+        UI recordingUi = new UI(InputStream.nullInputStream(), new PrintStream(OutputStream.nullOutputStream())) {
+            @Override
+            public void showMatchingTask(int rank, Task task) {
+                shown.add(rank + "." + task);
+            }
+        };
+
+        taskList.searchTasksMatching("library book", 10, recordingUi);
+        assertEquals(List.of("1." + bothWords, "2." + todoTask), shown);
+    }
+
+    // Test status and type queries
+    @Test
+    public void countTasksByTypeAndStatus_afterMarkUnmarkDelete_staysCurrent() throws BenException {
+        Task otherDeadline = new Deadline("pay bill", "2019-12-01");
+        taskList.addTask(todoTask);
+        taskList.addTask(deadlineTask);
+        taskList.addTask(eventTask);
+        taskList.addTask(otherDeadline);
+        assertEquals(2, taskList.countTasksByTypeAndStatus("D", false));
+
+        taskList.mark(2);
+        assertEquals(1, taskList.countTasksByStatus(true));
+        assertEquals(3, taskList.countTasksByStatus(false));
+        assertEquals(1, taskList.countTasksByTypeAndStatus("D", false));
+        assertEquals(otherDeadline, taskList.getTasksByTypeAndStatus("D", false).get(0));
+
+        taskList.unmark(2);
+        taskList.deleteTask(1);
+        assertEquals(0, taskList.countTasksByType("T"));
+        assertEquals(2, taskList.countTasksByTypeAndStatus("D", false));
+        assertEquals(3, taskList.getPendingTasks().size());
+    }
+
+    @Test
+    public void getTasksByType_loadedTasks_returnsTasksInListOrder() throws BenException {
+        Task doneTodo = new ToDo("water plants");
+        doneTodo.markComplete();
+        List<Task> existingTasks = new ArrayList<>(List.of(todoTask, deadlineTask, doneTodo));
+        TaskList loadedList = new TaskList(existingTasks);
+
+        List<Task> todos = loadedList.getTasksByType("T");
+        assertEquals(2, todos.size());
+        assertEquals(todoTask, todos.get(0));
+        assertEquals(doneTodo, todos.get(1));
+        assertEquals(List.of(doneTodo), loadedList.getCompletedTasks());
+        assertTrue(loadedList.getTasksByType("X").isEmpty());
+    }
+
+    // Test event time queries
+    @Test
+    public void getEventsAt_moment_returnsRunningEventsOnly() throws BenException {
+        Event lunch = new Event("lunch", "2019-12-25 1200", "2019-12-25 1300");
+        taskList.addTask(eventTask);
+        taskList.addTask(lunch);
+        taskList.addTask(deadlineTask);
+
+        List<Event> running = taskList.getEventsAt(LocalDateTime.of(2019, 12, 25, 14, 0));
+        assertEquals(1, running.size());
+        assertEquals(eventTask, running.get(0));
+        assertTrue(taskList.getEventsAt(LocalDateTime.of(2019, 12, 25, 16, 0)).isEmpty());
+        List<Event> overlapping = taskList.getEventsBetween(
+                LocalDateTime.of(2019, 12, 25, 12, 30), LocalDateTime.of(2019, 12, 25, 14, 30));
+        assertEquals(2, overlapping.size());
+        assertEquals(lunch, overlapping.get(0));
+        assertEquals(eventTask, overlapping.get(1));
+    }
+
+    @Test
+    public void getOverlappingEvents_afterSnooze_usesNewTimes() throws BenException {
+        Event meeting = (Event) eventTask;
+        Event review = new Event("code review", "2019-12-25 1500", "2019-12-25 1700");
+        Event backToBack = new Event("retro", "2019-12-25 1600", "2019-12-25 1700");
+        taskList.addTask(eventTask);
+        taskList.addTask(review);
+        taskList.addTask(backToBack);
+        assertEquals(List.of(review), taskList.getOverlappingEvents(meeting));
+
+        Event movedReview = new Event("code review", "2019-12-26 1500", "2019-12-26 1700");
+        taskList.snoozeTask(2, movedReview);
+        assertTrue(taskList.getOverlappingEvents(meeting).isEmpty());
+        assertTrue(taskList.getOverlappingEvents(movedReview).isEmpty());
+    }
+
+    @Test
+    public void getFreeSlots_overlappingEvents_returnsMergedGaps() throws BenException {
+        taskList.addTask(new Event("standup", "2019-12-25 0900", "2019-12-25 1000"));
+        taskList.addTask(new Event("workshop", "2019-12-25 0930", "2019-12-25 1200"));
+        taskList.addTask(eventTask);
+        LocalDateTime from = LocalDateTime.of(2019, 12, 25, 8, 0);
+        LocalDateTime to = LocalDateTime.of(2019, 12, 25, 18, 0);
+
+        List<TimeSlot> slots = taskList.getFreeSlots(from, to, 90, Integer.MAX_VALUE);
+        assertEquals(2, slots.size());
+        assertEquals(LocalDateTime.of(2019, 12, 25, 12, 0), slots.get(0).getStart());
+        assertEquals(LocalDateTime.of(2019, 12, 25, 14, 0), slots.get(0).getEnd());
+        assertEquals(120, slots.get(1).getMinutes());
+        assertEquals(3, taskList.getFreeSlots(from, to, 60, Integer.MAX_VALUE).size());
+
+        List<TimeSlot> first = taskList.getFreeSlots(from, to, 120, 1);
+        assertEquals(1, first.size());
+        assertEquals(LocalDateTime.of(2019, 12, 25, 12, 0), first.get(0).getStart());
+        assertTrue(taskList.getFreeSlots(from, to, 150, 1).isEmpty());
+    }
+
+    // Test backing structures
+    @Test
+    public void backingFromSystemProperties_unknownName_fallsBackToArray() {
+        System.setProperty(TaskList.BACKING_PROPERTY, "btre");
+        try {
+            assertEquals(TaskList.Backing.ARRAY, TaskList.Backing.fromSystemProperties());
+            System.setProperty(TaskList.BACKING_PROPERTY, " BTree ");
+            assertEquals(TaskList.Backing.BTREE, TaskList.Backing.fromSystemProperties());
+        } finally {
+            System.clearProperty(TaskList.BACKING_PROPERTY);
+        }
+    }
+
+    @Test
+    public void btreeBacking_deleteAndSnooze_keepsNumbering() throws BenException {
+        List<Task> existingTasks = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            existingTasks.add(new ToDo("task " + i));
+        }
+        TaskList btreeList = new TaskList(existingTasks, TaskList.Backing.BTREE);
+
+        assertEquals("task 500", btreeList.deleteTask(500).getDescription());
+        assertEquals("task 501", btreeList.getTask(500).getDescription());
+        btreeList.snoozeTask(1, deadlineTask);
+        assertEquals("task 2", btreeList.getTask(1).getDescription());
+        assertEquals(deadlineTask, btreeList.getTask(999));
+        btreeList.mark(999);
+        assertEquals(1, btreeList.countTasksByStatus(true));
+        assertEquals(999, btreeList.getSize());
+    }
+
+    @Test
+    public void persistentBacking_snapshot_unaffectedByLaterChanges() throws BenException {
+        List<Task> existingTasks = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            existingTasks.add(new ToDo("task " + i));
+        }
+        existingTasks.add(eventTask);
+        TaskList persistentList = new TaskList(existingTasks, TaskList.Backing.PERSISTENT);
+        assertEquals(1, persistentList.getEventsAt(LocalDateTime.of(2019, 12, 25, 15, 0)).size());
+
+        List<Task> snapshot = persistentList.snapshot();
+        persistentList.mark(1001);
+        persistentList.deleteTask(1);
+        persistentList.addTask(todoTask);
+
+        assertEquals(1001, snapshot.size());
+        assertEquals("task 1", snapshot.get(0).getDescription());
+        assertFalse(snapshot.get(1000).isComplete());
+        assertFalse(eventTask.isComplete());
+        assertEquals(1001, persistentList.getSize());
+        assertTrue(persistentList.getTask(1000).isComplete());
+        assertEquals(todoTask, persistentList.getTask(1001));
+        assertTrue(persistentList.getEventsAt(LocalDateTime.of(2019, 12, 25, 15, 0)).get(0).isComplete());
+        assertEquals(1, persistentList.countTasksByStatus(true));
+    }
+
+    @Test
+    public void columnarBacking_viewsWriteThroughAndMatchIndexes() throws BenException {
+        List<Task> existingTasks = new ArrayList<>();
+        existingTasks.add(todoTask);
+        existingTasks.add(deadlineTask);
+        TaskList columnarList = new TaskList(existingTasks, TaskList.Backing.COLUMNAR);
+        assertEquals(1, columnarList.getOverdueTasks(LocalDate.of(2020, 1, 1)).size());
+
+        columnarList.addTask(eventTask);
+        assertTrue(columnarList.getOverlappingEvents((Event) eventTask).isEmpty());
+        assertEquals(eventTask.toString(), columnarList.getTask(3).toString());
+
+        columnarList.mark(2);
+        assertTrue(columnarList.getTask(2).isComplete());
+        assertTrue(columnarList.getOverdueTasks(LocalDate.of(2020, 1, 1)).isEmpty());
+        assertFalse(deadlineTask.isComplete());
+
+        columnarList.deleteTask(1);
+        assertEquals("return book", columnarList.getTask(1).getDescription());
+        assertEquals(2, columnarList.getTasksDueBetween(LocalDate.of(2019, 12, 25), LocalDate.of(2019, 12, 25)).size());
+        assertEquals(1, columnarList.findTasks("meeting").size());
+        assertEquals(1, columnarList.countTasksByStatus(true));
+    }
+
+    @Test
+    public void pagedStorage_faultsPagesInAndKeepsChangesAcrossReopen() throws Exception {
+        StorageConfig config = new StorageConfig();
+        config.setPageCachePages(1);
+        String filePath = Files.createTempDirectory("ben").resolve("ben.txt").toString();
+        PagedStorage storage = new PagedStorage(filePath, config);
+        TaskList pagedList = new TaskList(storage.loadTasks());
+        pagedList.setStorage(storage);
+        for (int i = 0; i < 300; i++) {
+            pagedList.addTask(new ToDo("chapter " + i + " of a rather long book"));
+        }
+        pagedList.addTask(deadlineTask);
+        pagedList.mark(2);
+        pagedList.deleteTask(1);
+        assertTrue(pagedList.getTask(1).isComplete());
+        assertEquals(1, pagedList.getOverdueTasks(LocalDate.of(2020, 1, 1)).size());
+        assertTrue(storage.getCacheStatistics().getMissCount() > 1);
+        storage.close();
+
+        TaskList reopened = new TaskList(storage.loadTasks());
+        assertEquals(300, reopened.getSize());
+        assertEquals("chapter 1 of a rather long book", reopened.getTask(1).getDescription());
+        assertTrue(reopened.getTask(1).isComplete());
+        assertEquals(deadlineTask.toString(), reopened.getTask(300).toString());
+        storage.close();
+    }
+
+    @Test
+    public void deferSaves_savesChangesOnceWhenResumed() throws BenException {
+        InMemoryStorage storage = new InMemoryStorage();
+        taskList.setStorage(storage);
+        taskList.deferSaves();
+        taskList.addTask(todoTask);
+        taskList.addTask(deadlineTask);
+        taskList.mark(1);
+        assertTrue(storage.loadTasks().isEmpty());
+
+        taskList.saveDeferredChanges();
+        assertEquals(2, storage.loadTasks().size());
+        taskList.deleteTask(2);
+        taskList.resumeSaves();
+        assertEquals(1, storage.loadTasks().size());
+        assertEquals(0, storage.getMutationCount());
+
+        taskList.addTask(eventTask);
+        assertEquals(1, storage.getMutationCount());
+    }
+
+    @Test
+    public void saveDeferredChanges_openTransaction_savesNothingUntilItEnds() throws BenException {
+        InMemoryStorage storage = new InMemoryStorage();
+        taskList.setStorage(storage);
+        taskList.deferSaves();
+        taskList.addTask(todoTask);
+        taskList.saveDeferredChanges();
+        taskList.beginTransaction();
+        taskList.addTask(deadlineTask);
+        taskList.saveDeferredChanges();
+        assertEquals(1, storage.loadTasks().size());
+
+        taskList.rollbackTransaction();
+        taskList.resumeSaves();
+        assertEquals(1, taskList.getSize());
+        assertEquals(1, storage.loadTasks().size());
+    }
+
+    @Test
+    public void rollbackTransaction_undoesChangesWithoutSaving() throws BenException {
+        for (TaskList.Backing backing : TaskList.Backing.values()) {
+            List<Task> existingTasks = new ArrayList<>();
+            existingTasks.add(new ToDo("read book"));
+            existingTasks.add(new Deadline("return book", "2019-12-25"));
+            TaskList transactionList = new TaskList(existingTasks, backing);
+            InMemoryStorage storage = new InMemoryStorage();
+            transactionList.setStorage(storage);
+            String before = transactionList.toString();
+
+            transactionList.beginTransaction();
+            transactionList.mark(2);
+            transactionList.deleteTask(1);
+            transactionList.addTask(new Event("team meeting", "2019-12-25 1400", "2019-12-25 1600"));
+            assertEquals(3, transactionList.rollbackTransaction());
+            assertEquals(before, transactionList.toString());
+            assertEquals(1, transactionList.getOverdueTasks(LocalDate.of(2020, 1, 1)).size());
+            assertEquals(0, storage.getMutationCount());
+
+            transactionList.beginTransaction();
+            transactionList.unmark(2);
+            transactionList.addTask(new ToDo("write report"));
+            assertEquals(2, transactionList.commitTransaction());
+            assertEquals(3, storage.loadTasks().size());
+            assertEquals(0, storage.getMutationCount());
+            assertThrows(BenException.class, transactionList::commitTransaction);
+        }
+    }
+
+    @Test
+    public void deleteTasks_removesSelectedTasksInOneWrite() throws BenException {
+        for (TaskList.Backing backing : TaskList.Backing.values()) {
+            TaskList bulkList = new TaskList(new ArrayList<>(), backing);
+            for (int i = 1; i <= 20; i++) {
+                bulkList.addTask(i % 2 == 0 ? new Deadline("return book " + i, String.format("2019-12-%02d", i + 5))
+                        : new ToDo("read chapter " + i));
+            }
+            InMemoryStorage storage = new InMemoryStorage();
+            bulkList.setStorage(storage);
+
+            TaskSelection firstFive = new TaskSelection();
+            firstFive.addRange(1, 5);
+            assertEquals(5, bulkList.markTasks(firstFive, true).size());
+            TaskSelection doneDeadlines = new TaskSelection();
+            doneDeadlines.setComplete(true);
+            doneDeadlines.setType("D");
+            assertEquals(2, bulkList.deleteTasks(doneDeadlines).size());
+            TaskSelection dueEarly = new TaskSelection();
+            dueEarly.addRange(1, 18);
+            dueEarly.setBefore(LocalDate.of(2019, 12, 16));
+            assertEquals(3, bulkList.deleteTasks(dueEarly).size());
+
+            assertEquals(15, bulkList.getSize());
+            assertEquals("read chapter 1", bulkList.getTask(1).getDescription());
+            assertEquals("read chapter 3", bulkList.getTask(2).getDescription());
+            assertEquals("return book 12", bulkList.getTask(7).getDescription());
+            assertEquals(3, bulkList.countTasksByStatus(true));
+            assertEquals(15, storage.loadTasks().size());
+            assertEquals(0, storage.getMutationCount());
+
+            TaskSelection pastEnd = new TaskSelection();
+            pastEnd.addRange(10, 16);
+            assertThrows(BenException.class, () -> bulkList.deleteTasks(pastEnd));
+            assertEquals(15, bulkList.getSize());
+        }
+    }
+
+    @Test
+    public void deleteTasks_journaledStorage_keepsBulkChangesAcrossCheckpoints() throws Exception {
+        StorageConfig config = new StorageConfig();
+        config.setJournaled(true);
+        config.setCheckpointRecordThreshold(2);
+        String filePath = Files.createTempDirectory("ben").resolve("ben.txt").toString();
+        FileStorage storage = new FileStorage(filePath, config);
+        TaskList journaledList = new TaskList(storage.loadTasks());
+        journaledList.setStorage(storage);
+        for (int i = 1; i <= 50; i++) {
+            journaledList.addTask(new ToDo("read chapter " + i));
+            if (i % 10 == 0) {
+                TaskSelection lastTwo = new TaskSelection();
+                lastTwo.addRange(journaledList.getSize() - 1, journaledList.getSize());
+                journaledList.markTasks(lastTwo, true);
+                TaskSelection first = new TaskSelection();
+                first.addRange(1, 1);
+                journaledList.deleteTasks(first);
+            }
+        }
+        String expected = journaledList.toString();
+        storage.close();
+
+        FileStorage reopened = new FileStorage(filePath, config);
+        assertEquals(expected, new TaskList(reopened.loadTasks()).toString());
+        reopened.close();
+    }
+}